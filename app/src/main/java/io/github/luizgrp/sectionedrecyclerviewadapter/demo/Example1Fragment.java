@@ -81,6 +81,7 @@ public class Example1Fragment extends Fragment {
             super(SectionParameters.builder()
                     .itemResourceId(R.layout.section_ex1_item)
                     .headerResourceId(R.layout.section_ex1_header)
+                    .viewTypeKey("contacts")
                     .build());
 
             this.title = title;
@@ -38,6 +38,9 @@ public class Example3Fragment extends Fragment {
         View view = inflater.inflate(R.layout.fragment_ex3, container, false);
 
         sectionAdapter = new SectionedRecyclerViewAdapter();
+        // keep the ViewHolders of the headers and items when the sections are refreshed with
+        // notifyDataSetChanged
+        sectionAdapter.setHasStableIds(true);
 
         NewsSection worldNews = new NewsSection(NewsSection.WORLD);
         NewsSection bizNews = new NewsSection(NewsSection.BUSINESS);
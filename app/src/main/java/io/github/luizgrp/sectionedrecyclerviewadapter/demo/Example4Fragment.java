@@ -18,9 +18,9 @@ import android.widget.Toast;
 import java.util.ArrayList;
 import java.util.List;
 
+import io.github.luizgrp.sectionedrecyclerviewadapter.ExpandableSection;
 import io.github.luizgrp.sectionedrecyclerviewadapter.SectionParameters;
 import io.github.luizgrp.sectionedrecyclerviewadapter.SectionedRecyclerViewAdapter;
-import io.github.luizgrp.sectionedrecyclerviewadapter.StatelessSection;
 
 public class Example4Fragment extends Fragment {
 
@@ -72,11 +72,10 @@ public class Example4Fragment extends Fragment {
         return contacts;
     }
 
-    private class ExpandableContactsSection extends StatelessSection {
+    private class ExpandableContactsSection extends ExpandableSection {
 
         final String title;
         final List<String> list;
-        boolean expanded = true;
 
         ExpandableContactsSection(String title, List<String> list) {
             super(SectionParameters.builder()
@@ -89,8 +88,8 @@ public class Example4Fragment extends Fragment {
         }
 
         @Override
-        public int getContentItemsTotal() {
-            return expanded ? list.size() : 0;
+        public int getExpandedContentItemsTotal() {
+            return list.size();
         }
 
         @Override
@@ -129,15 +128,17 @@ public class Example4Fragment extends Fragment {
             final HeaderViewHolder headerHolder = (HeaderViewHolder) holder;
 
             headerHolder.tvTitle.setText(title);
+            headerHolder.imgArrow.setImageResource(
+                    isExpanded() ? R.drawable.ic_keyboard_arrow_up_black_18dp : R.drawable.ic_keyboard_arrow_down_black_18dp
+            );
 
             headerHolder.rootView.setOnClickListener(new View.OnClickListener() {
                 @Override
                 public void onClick(View v) {
-                    expanded = !expanded;
+                    setExpanded(!isExpanded());
                     headerHolder.imgArrow.setImageResource(
-                            expanded ? R.drawable.ic_keyboard_arrow_up_black_18dp : R.drawable.ic_keyboard_arrow_down_black_18dp
+                            isExpanded() ? R.drawable.ic_keyboard_arrow_up_black_18dp : R.drawable.ic_keyboard_arrow_down_black_18dp
                     );
-                    sectionAdapter.notifyDataSetChanged();
                 }
             });
         }
@@ -19,9 +19,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import io.github.luizgrp.sectionedrecyclerviewadapter.ExpandableSection;
 import io.github.luizgrp.sectionedrecyclerviewadapter.SectionParameters;
 import io.github.luizgrp.sectionedrecyclerviewadapter.SectionedRecyclerViewAdapter;
-import io.github.luizgrp.sectionedrecyclerviewadapter.StatelessSection;
 
 public class Example6Fragment extends Fragment {
 
@@ -97,11 +97,10 @@ public class Example6Fragment extends Fragment {
         return movieList;
     }
 
-    private class ExpandableMovieSection extends StatelessSection {
+    private class ExpandableMovieSection extends ExpandableSection {
 
         final String title;
         final List<Movie> list;
-        boolean expanded = true;
 
         ExpandableMovieSection(String title, List<Movie> list) {
             super(SectionParameters.builder()
@@ -114,8 +113,8 @@ public class Example6Fragment extends Fragment {
         }
 
         @Override
-        public int getContentItemsTotal() {
-            return expanded ? list.size() : 0;
+        public int getExpandedContentItemsTotal() {
+            return list.size();
         }
 
         @Override
@@ -153,15 +152,17 @@ public class Example6Fragment extends Fragment {
             final HeaderViewHolder headerHolder = (HeaderViewHolder) holder;
 
             headerHolder.tvTitle.setText(title);
+            headerHolder.imgArrow.setImageResource(
+                    isExpanded() ? R.drawable.ic_keyboard_arrow_up_black_18dp : R.drawable.ic_keyboard_arrow_down_black_18dp
+            );
 
             headerHolder.rootView.setOnClickListener(new View.OnClickListener() {
                 @Override
                 public void onClick(View v) {
-                    expanded = !expanded;
+                    setExpanded(!isExpanded());
                     headerHolder.imgArrow.setImageResource(
-                            expanded ? R.drawable.ic_keyboard_arrow_up_black_18dp : R.drawable.ic_keyboard_arrow_down_black_18dp
+                            isExpanded() ? R.drawable.ic_keyboard_arrow_up_black_18dp : R.drawable.ic_keyboard_arrow_down_black_18dp
                     );
-                    sectionAdapter.notifyDataSetChanged();
                 }
             });
         }
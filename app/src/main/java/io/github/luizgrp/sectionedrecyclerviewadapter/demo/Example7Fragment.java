@@ -1,7 +1,6 @@
 package io.github.luizgrp.sectionedrecyclerviewadapter.demo;
 
 import android.os.Bundle;
-import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuInflater;
@@ -23,10 +22,9 @@ import androidx.appcompat.widget.SearchView;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import io.github.luizgrp.sectionedrecyclerviewadapter.Section;
+import io.github.luizgrp.sectionedrecyclerviewadapter.FilterableSection;
 import io.github.luizgrp.sectionedrecyclerviewadapter.SectionParameters;
 import io.github.luizgrp.sectionedrecyclerviewadapter.SectionedRecyclerViewAdapter;
-import io.github.luizgrp.sectionedrecyclerviewadapter.StatelessSection;
 
 public class Example7Fragment extends Fragment implements SearchView.OnQueryTextListener {
 
@@ -85,13 +83,7 @@ public class Example7Fragment extends Fragment implements SearchView.OnQueryText
 
     @Override
     public boolean onQueryTextChange(String query) {
-
-        for (Section section : sectionAdapter.getCopyOfSectionsMap().values()) {
-            if (section instanceof FilterableSection) {
-                ((FilterableSection) section).filter(query);
-            }
-        }
-        sectionAdapter.notifyDataSetChanged();
+        sectionAdapter.filterSections(query.toLowerCase(Locale.getDefault()));
 
         return true;
     }
@@ -113,26 +105,23 @@ public class Example7Fragment extends Fragment implements SearchView.OnQueryText
         return contacts;
     }
 
-    private class ContactsSection extends StatelessSection implements FilterableSection {
+    private class ContactsSection extends FilterableSection<String> {
 
         final String title;
-        final List<String> list;
-        List<String> filteredList;
 
         ContactsSection(String title, List<String> list) {
             super(SectionParameters.builder()
                     .itemResourceId(R.layout.section_ex7_item)
                     .headerResourceId(R.layout.section_ex7_header)
-                    .build());
+                    .build(), list);
 
             this.title = title;
-            this.list = list;
-            this.filteredList = new ArrayList<>(list);
         }
 
         @Override
-        public int getContentItemsTotal() {
-            return filteredList.size();
+        public boolean matches(String item, @NonNull CharSequence query) {
+            // called on a background thread, the query is already in lower case
+            return item.toLowerCase(Locale.getDefault()).contains(query);
         }
 
         @Override
@@ -144,7 +133,7 @@ public class Example7Fragment extends Fragment implements SearchView.OnQueryText
         public void onBindItemViewHolder(RecyclerView.ViewHolder holder, int position) {
             final ItemViewHolder itemHolder = (ItemViewHolder) holder;
 
-            String name = filteredList.get(position);
+            String name = getItem(position);
 
             itemHolder.tvItem.setText(name);
             itemHolder.imgItem.setImageResource(name.hashCode() % 2 == 0 ? R.drawable.ic_face_black_48dp : R.drawable.ic_tag_faces_black_48dp);
@@ -172,24 +161,6 @@ public class Example7Fragment extends Fragment implements SearchView.OnQueryText
 
             headerHolder.tvTitle.setText(title);
         }
-
-        @Override
-        public void filter(String query) {
-            if (TextUtils.isEmpty(query)) {
-                filteredList = new ArrayList<>(list);
-                this.setVisible(true);
-            } else {
-                filteredList.clear();
-                for (String value : list) {
-                    if (value.toLowerCase(Locale.getDefault())
-                            .contains(query.toLowerCase(Locale.getDefault()))) {
-                        filteredList.add(value);
-                    }
-                }
-
-                this.setVisible(!filteredList.isEmpty());
-            }
-        }
     }
 
     private class HeaderViewHolder extends RecyclerView.ViewHolder {
@@ -217,8 +188,4 @@ public class Example7Fragment extends Fragment implements SearchView.OnQueryText
             tvItem = view.findViewById(R.id.tvItem);
         }
     }
-
-    interface FilterableSection {
-        void filter(String query);
-    }
 }
@@ -0,0 +1,68 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Runs {@link ScrollPathAllocationBenchmark} with the GC profiler, prints the bytes allocated per
+ * call of each method and exits with an error if any of them allocates.
+ */
+public final class AllocationCheck {
+
+    private static final String ALLOCATION_RESULT = "gc.alloc.rate.norm";
+
+    /**
+     * A single allocation takes at least 16 bytes, anything below comes from the benchmark
+     * infrastructure being averaged over millions of calls.
+     */
+    private static final double MAX_BYTES_PER_CALL = 0.5;
+
+    private AllocationCheck() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ScrollPathAllocationBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        boolean allocates = false;
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark()
+                    + " (sectionCount = " + result.getParams().getParam("sectionCount") + ")";
+            double bytesPerCall = getBytesPerCall(result);
+
+            System.out.println(String.format("%s: %.3f bytes per call", benchmark, bytesPerCall));
+
+            if (bytesPerCall > MAX_BYTES_PER_CALL) {
+                System.err.println(benchmark + " allocates memory");
+                allocates = true;
+            }
+        }
+
+        if (results.isEmpty() || allocates) {
+            System.exit(1);
+        }
+    }
+
+    private static double getBytesPerCall(RunResult result) {
+        // the label of the secondary results has a prefix that changes between JMH versions
+        for (Map.Entry<String, Result> entry : result.getSecondaryResults().entrySet()) {
+            if (entry.getKey().endsWith(ALLOCATION_RESULT)) {
+                return entry.getValue().getScore();
+            }
+        }
+
+        throw new IllegalStateException("The GC profiler didn't report the allocations of " + result.getParams().getBenchmark());
+    }
+}
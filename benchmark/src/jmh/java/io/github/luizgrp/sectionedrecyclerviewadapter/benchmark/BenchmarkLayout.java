@@ -0,0 +1,77 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter.benchmark;
+
+import java.util.Random;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.Section;
+import io.github.luizgrp.sectionedrecyclerviewadapter.SectionedRecyclerViewAdapter;
+
+/**
+ * Builds adapters with a realistic mix of sections: some are invisible, some don't have a footer
+ * and some are loading, failed or empty instead of loaded.
+ */
+final class BenchmarkLayout {
+
+    static final int ITEMS_PER_SECTION = 10;
+
+    /**
+     * Number of adapter positions sampled by the benchmarks, a power of two so that they can be
+     * cycled with a mask.
+     */
+    static final int SAMPLE_COUNT = 1024;
+
+    private static final long SEED = 42;
+
+    private BenchmarkLayout() {
+    }
+
+    static SectionedRecyclerViewAdapter createAdapter(int sectionCount) {
+        SectionedRecyclerViewAdapter adapter = new SectionedRecyclerViewAdapter();
+
+        for (int i = 0; i < sectionCount; i++) {
+            adapter.addSection(createSection(i));
+        }
+
+        return adapter;
+    }
+
+    static BenchmarkSection createSection(int index) {
+        BenchmarkSection section = new BenchmarkSection(ITEMS_PER_SECTION);
+
+        if (index % 7 == 3) {
+            section.setVisible(false);
+        }
+        if (index % 2 == 1) {
+            section.setHasFooter(false);
+        }
+        switch (index % 10) {
+            case 4:
+                section.setState(Section.State.LOADING);
+                break;
+            case 6:
+                section.setState(Section.State.FAILED);
+                break;
+            case 8:
+                section.setState(Section.State.EMPTY);
+                break;
+            default:
+                break;
+        }
+
+        return section;
+    }
+
+    /**
+     * Return positions of the adapter spread randomly, the same ones on every run.
+     */
+    static int[] samplePositions(SectionedRecyclerViewAdapter adapter) {
+        Random random = new Random(SEED);
+        int itemCount = adapter.getItemCount();
+        int[] positions = new int[SAMPLE_COUNT];
+
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            positions[i] = random.nextInt(itemCount);
+        }
+
+        return positions;
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter.benchmark;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.Section;
+import io.github.luizgrp.sectionedrecyclerviewadapter.SectionParameters;
+import io.github.luizgrp.sectionedrecyclerviewadapter.SectionedRecyclerViewAdapter;
+
+/**
+ * Section with a header, a footer and all states, whose views are provided without inflation so
+ * that the benchmarks only measure the adapter.
+ */
+public class BenchmarkSection extends Section {
+
+    private static final View VIEW = new View();
+
+    private final int contentItemsTotal;
+
+    public BenchmarkSection(int contentItemsTotal) {
+        super(SectionParameters.builder()
+                .itemViewWillBeProvided()
+                .headerViewWillBeProvided()
+                .footerViewWillBeProvided()
+                .loadingViewWillBeProvided()
+                .failedViewWillBeProvided()
+                .emptyViewWillBeProvided()
+                .build());
+
+        this.contentItemsTotal = contentItemsTotal;
+    }
+
+    @Override
+    public int getContentItemsTotal() {
+        return contentItemsTotal;
+    }
+
+    @Override
+    public View getItemView(ViewGroup parent) {
+        return VIEW;
+    }
+
+    @Override
+    public RecyclerView.ViewHolder getItemViewHolder(View view) {
+        return new SectionedRecyclerViewAdapter.EmptyViewHolder(view);
+    }
+
+    @Override
+    public void onBindItemViewHolder(RecyclerView.ViewHolder holder, int position) {
+        // Nothing to bind here.
+    }
+
+    @Override
+    public View getHeaderView(ViewGroup parent) {
+        return VIEW;
+    }
+
+    @Override
+    public View getFooterView(ViewGroup parent) {
+        return VIEW;
+    }
+
+    @Override
+    public View getLoadingView(ViewGroup parent) {
+        return VIEW;
+    }
+
+    @Override
+    public View getFailedView(ViewGroup parent) {
+        return VIEW;
+    }
+
+    @Override
+    public View getEmptyView(ViewGroup parent) {
+        return VIEW;
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter.benchmark;
+
+import android.view.ViewGroup;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.SectionedRecyclerViewAdapter;
+
+/**
+ * Measures the cost of dispatching {@link SectionedRecyclerViewAdapter#onBindViewHolder} to the
+ * section at random positions, with ViewHolders of the matching view type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OnBindViewHolderBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int sectionCount;
+
+    private SectionedRecyclerViewAdapter adapter;
+    private int[] positions;
+    private RecyclerView.ViewHolder[] holders;
+    private int sample;
+
+    @Setup
+    public void setup() {
+        adapter = BenchmarkLayout.createAdapter(sectionCount);
+        positions = BenchmarkLayout.samplePositions(adapter);
+
+        ViewGroup parent = new ViewGroup();
+        holders = new RecyclerView.ViewHolder[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            holders[i] = adapter.createViewHolder(parent, adapter.getItemViewType(positions[i]));
+        }
+    }
+
+    @Benchmark
+    public void onBindViewHolder() {
+        sample = (sample + 1) & (BenchmarkLayout.SAMPLE_COUNT - 1);
+
+        adapter.onBindViewHolder(holders[sample], positions[sample]);
+    }
+}
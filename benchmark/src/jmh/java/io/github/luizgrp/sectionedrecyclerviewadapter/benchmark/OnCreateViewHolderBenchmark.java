@@ -0,0 +1,58 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter.benchmark;
+
+import android.view.ViewGroup;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.SectionedRecyclerViewAdapter;
+
+/**
+ * Measures the cost of dispatching {@link SectionedRecyclerViewAdapter#onCreateViewHolder} to the
+ * section that owns the view type. It should stay flat as the number of sections grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OnCreateViewHolderBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int sectionCount;
+
+    private SectionedRecyclerViewAdapter adapter;
+    private ViewGroup parent;
+    private int firstSectionViewType;
+    private int lastSectionViewType;
+
+    @Setup
+    public void setup() {
+        adapter = new SectionedRecyclerViewAdapter();
+        for (int i = 0; i < sectionCount; i++) {
+            adapter.addSection(new BenchmarkSection(10));
+        }
+
+        parent = new ViewGroup();
+        firstSectionViewType = adapter.getItemViewType(1);
+        lastSectionViewType = adapter.getItemViewType(adapter.getItemCount() - 2);
+    }
+
+    @Benchmark
+    public RecyclerView.ViewHolder createFirstSectionItem() {
+        return adapter.onCreateViewHolder(parent, firstSectionViewType);
+    }
+
+    @Benchmark
+    public RecyclerView.ViewHolder createLastSectionItem() {
+        return adapter.onCreateViewHolder(parent, lastSectionViewType);
+    }
+}
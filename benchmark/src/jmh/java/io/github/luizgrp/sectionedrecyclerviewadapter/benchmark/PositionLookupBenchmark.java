@@ -0,0 +1,78 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.Section;
+import io.github.luizgrp.sectionedrecyclerviewadapter.SectionedRecyclerViewAdapter;
+
+/**
+ * Measures the methods that resolve an adapter position to its section, called by the
+ * RecyclerView for every row that is laid out. They should grow at most logarithmically with the
+ * number of sections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PositionLookupBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int sectionCount;
+
+    private SectionedRecyclerViewAdapter adapter;
+    private int[] positions;
+    private int sample;
+    private BenchmarkSection changingSection;
+
+    @Setup
+    public void setup() {
+        adapter = BenchmarkLayout.createAdapter(sectionCount);
+        positions = BenchmarkLayout.samplePositions(adapter);
+        changingSection = (BenchmarkSection) adapter.getSectionForPosition(0);
+    }
+
+    @Benchmark
+    public int getItemViewType() {
+        return adapter.getItemViewType(nextPosition());
+    }
+
+    @Benchmark
+    public Section getSectionForPosition() {
+        return adapter.getSectionForPosition(nextPosition());
+    }
+
+    @Benchmark
+    public int getPositionInSection() {
+        return adapter.getPositionInSection(nextPosition());
+    }
+
+    @Benchmark
+    public int getItemCount() {
+        return adapter.getItemCount();
+    }
+
+    /**
+     * Item count after the first section changed its number of items, the worst case for the
+     * cached offsets of the sections.
+     */
+    @Benchmark
+    public int getItemCountAfterFirstSectionChanged() {
+        changingSection.setHasFooter(!changingSection.hasFooter());
+
+        return adapter.getItemCount();
+    }
+
+    private int nextPosition() {
+        sample = (sample + 1) & (BenchmarkLayout.SAMPLE_COUNT - 1);
+
+        return positions[sample];
+    }
+}
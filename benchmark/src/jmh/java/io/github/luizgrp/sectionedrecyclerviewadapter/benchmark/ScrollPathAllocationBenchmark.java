@@ -0,0 +1,78 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter.benchmark;
+
+import android.view.ViewGroup;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.SectionedRecyclerViewAdapter;
+
+/**
+ * Methods called by the RecyclerView for every row while scrolling, which must not allocate
+ * memory. Run by {@link AllocationCheck} with the GC profiler, that fails if any of them
+ * allocates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ScrollPathAllocationBenchmark {
+
+    @Param({"100", "10000"})
+    public int sectionCount;
+
+    private SectionedRecyclerViewAdapter adapter;
+    private int[] positions;
+    private RecyclerView.ViewHolder[] holders;
+    private int sample;
+
+    @Setup
+    public void setup() {
+        adapter = BenchmarkLayout.createAdapter(sectionCount);
+        positions = BenchmarkLayout.samplePositions(adapter);
+
+        ViewGroup parent = new ViewGroup();
+        holders = new RecyclerView.ViewHolder[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            holders[i] = adapter.createViewHolder(parent, adapter.getItemViewType(positions[i]));
+        }
+    }
+
+    @Benchmark
+    public int getItemViewType() {
+        return adapter.getItemViewType(positions[nextSample()]);
+    }
+
+    @Benchmark
+    public void onBindViewHolder() {
+        int sample = nextSample();
+
+        adapter.onBindViewHolder(holders[sample], positions[sample]);
+    }
+
+    @Benchmark
+    public int getItemCount() {
+        return adapter.getItemCount();
+    }
+
+    private int nextSample() {
+        sample = (sample + 1) & (BenchmarkLayout.SAMPLE_COUNT - 1);
+
+        return sample;
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.SectionedRecyclerViewAdapter;
+
+/**
+ * Measures adding and removing sections in an adapter that already has many sections. Each
+ * invocation leaves the adapter with the same number of sections and notifies the changes like an
+ * app would, so the ID of the removed section is given back to the next added one. A fresh
+ * adapter is created for each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SectionMutationBenchmark {
+
+    private static final String TAG = "benchmark";
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int sectionCount;
+
+    private SectionedRecyclerViewAdapter adapter;
+    private BenchmarkSection section;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        adapter = BenchmarkLayout.createAdapter(sectionCount);
+        section = BenchmarkLayout.createSection(0);
+    }
+
+    @Benchmark
+    public int addAndRemoveSectionByTag() {
+        int positionStart = adapter.getItemCount();
+        adapter.addSection(TAG, section);
+        int itemCount = adapter.getItemCount() - positionStart;
+        adapter.notifyItemRangeInserted(positionStart, itemCount);
+        adapter.removeSection(TAG);
+        adapter.notifyItemRangeRemoved(positionStart, itemCount);
+
+        return adapter.getItemCount();
+    }
+
+    @Benchmark
+    public int addAndRemoveSectionByInstance() {
+        int positionStart = adapter.getItemCount();
+        adapter.addSection(TAG, section);
+        int itemCount = adapter.getItemCount() - positionStart;
+        adapter.notifyItemRangeInserted(positionStart, itemCount);
+        adapter.removeSection(section);
+        adapter.notifyItemRangeRemoved(positionStart, itemCount);
+
+        return adapter.getItemCount();
+    }
+}
@@ -0,0 +1,16 @@
+package android.os;
+
+/**
+ * JVM stub of the Android class, only used to run the benchmarks. Posted runnables are run
+ * immediately.
+ */
+public class Handler {
+
+    public Handler(Looper looper) {
+    }
+
+    public final boolean post(Runnable r) {
+        r.run();
+        return true;
+    }
+}
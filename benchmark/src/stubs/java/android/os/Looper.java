@@ -0,0 +1,18 @@
+package android.os;
+
+/**
+ * JVM stub of the Android class, only used to run the benchmarks.
+ */
+public final class Looper {
+
+    private static final Looper MAIN_LOOPER = new Looper();
+    private static final MessageQueue QUEUE = new MessageQueue();
+
+    public static Looper getMainLooper() {
+        return MAIN_LOOPER;
+    }
+
+    public static MessageQueue myQueue() {
+        return QUEUE;
+    }
+}
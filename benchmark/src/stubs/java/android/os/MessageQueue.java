@@ -0,0 +1,17 @@
+package android.os;
+
+/**
+ * JVM stub of the Android class, only used to run the benchmarks. Idle handlers are run
+ * immediately.
+ */
+public final class MessageQueue {
+
+    public void addIdleHandler(IdleHandler handler) {
+        handler.queueIdle();
+    }
+
+    public interface IdleHandler {
+
+        boolean queueIdle();
+    }
+}
@@ -0,0 +1,14 @@
+package android.util;
+
+/**
+ * JVM stub of the Android class, only used to run the benchmarks. Nothing is logged.
+ */
+public final class Log {
+
+    private Log() {
+    }
+
+    public static int w(String tag, String msg, Throwable tr) {
+        return 0;
+    }
+}
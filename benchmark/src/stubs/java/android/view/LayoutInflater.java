@@ -0,0 +1,23 @@
+package android.view;
+
+import android.content.Context;
+
+/**
+ * JVM stub of the Android class, only used to run the benchmarks.
+ */
+public class LayoutInflater {
+
+    private static final LayoutInflater INSTANCE = new LayoutInflater();
+
+    public static LayoutInflater from(Context context) {
+        return INSTANCE;
+    }
+
+    public LayoutInflater cloneInContext(Context newContext) {
+        return new LayoutInflater();
+    }
+
+    public View inflate(int resource, ViewGroup root, boolean attachToRoot) {
+        return new View();
+    }
+}
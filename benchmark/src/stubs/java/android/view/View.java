@@ -0,0 +1,23 @@
+package android.view;
+
+import android.content.Context;
+
+/**
+ * JVM stub of the Android class, only used to run the benchmarks.
+ */
+public class View {
+
+    private Object tag;
+
+    public Context getContext() {
+        return null;
+    }
+
+    public Object getTag() {
+        return tag;
+    }
+
+    public void setTag(Object tag) {
+        this.tag = tag;
+    }
+}
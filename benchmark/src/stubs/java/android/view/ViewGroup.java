@@ -0,0 +1,7 @@
+package android.view;
+
+/**
+ * JVM stub of the Android class, only used to run the benchmarks.
+ */
+public class ViewGroup extends View {
+}
@@ -0,0 +1,16 @@
+package androidx.core.os;
+
+/**
+ * JVM stub of the TraceCompat class, only used to compile the benchmarks. Nothing is traced.
+ */
+public final class TraceCompat {
+
+    private TraceCompat() {
+    }
+
+    public static void beginSection(String sectionName) {
+    }
+
+    public static void endSection() {
+    }
+}
@@ -0,0 +1,71 @@
+package androidx.core.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * JVM stub of the AtomicFile class, only used to compile the benchmarks. It keeps a backup of the
+ * previous file while writing, as the Android class does.
+ */
+public class AtomicFile {
+
+    private final File baseName;
+    private final File backupName;
+
+    public AtomicFile(File baseName) {
+        this.baseName = baseName;
+        this.backupName = new File(baseName.getPath() + ".bak");
+    }
+
+    public FileOutputStream startWrite() throws IOException {
+        if (baseName.exists()) {
+            if (!backupName.exists()) {
+                baseName.renameTo(backupName);
+            } else {
+                baseName.delete();
+            }
+        }
+
+        try {
+            return new FileOutputStream(baseName);
+        } catch (FileNotFoundException e) {
+            throw new IOException("Couldn't create " + baseName);
+        }
+    }
+
+    public void finishWrite(FileOutputStream str) {
+        if (str != null) {
+            try {
+                str.getFD().sync();
+                str.close();
+                backupName.delete();
+            } catch (IOException e) {
+                // the backup is restored by the next read
+            }
+        }
+    }
+
+    public void failWrite(FileOutputStream str) {
+        if (str != null) {
+            try {
+                str.close();
+            } catch (IOException e) {
+                // the file is deleted anyway
+            }
+            baseName.delete();
+            backupName.renameTo(baseName);
+        }
+    }
+
+    public FileInputStream openRead() throws FileNotFoundException {
+        if (backupName.exists()) {
+            baseName.delete();
+            backupName.renameTo(baseName);
+        }
+
+        return new FileInputStream(baseName);
+    }
+}
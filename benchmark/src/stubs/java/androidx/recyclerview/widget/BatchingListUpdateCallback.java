@@ -0,0 +1,37 @@
+package androidx.recyclerview.widget;
+
+/**
+ * JVM stub of the BatchingListUpdateCallback class, only used to run the benchmarks. The updates
+ * are forwarded without being merged.
+ */
+public class BatchingListUpdateCallback implements ListUpdateCallback {
+
+    private final ListUpdateCallback wrapped;
+
+    public BatchingListUpdateCallback(ListUpdateCallback callback) {
+        wrapped = callback;
+    }
+
+    public void dispatchLastEvent() {
+    }
+
+    @Override
+    public void onInserted(int position, int count) {
+        wrapped.onInserted(position, count);
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+        wrapped.onRemoved(position, count);
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+        wrapped.onMoved(fromPosition, toPosition);
+    }
+
+    @Override
+    public void onChanged(int position, int count, Object payload) {
+        wrapped.onChanged(position, count, payload);
+    }
+}
@@ -0,0 +1,38 @@
+package androidx.recyclerview.widget;
+
+/**
+ * JVM stub of the DiffUtil class, only used to compile the benchmarks. Diffs are not
+ * benchmarked, so they cannot be calculated.
+ */
+public class DiffUtil {
+
+    public static DiffResult calculateDiff(Callback cb) {
+        return calculateDiff(cb, true);
+    }
+
+    public static DiffResult calculateDiff(Callback cb, boolean detectMoves) {
+        throw new UnsupportedOperationException("DiffUtil is not available in the benchmarks");
+    }
+
+    public abstract static class Callback {
+
+        public abstract int getOldListSize();
+
+        public abstract int getNewListSize();
+
+        public abstract boolean areItemsTheSame(int oldItemPosition, int newItemPosition);
+
+        public abstract boolean areContentsTheSame(int oldItemPosition, int newItemPosition);
+
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            return null;
+        }
+    }
+
+    public static class DiffResult {
+
+        public void dispatchUpdatesTo(ListUpdateCallback updateCallback) {
+            throw new UnsupportedOperationException("DiffUtil is not available in the benchmarks");
+        }
+    }
+}
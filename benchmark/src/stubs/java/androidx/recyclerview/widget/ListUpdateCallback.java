@@ -0,0 +1,15 @@
+package androidx.recyclerview.widget;
+
+/**
+ * JVM stub of the ListUpdateCallback interface, only used to run the benchmarks.
+ */
+public interface ListUpdateCallback {
+
+    void onInserted(int position, int count);
+
+    void onRemoved(int position, int count);
+
+    void onMoved(int fromPosition, int toPosition);
+
+    void onChanged(int position, int count, Object payload);
+}
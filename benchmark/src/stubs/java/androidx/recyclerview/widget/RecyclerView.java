@@ -0,0 +1,192 @@
+package androidx.recyclerview.widget;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM stub of the RecyclerView classes used by the library, only used to run the benchmarks.
+ */
+public class RecyclerView extends ViewGroup {
+
+    public static final int NO_POSITION = -1;
+    public static final long NO_ID = -1;
+
+    private final RecycledViewPool recycledViewPool = new RecycledViewPool();
+
+    public RecycledViewPool getRecycledViewPool() {
+        return recycledViewPool;
+    }
+
+    public static class RecycledViewPool {
+
+        public void setMaxRecycledViews(int viewType, int max) {
+        }
+
+        public ViewHolder getRecycledView(int viewType) {
+            return null;
+        }
+
+        public void putRecycledView(ViewHolder scrap) {
+        }
+
+        public int getRecycledViewCount(int viewType) {
+            return 0;
+        }
+
+        public void clear() {
+        }
+    }
+
+    public abstract static class ViewHolder {
+
+        public final View itemView;
+        int itemViewType = -1;
+        int position = NO_POSITION;
+
+        public ViewHolder(View itemView) {
+            this.itemView = itemView;
+        }
+
+        public final int getItemViewType() {
+            return itemViewType;
+        }
+
+        public final int getLayoutPosition() {
+            return position;
+        }
+    }
+
+    public abstract static class AdapterDataObserver {
+
+        public void onChanged() {
+        }
+
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            onItemRangeChanged(positionStart, itemCount);
+        }
+
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        }
+    }
+
+    public abstract static class Adapter<VH extends ViewHolder> {
+
+        private final List<AdapterDataObserver> observers = new ArrayList<>();
+        private boolean hasStableIds;
+
+        public abstract VH onCreateViewHolder(ViewGroup parent, int viewType);
+
+        public abstract void onBindViewHolder(VH holder, int position);
+
+        public void onBindViewHolder(VH holder, int position, List<Object> payloads) {
+            onBindViewHolder(holder, position);
+        }
+
+        public final VH createViewHolder(ViewGroup parent, int viewType) {
+            VH holder = onCreateViewHolder(parent, viewType);
+            holder.itemViewType = viewType;
+            return holder;
+        }
+
+        public int getItemViewType(int position) {
+            return 0;
+        }
+
+        public void setHasStableIds(boolean hasStableIds) {
+            this.hasStableIds = hasStableIds;
+        }
+
+        public long getItemId(int position) {
+            return NO_ID;
+        }
+
+        public abstract int getItemCount();
+
+        public final boolean hasStableIds() {
+            return hasStableIds;
+        }
+
+        public void onViewRecycled(VH holder) {
+        }
+
+        public final boolean hasObservers() {
+            return !observers.isEmpty();
+        }
+
+        public void registerAdapterDataObserver(AdapterDataObserver observer) {
+            observers.add(observer);
+        }
+
+        public void unregisterAdapterDataObserver(AdapterDataObserver observer) {
+            observers.remove(observer);
+        }
+
+        public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        }
+
+        public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        }
+
+        public final void notifyDataSetChanged() {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onChanged();
+            }
+        }
+
+        public final void notifyItemChanged(int position) {
+            notifyItemRangeChanged(position, 1);
+        }
+
+        public final void notifyItemChanged(int position, Object payload) {
+            notifyItemRangeChanged(position, 1, payload);
+        }
+
+        public final void notifyItemRangeChanged(int positionStart, int itemCount) {
+            notifyItemRangeChanged(positionStart, itemCount, null);
+        }
+
+        public final void notifyItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeChanged(positionStart, itemCount, payload);
+            }
+        }
+
+        public final void notifyItemInserted(int position) {
+            notifyItemRangeInserted(position, 1);
+        }
+
+        public final void notifyItemMoved(int fromPosition, int toPosition) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeMoved(fromPosition, toPosition, 1);
+            }
+        }
+
+        public final void notifyItemRangeInserted(int positionStart, int itemCount) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeInserted(positionStart, itemCount);
+            }
+        }
+
+        public final void notifyItemRemoved(int position) {
+            notifyItemRangeRemoved(position, 1);
+        }
+
+        public final void notifyItemRangeRemoved(int positionStart, int itemCount) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeRemoved(positionStart, itemCount);
+            }
+        }
+    }
+}
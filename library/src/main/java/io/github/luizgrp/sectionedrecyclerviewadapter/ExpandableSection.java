@@ -0,0 +1,73 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+/**
+ * Abstract {@link Section} whose content items can be collapsed and expanded. The adapters this
+ * Section was added to are notified of the items removed or inserted, so that only the rows of
+ * this Section are updated.
+ *
+ * <p>Only the items of the {@link State#LOADED} state are collapsed: the header, the footer and
+ * the views of the other states are always shown.
+ */
+public abstract class ExpandableSection extends Section {
+
+    private boolean expanded = true;
+
+    /**
+     * Create an expandable Section object based on {@link SectionParameters}.
+     *
+     * @param sectionParameters section parameters
+     */
+    public ExpandableSection(SectionParameters sectionParameters) {
+        super(sectionParameters);
+    }
+
+    /**
+     * Check if the content items of this Section are shown.
+     *
+     * @return true if this Section is expanded
+     */
+    public final boolean isExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Set if the content items of this Section are shown, and notify the adapters this Section
+     * was added to of the items inserted or removed.
+     *
+     * @param expanded true to expand this Section, false to collapse it
+     */
+    public final void setExpanded(boolean expanded) {
+        if (this.expanded == expanded) {
+            return;
+        }
+
+        int itemCount = getState() == State.LOADED ? getExpandedContentItemsTotal() : 0;
+
+        this.expanded = expanded;
+
+        if (itemCount > 0) {
+            if (expanded) {
+                dispatchContentItemRangeInserted(0, itemCount);
+            } else {
+                dispatchContentItemRangeRemoved(0, itemCount);
+            }
+        }
+    }
+
+    /**
+     * Return the total of content items of this Section, or 0 if it is collapsed.
+     *
+     * @return total of content items of this Section
+     */
+    @Override
+    public final int getContentItemsTotal() {
+        return expanded ? getExpandedContentItemsTotal() : 0;
+    }
+
+    /**
+     * Return the total of content items of this Section when it is expanded.
+     *
+     * @return total of content items of this Section when it is expanded
+     */
+    public abstract int getExpandedContentItemsTotal();
+}
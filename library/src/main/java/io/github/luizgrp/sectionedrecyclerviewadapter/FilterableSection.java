@@ -0,0 +1,140 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import java.util.List;
+
+/**
+ * Abstract {@link Section} that displays the items of a list that match the query of
+ * {@link SectionedRecyclerViewAdapter#filterSections}. The items are matched on a background
+ * thread, so the list must not be modified after it is given to this Section.
+ *
+ * @param <T> type of the items of this Section
+ */
+public abstract class FilterableSection<T> extends Section {
+
+    private final List<T> items;
+
+    /**
+     * Indexes in the list of the items that are displayed, in ascending order.
+     */
+    private int[] filteredIndexes;
+
+    /**
+     * Whether this Section was made invisible because none of its items matched the query, so
+     * that only then it is made visible again by another query.
+     */
+    private boolean hiddenByFilter;
+
+    /**
+     * Create a filterable Section object based on {@link SectionParameters}.
+     *
+     * @param sectionParameters section parameters
+     * @param items             all the items of this Section, displayed until a query is applied
+     */
+    public FilterableSection(SectionParameters sectionParameters, @NonNull List<T> items) {
+        super(sectionParameters);
+
+        this.items = items;
+        this.filteredIndexes = new int[items.size()];
+        for (int i = 0; i < filteredIndexes.length; i++) {
+            filteredIndexes[i] = i;
+        }
+    }
+
+    /**
+     * Return whether an item matches the query and should be displayed. This method is called on
+     * a background thread.
+     *
+     * @param item  item of this Section
+     * @param query query that is not empty
+     * @return true if the item should be displayed
+     */
+    public abstract boolean matches(T item, @NonNull CharSequence query);
+
+    /**
+     * Return all the items of this Section, whether they are displayed or not.
+     *
+     * @return all the items of this Section
+     */
+    public final List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Return an item that is displayed.
+     *
+     * @param position position of the item in the Section, not in the RecyclerView
+     * @return item displayed at the position
+     */
+    public final T getItem(int position) {
+        return items.get(filteredIndexes[position]);
+    }
+
+    /**
+     * Return the total of items of this Section that match the current query.
+     *
+     * @return total of items that are displayed
+     */
+    @Override
+    public final int getContentItemsTotal() {
+        return filteredIndexes.length;
+    }
+
+    /**
+     * Return the stable ID of an Item of this Section. The default implementation returns the
+     * index of the item in the list of all items, which is stable while the query changes.
+     *
+     * @param position position of the item in the Section, not in the RecyclerView
+     * @return stable ID of the item
+     */
+    @Override
+    public long getItemId(int position) {
+        return filteredIndexes[position];
+    }
+
+    /**
+     * Display the items at the given indexes, and dispatch the items that were removed and
+     * inserted. Both the old and the new indexes are in ascending order, so the difference is
+     * found with a single pass through them.
+     *
+     * @param indexes  indexes in the list of the items to display, in ascending order
+     * @param callback callback to dispatch the updates to, or null if the items are not displayed
+     */
+    final void setFilteredIndexes(int[] indexes, ListUpdateCallback callback) {
+        int[] oldIndexes = filteredIndexes;
+        filteredIndexes = indexes;
+
+        if (callback == null) {
+            return;
+        }
+
+        int position = 0;
+        int oldIndex = 0;
+        int newIndex = 0;
+        while (oldIndex < oldIndexes.length || newIndex < indexes.length) {
+            if (newIndex == indexes.length
+                    || (oldIndex < oldIndexes.length && oldIndexes[oldIndex] < indexes[newIndex])) {
+                callback.onRemoved(position, 1);
+                oldIndex++;
+            } else if (oldIndex == oldIndexes.length || indexes[newIndex] < oldIndexes[oldIndex]) {
+                callback.onInserted(position, 1);
+                position++;
+                newIndex++;
+            } else {
+                position++;
+                oldIndex++;
+                newIndex++;
+            }
+        }
+    }
+
+    boolean isHiddenByFilter() {
+        return hiddenByFilter;
+    }
+
+    void setHiddenByFilter(boolean hiddenByFilter) {
+        this.hiddenByFilter = hiddenByFilter;
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+/**
+ * Result of resolving an adapter position to the {@link Section} that contains it.
+ *
+ * <p>A single instance is reused by {@link SectionPositionIndex} to avoid allocations on the
+ * scroll path, so its values must be read before resolving another position.
+ */
+final class PositionCursor {
+
+    /**
+     * Position in the adapter that was resolved, or -1 if none.
+     */
+    int position = -1;
+
+    /**
+     * Index of the section in the adapter.
+     */
+    int sectionIndex = -1;
+
+    /**
+     * Unique identifier of the section.
+     */
+    String tag;
+
+    /**
+     * Section that contains the position.
+     */
+    Section section;
+
+    /**
+     * Position of the section in the adapter.
+     */
+    int sectionStart;
+
+    /**
+     * Position of the item relative to the section content, as returned by
+     * {@link SectionedRecyclerViewAdapter#getPositionInSection(int)}.
+     */
+    int positionInSection;
+
+    /**
+     * Kind of row, one of the SectionedRecyclerViewAdapter.VIEW_TYPE_* constants.
+     */
+    int sectionViewType;
+
+    /**
+     * View type of the row in the adapter, as returned by
+     * {@link SectionedRecyclerViewAdapter#getItemViewType(int)}.
+     */
+    int viewType;
+
+    /**
+     * ID of the section in the adapter.
+     */
+    int sectionId;
+
+    void reset() {
+        position = -1;
+        sectionIndex = -1;
+        tag = null;
+        section = null;
+    }
+}
@@ -5,6 +5,10 @@ import androidx.recyclerview.widget.RecyclerView;
 import android.view.View;
 import android.view.ViewGroup;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Abstract Section to be used with {@link SectionedRecyclerViewAdapter}.
  */
@@ -43,6 +47,10 @@ public abstract class Section {
     private final boolean loadingViewWillBeProvided;
     private final boolean failedViewWillBeProvided;
     private final boolean emptyViewWillBeProvided;
+    private final String viewTypeKey;
+
+    // weak, so that a Section kept by the app doesn't keep the adapters it was added to
+    private final List<WeakReference<SectionedRecyclerViewAdapter>> adapters = new ArrayList<>(1);
 
     /**
      * Create a Section object based on {@link SectionParameters}.
@@ -62,6 +70,7 @@ public abstract class Section {
         this.loadingViewWillBeProvided = sectionParameters.loadingViewWillBeProvided;
         this.failedViewWillBeProvided = sectionParameters.failedViewWillBeProvided;
         this.emptyViewWillBeProvided = sectionParameters.emptyViewWillBeProvided;
+        this.viewTypeKey = sectionParameters.viewTypeKey;
 
         this.hasHeader = (this.headerResourceId != null) || this.headerViewWillBeProvided;
         this.hasFooter = (this.footerResourceId != null) || this.footerViewWillBeProvided;
@@ -94,7 +103,10 @@ public abstract class Section {
                 break;
         }
 
-        this.state = state;
+        if (this.state != state) {
+            this.state = state;
+            dispatchItemsTotalChanged();
+        }
     }
 
     /**
@@ -121,7 +133,10 @@ public abstract class Section {
      * @param visible true if this Section is visible
      */
     public final void setVisible(boolean visible) {
-        this.visible = visible;
+        if (this.visible != visible) {
+            this.visible = visible;
+            dispatchItemsTotalChanged();
+        }
     }
 
     /**
@@ -139,7 +154,10 @@ public abstract class Section {
      * @param hasHeader true if this Section has a header
      */
     public final void setHasHeader(boolean hasHeader) {
-        this.hasHeader = hasHeader;
+        if (this.hasHeader != hasHeader) {
+            this.hasHeader = hasHeader;
+            dispatchItemsTotalChanged();
+        }
     }
 
     /**
@@ -157,7 +175,10 @@ public abstract class Section {
      * @param hasFooter true if this Section has a footer
      */
     public final void setHasFooter(boolean hasFooter) {
-        this.hasFooter = hasFooter;
+        if (this.hasFooter != hasFooter) {
+            this.hasFooter = hasFooter;
+            dispatchItemsTotalChanged();
+        }
     }
 
     /**
@@ -279,6 +300,16 @@ public abstract class Section {
         return emptyResourceId;
     }
 
+    /**
+     * Return the key of the view types of this Section. Sections with the same key share their
+     * view types in the adapter, and therefore their recycled ViewHolders.
+     *
+     * @return key of the view types, or null if the view types are not shared
+     */
+    public final String getViewTypeKey() {
+        return viewTypeKey;
+    }
+
     /**
      * Bind the data to the ViewHolder for the Content of this Section, that can be the Items,
      * Loading view or Failed view, depending on the current state of the section.
@@ -305,6 +336,23 @@ public abstract class Section {
         }
     }
 
+    /**
+     * Bind the data to the ViewHolder for the Content of this Section with the payloads of a
+     * partial update. Only the Items receive the payloads, the Loading, Failed and Empty views are
+     * fully bound.
+     *
+     * @param holder   ViewHolder for the Content of this Section
+     * @param position position of the item in the Section, not in the RecyclerView
+     * @param payloads non-empty list of the payloads of the partial update
+     */
+    public final void onBindContentViewHolder(RecyclerView.ViewHolder holder, int position, List<Object> payloads) {
+        if (state == State.LOADED) {
+            onBindItemViewHolder(holder, position, payloads);
+        } else {
+            onBindContentViewHolder(holder, position);
+        }
+    }
+
     /**
      * Return the total of items of this Section, including content items (according to the section
      * state) plus header and footer.
@@ -341,6 +389,19 @@ public abstract class Section {
      */
     public abstract int getContentItemsTotal();
 
+    /**
+     * Return the stable ID of an Item of this Section, used when the adapter has stable IDs.
+     * The ID only needs to be unique within this Section, and must be between 0 and
+     * {@link SectionedRecyclerViewAdapter#MAX_SECTION_ITEM_ID}. The default implementation returns
+     * the position of the item, which is only stable while no items are inserted, removed or moved.
+     *
+     * @param position position of the item in the Section, not in the RecyclerView
+     * @return stable ID of the item
+     */
+    public long getItemId(int position) {
+        return position;
+    }
+
     /**
      * Creates the View for a single Item. This must be implemented if and only if
      * {@link #isItemViewWillBeProvided()} is true.
@@ -369,6 +430,18 @@ public abstract class Section {
      */
     public abstract void onBindItemViewHolder(RecyclerView.ViewHolder holder, int position);
 
+    /**
+     * Bind the payloads of a partial update to the ViewHolder for an Item of this Section.
+     * The default implementation ignores the payloads and does a full bind.
+     *
+     * @param holder   ViewHolder for the Item of this Section
+     * @param position position of the item in the Section, not in the RecyclerView
+     * @param payloads non-empty list of the payloads passed to notifyItemChanged
+     */
+    public void onBindItemViewHolder(RecyclerView.ViewHolder holder, int position, List<Object> payloads) {
+        onBindItemViewHolder(holder, position);
+    }
+
     /**
      * Creates the View for the Header. This must be implemented if and only if
      * {@link #isHeaderViewWillBeProvided()} is true.
@@ -400,6 +473,17 @@ public abstract class Section {
         // Nothing to bind here.
     }
 
+    /**
+     * Bind the payloads of a partial update to the ViewHolder for the Header of this Section.
+     * The default implementation ignores the payloads and does a full bind.
+     *
+     * @param holder   ViewHolder for the Header of this Section
+     * @param payloads non-empty list of the payloads passed to notifyItemChanged
+     */
+    public void onBindHeaderViewHolder(RecyclerView.ViewHolder holder, List<Object> payloads) {
+        onBindHeaderViewHolder(holder);
+    }
+
     /**
      * Creates the View for the Footer. This must be implemented if and only if
      * {@link #isFooterViewWillBeProvided()} is true.
@@ -431,6 +515,17 @@ public abstract class Section {
         // Nothing to bind here.
     }
 
+    /**
+     * Bind the payloads of a partial update to the ViewHolder for the Footer of this Section.
+     * The default implementation ignores the payloads and does a full bind.
+     *
+     * @param holder   ViewHolder for the Footer of this Section
+     * @param payloads non-empty list of the payloads passed to notifyItemChanged
+     */
+    public void onBindFooterViewHolder(RecyclerView.ViewHolder holder, List<Object> payloads) {
+        onBindFooterViewHolder(holder);
+    }
+
     /**
      * Creates the View for the Loading state. This must be implemented if and only if
      * {@link #isLoadingViewWillBeProvided()} is true.
@@ -526,4 +621,105 @@ public abstract class Section {
     public void onBindEmptyViewHolder(RecyclerView.ViewHolder holder) {
         // Nothing to bind here.
     }
+
+    /**
+     * Register an adapter that this Section was added to, so that it can be told when the total
+     * of items of this Section changes.
+     *
+     * @param adapter adapter this Section was added to
+     */
+    final void onAddedToAdapter(SectionedRecyclerViewAdapter adapter) {
+        if (indexOfAdapter(adapter) == -1) {
+            adapters.add(new WeakReference<>(adapter));
+        }
+    }
+
+    /**
+     * Unregister an adapter that this Section was removed from.
+     *
+     * @param adapter adapter this Section was removed from
+     */
+    final void onRemovedFromAdapter(SectionedRecyclerViewAdapter adapter) {
+        int index = indexOfAdapter(adapter);
+
+        if (index != -1) {
+            adapters.remove(index);
+        }
+    }
+
+    /**
+     * Return the index of an adapter among the adapters this Section was added to, discarding
+     * the ones that were garbage collected.
+     *
+     * @param adapter adapter to look for
+     * @return index of the adapter, or -1 if this Section was not added to it
+     */
+    private int indexOfAdapter(SectionedRecyclerViewAdapter adapter) {
+        int index = -1;
+
+        for (int i = adapters.size() - 1; i >= 0; i--) {
+            SectionedRecyclerViewAdapter sectionAdapter = adapters.get(i).get();
+            if (sectionAdapter == null) {
+                adapters.remove(i);
+                if (index != -1) {
+                    index--;
+                }
+            } else if (sectionAdapter == adapter) {
+                index = i;
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Notify the adapters this Section was added to that a range of content items was inserted.
+     *
+     * @param positionStart position of the first item inserted, relative to this Section
+     * @param itemCount     number of items inserted
+     */
+    final void dispatchContentItemRangeInserted(int positionStart, int itemCount) {
+        for (int i = 0; i < adapters.size(); i++) {
+            SectionedRecyclerViewAdapter adapter = adapters.get(i).get();
+            if (adapter == null) {
+                continue;
+            }
+
+            if (visible) {
+                adapter.notifyItemRangeInsertedInSection(this, positionStart, itemCount);
+            } else {
+                adapter.onSectionItemsTotalChanged(this);
+            }
+        }
+    }
+
+    /**
+     * Notify the adapters this Section was added to that a range of content items was removed.
+     *
+     * @param positionStart position of the first item removed, relative to this Section
+     * @param itemCount     number of items removed
+     */
+    final void dispatchContentItemRangeRemoved(int positionStart, int itemCount) {
+        for (int i = 0; i < adapters.size(); i++) {
+            SectionedRecyclerViewAdapter adapter = adapters.get(i).get();
+            if (adapter == null) {
+                continue;
+            }
+
+            if (visible) {
+                adapter.notifyItemRangeRemovedFromSection(this, positionStart, itemCount);
+            } else {
+                adapter.onSectionItemsTotalChanged(this);
+            }
+        }
+    }
+
+    private void dispatchItemsTotalChanged() {
+        for (int i = 0; i < adapters.size(); i++) {
+            SectionedRecyclerViewAdapter adapter = adapters.get(i).get();
+            if (adapter != null) {
+                adapter.onSectionItemsTotalChanged(this);
+            }
+        }
+    }
 }
@@ -0,0 +1,120 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import androidx.recyclerview.widget.BatchingListUpdateCallback;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Updates notified for the rows of a section during a batch of a
+ * {@link SectionedRecyclerViewAdapter}, in positions relative to the first row of the section.
+ * Consecutive updates of the same type on adjacent or overlapping rows are merged into one.
+ */
+final class SectionBatchUpdates {
+
+    private static final int TYPE_INSERTED = 0;
+    private static final int TYPE_REMOVED = 1;
+    private static final int TYPE_MOVED = 2;
+    private static final int TYPE_CHANGED = 3;
+
+    private int[] types = new int[4];
+    private int[] positions = new int[4];
+    private int[] counts = new int[4];
+    private final List<Object> payloads = new ArrayList<>(4);
+    private int size;
+
+    private int itemCountDelta;
+
+    private final BatchingListUpdateCallback batchingCallback = new BatchingListUpdateCallback(new ListUpdateCallback() {
+        @Override
+        public void onInserted(int position, int count) {
+            add(TYPE_INSERTED, position, count, null);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            add(TYPE_REMOVED, position, count, null);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            // the destination is stored as the count
+            add(TYPE_MOVED, fromPosition, toPosition, null);
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            add(TYPE_CHANGED, position, count, payload);
+        }
+    });
+
+    void onInserted(int row, int count) {
+        itemCountDelta += count;
+        batchingCallback.onInserted(row, count);
+    }
+
+    void onRemoved(int row, int count) {
+        itemCountDelta -= count;
+        batchingCallback.onRemoved(row, count);
+    }
+
+    void onMoved(int fromRow, int toRow) {
+        batchingCallback.onMoved(fromRow, toRow);
+    }
+
+    void onChanged(int row, int count, Object payload) {
+        batchingCallback.onChanged(row, count, payload);
+    }
+
+    /**
+     * Return the number of rows inserted minus the number of rows removed.
+     *
+     * @return difference in the number of rows of the section
+     */
+    int getItemCountDelta() {
+        return itemCountDelta;
+    }
+
+    /**
+     * Dispatch the merged updates, in the order they were notified.
+     *
+     * @param callback callback that receives the updates, with positions relative to the section
+     */
+    void dispatchTo(ListUpdateCallback callback) {
+        batchingCallback.dispatchLastEvent();
+
+        for (int i = 0; i < size; i++) {
+            switch (types[i]) {
+                case TYPE_INSERTED:
+                    callback.onInserted(positions[i], counts[i]);
+                    break;
+                case TYPE_REMOVED:
+                    callback.onRemoved(positions[i], counts[i]);
+                    break;
+                case TYPE_MOVED:
+                    callback.onMoved(positions[i], counts[i]);
+                    break;
+                default:
+                    callback.onChanged(positions[i], counts[i], payloads.get(i));
+                    break;
+            }
+        }
+    }
+
+    private void add(int type, int position, int count, Object payload) {
+        if (size == types.length) {
+            int newCapacity = size * 2;
+            types = Arrays.copyOf(types, newCapacity);
+            positions = Arrays.copyOf(positions, newCapacity);
+            counts = Arrays.copyOf(counts, newCapacity);
+        }
+
+        types[size] = type;
+        positions[size] = position;
+        counts[size] = count;
+        payloads.add(payload);
+        size++;
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+/**
+ * Callback used by {@link SectionedRecyclerViewAdapter#submitSectionDiff} to calculate the
+ * difference between the content currently displayed by a {@link Section} and its new content.
+ *
+ * <p>The positions compared by this callback are positions in the Section, not in the
+ * RecyclerView. The diff is calculated on a background thread, so the old and new content must not
+ * be modified after the callback is submitted.
+ */
+public abstract class SectionDiffCallback extends DiffUtil.Callback {
+
+    /**
+     * Called on the main thread, right before the updates are dispatched to the adapter, to make
+     * the section display the new content.
+     */
+    public abstract void applyNewContent();
+
+    /**
+     * Return whether the diff should also detect the items that were moved.
+     *
+     * @return true by default
+     */
+    public boolean detectMoves() {
+        return true;
+    }
+}
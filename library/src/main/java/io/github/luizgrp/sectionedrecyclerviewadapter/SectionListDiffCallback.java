@@ -0,0 +1,113 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.Arrays;
+
+/**
+ * DiffUtil.Callback that compares the rows of two lists of sections. Two rows are the same item
+ * when they have the same section tag, the same kind and, for the items, the same
+ * {@link Section#getItemId(int) item id}. Their contents are the same when they belong to the same
+ * section instance.
+ */
+final class SectionListDiffCallback extends DiffUtil.Callback {
+
+    private final Rows oldRows;
+    private final Rows newRows;
+
+    SectionListDiffCallback(Rows oldRows, Rows newRows) {
+        this.oldRows = oldRows;
+        this.newRows = newRows;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return oldRows.size;
+    }
+
+    @Override
+    public int getNewListSize() {
+        return newRows.size;
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        return oldRows.kinds[oldItemPosition] == newRows.kinds[newItemPosition]
+                && oldRows.itemIds[oldItemPosition] == newRows.itemIds[newItemPosition]
+                && oldRows.tags[oldItemPosition].equals(newRows.tags[newItemPosition]);
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        return oldRows.sections[oldItemPosition] == newRows.sections[newItemPosition];
+    }
+
+    /**
+     * Snapshot of the rows of a list of sections, taken on the main thread so that the sections
+     * are not accessed while the diff is calculated.
+     */
+    static final class Rows {
+
+        private String[] tags = new String[16];
+        private Section[] sections = new Section[16];
+        private int[] kinds = new int[16];
+        private long[] itemIds = new long[16];
+        private int size;
+
+        /**
+         * Add the rows of a section, if it is visible.
+         *
+         * @param tag     unique identifier of the section
+         * @param section section to be added
+         */
+        void addSection(String tag, Section section) {
+            if (!section.isVisible()) {
+                return;
+            }
+
+            if (section.hasHeader()) {
+                add(tag, section, SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER, 0);
+            }
+
+            switch (section.getState()) {
+                case LOADED:
+                    int contentItemsTotal = section.getContentItemsTotal();
+                    for (int i = 0; i < contentItemsTotal; i++) {
+                        add(tag, section, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, section.getItemId(i));
+                    }
+                    break;
+                case LOADING:
+                    add(tag, section, SectionedRecyclerViewAdapter.VIEW_TYPE_LOADING, 0);
+                    break;
+                case FAILED:
+                    add(tag, section, SectionedRecyclerViewAdapter.VIEW_TYPE_FAILED, 0);
+                    break;
+                case EMPTY:
+                    add(tag, section, SectionedRecyclerViewAdapter.VIEW_TYPE_EMPTY, 0);
+                    break;
+                default:
+                    throw new IllegalStateException("Invalid state");
+            }
+
+            if (section.hasFooter()) {
+                add(tag, section, SectionedRecyclerViewAdapter.VIEW_TYPE_FOOTER, 0);
+            }
+        }
+
+        private void add(String tag, Section section, int kind, long itemId) {
+            if (size == tags.length) {
+                int newCapacity = size * 2;
+                tags = Arrays.copyOf(tags, newCapacity);
+                sections = Arrays.copyOf(sections, newCapacity);
+                kinds = Arrays.copyOf(kinds, newCapacity);
+                itemIds = Arrays.copyOf(itemIds, newCapacity);
+            }
+
+            tags[size] = tag;
+            sections[size] = section;
+            kinds[size] = kind;
+            itemIds[size] = itemId;
+            size++;
+        }
+    }
+}
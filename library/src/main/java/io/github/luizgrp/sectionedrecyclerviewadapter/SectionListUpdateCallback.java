@@ -0,0 +1,42 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+/**
+ * ListUpdateCallback that dispatches the updates of the content of a section to the adapter,
+ * translating the positions in the section to positions in the adapter.
+ */
+final class SectionListUpdateCallback implements ListUpdateCallback {
+
+    private final SectionedRecyclerViewAdapter adapter;
+    private final int offset;
+
+    /**
+     * @param adapter adapter to dispatch the updates to
+     * @param offset  position in the adapter of the first item of the section content
+     */
+    SectionListUpdateCallback(SectionedRecyclerViewAdapter adapter, int offset) {
+        this.adapter = adapter;
+        this.offset = offset;
+    }
+
+    @Override
+    public void onInserted(int position, int count) {
+        adapter.callSuperNotifyItemRangeInserted(offset + position, count);
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+        adapter.callSuperNotifyItemRangeRemoved(offset + position, count);
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+        adapter.callSuperNotifyItemMoved(offset + fromPosition, offset + toPosition);
+    }
+
+    @Override
+    public void onChanged(int position, int count, Object payload) {
+        adapter.callSuperNotifyItemRangeChanged(offset + position, count, payload);
+    }
+}
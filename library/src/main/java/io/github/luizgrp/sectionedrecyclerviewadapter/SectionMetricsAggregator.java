@@ -0,0 +1,359 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * {@link SectionMetricsListener} that keeps the timings of each section to report their count and
+ * their 50th, 95th and 99th percentiles, for all the rows of the section or for a kind of row.
+ *
+ * <p>Up to {@value #MAX_SAMPLES} timings are kept for each section and kind of row. Past that, a
+ * uniform sample of them is kept, so the memory used doesn't grow with the session and the
+ * percentiles become estimates. The timings of a bounded number of sections are kept, by default
+ * {@value #DEFAULT_MAX_SECTIONS}, so sections that were removed don't stay forever. Past that, the
+ * section whose timings were least recently reported is evicted and loses all its counts, so the
+ * bound should be larger than the number of sections whose timings have to be reported. The
+ * timings are kept until {@link #reset} is called.
+ *
+ * <p>The sections that share a view type key also share their ViewHolders, so the timings of
+ * the ViewHolders they create are reported for whichever of them created each one.
+ */
+public final class SectionMetricsAggregator implements SectionMetricsListener {
+
+    static final int MAX_SAMPLES = 1024;
+    static final int DEFAULT_MAX_SECTIONS = 64;
+
+    // kept in the order the sections were last reported, the least recently reported is evicted
+    private final Map<String, SectionRecord> records = new LinkedHashMap<String, SectionRecord>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SectionRecord> eldest) {
+            if (size() > maxSections) {
+                readableRecords.remove(eldest.getKey());
+                return true;
+            }
+
+            return false;
+        }
+    };
+    // same records, looked up by the reads so that they don't change the order
+    private final Map<String, SectionRecord> readableRecords = new HashMap<>();
+    private final int maxSections;
+    private final Random random = new Random();
+
+    /**
+     * Create an aggregator that keeps the timings of up to {@value #DEFAULT_MAX_SECTIONS} sections.
+     */
+    public SectionMetricsAggregator() {
+        this(DEFAULT_MAX_SECTIONS);
+    }
+
+    /**
+     * Create an aggregator that keeps the timings of up to a number of sections. Past that, the
+     * section whose timings were least recently reported is evicted and loses all its counts.
+     *
+     * @param maxSections maximum number of sections whose timings are kept
+     */
+    public SectionMetricsAggregator(int maxSections) {
+        if (maxSections < 1) {
+            throw new IllegalArgumentException("Invalid maximum number of sections " + maxSections);
+        }
+
+        this.maxSections = maxSections;
+    }
+
+    @Override
+    public void onViewHolderCreated(@NonNull String tag, @NonNull Section section, int sectionViewType, long durationNanos) {
+        getRecord(tag, section).createDurations[sectionViewType].add(durationNanos, random);
+    }
+
+    @Override
+    public void onViewHolderBound(@NonNull String tag, @NonNull Section section, int sectionViewType, long durationNanos) {
+        getRecord(tag, section).bindDurations[sectionViewType].add(durationNanos, random);
+    }
+
+    /**
+     * Return a copy of the tags of the sections with timings, from the least recently reported.
+     *
+     * @return tags of the sections
+     */
+    @NonNull
+    public Set<String> getTags() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(records.keySet()));
+    }
+
+    /**
+     * Return the timings of the ViewHolders created by a section, for all its kinds of row.
+     *
+     * @param tag tag of the section
+     * @return timings of the section, or null if it has none
+     */
+    @Nullable
+    public Timings getCreateTimings(@NonNull String tag) {
+        SectionRecord record = readableRecords.get(tag);
+
+        return record != null ? Timings.of(record.sectionClass, record.createDurations) : null;
+    }
+
+    /**
+     * Return the timings of the ViewHolders created by a section for a kind of row.
+     *
+     * @param tag             tag of the section
+     * @param sectionViewType kind of row, one of the SectionedRecyclerViewAdapter.VIEW_TYPE_* constants
+     * @return timings of the kind of row, or null if it has none
+     */
+    @Nullable
+    public Timings getCreateTimings(@NonNull String tag, int sectionViewType) {
+        SectionRecord record = readableRecords.get(tag);
+
+        return record != null ? Timings.of(record.sectionClass, record.createDurations[sectionViewType]) : null;
+    }
+
+    /**
+     * Return the timings of the ViewHolders bound by a section, for all its kinds of row.
+     *
+     * @param tag tag of the section
+     * @return timings of the section, or null if it has none
+     */
+    @Nullable
+    public Timings getBindTimings(@NonNull String tag) {
+        SectionRecord record = readableRecords.get(tag);
+
+        return record != null ? Timings.of(record.sectionClass, record.bindDurations) : null;
+    }
+
+    /**
+     * Return the timings of the ViewHolders bound by a section for a kind of row.
+     *
+     * @param tag             tag of the section
+     * @param sectionViewType kind of row, one of the SectionedRecyclerViewAdapter.VIEW_TYPE_* constants
+     * @return timings of the kind of row, or null if it has none
+     */
+    @Nullable
+    public Timings getBindTimings(@NonNull String tag, int sectionViewType) {
+        SectionRecord record = readableRecords.get(tag);
+
+        return record != null ? Timings.of(record.sectionClass, record.bindDurations[sectionViewType]) : null;
+    }
+
+    /**
+     * Discard all the timings.
+     */
+    public void reset() {
+        records.clear();
+        readableRecords.clear();
+    }
+
+    /**
+     * Return a report with one line per section, with the count and percentiles of the times to
+     * create and bind its ViewHolders, in milliseconds.
+     *
+     * @return report of the timings
+     */
+    @NonNull
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+
+        for (Map.Entry<String, SectionRecord> entry : records.entrySet()) {
+            SectionRecord record = entry.getValue();
+
+            report.append(entry.getKey()).append(" (").append(record.sectionClass.getName()).append("): create ");
+            appendTimings(report, Timings.of(record.sectionClass, record.createDurations));
+            report.append(", bind ");
+            appendTimings(report, Timings.of(record.sectionClass, record.bindDurations));
+            report.append('\n');
+        }
+
+        return report.toString();
+    }
+
+    private static void appendTimings(StringBuilder report, Timings timings) {
+        report.append(String.format(Locale.US, "n=%d p50=%.3fms p95=%.3fms p99=%.3fms", timings.getCount(),
+                timings.getP50Nanos() / 1e6, timings.getP95Nanos() / 1e6, timings.getP99Nanos() / 1e6));
+    }
+
+    private SectionRecord getRecord(String tag, Section section) {
+        // moved to the end, so the eldest record is the least recently reported
+        SectionRecord record = records.get(tag);
+
+        if (record == null) {
+            record = new SectionRecord();
+            records.put(tag, record);
+            readableRecords.put(tag, record);
+        }
+        // the section might have been replaced with another one with the same tag
+        record.sectionClass = section.getClass();
+
+        return record;
+    }
+
+    /**
+     * Count and percentiles of the timings of a section, in nanoseconds.
+     */
+    public static final class Timings {
+
+        private final Class<? extends Section> sectionClass;
+        private final int count;
+        private final long p50Nanos;
+        private final long p95Nanos;
+        private final long p99Nanos;
+
+        private Timings(Class<? extends Section> sectionClass, Durations[] durations) {
+            long[][] sortedSamples = new long[durations.length][];
+            int totalCount = 0;
+            for (int i = 0; i < durations.length; i++) {
+                sortedSamples[i] = Arrays.copyOf(durations[i].samples, durations[i].size);
+                Arrays.sort(sortedSamples[i]);
+                totalCount += durations[i].count;
+            }
+
+            this.sectionClass = sectionClass;
+            this.count = totalCount;
+            this.p50Nanos = percentile(durations, sortedSamples, totalCount, 50);
+            this.p95Nanos = percentile(durations, sortedSamples, totalCount, 95);
+            this.p99Nanos = percentile(durations, sortedSamples, totalCount, 99);
+        }
+
+        static Timings of(Class<? extends Section> sectionClass, Durations... durations) {
+            return new Timings(sectionClass, durations);
+        }
+
+        /**
+         * Return the nearest-rank percentile of the durations of many kinds of row, merging their
+         * sorted samples. Each sample stands for count / size durations of its kind of row, which
+         * is exactly one until the kind of row has more than {@value #MAX_SAMPLES} durations.
+         */
+        private static long percentile(Durations[] durations, long[][] sortedSamples, int totalCount, int percent) {
+            if (totalCount == 0) {
+                return 0;
+            }
+
+            double rank = Math.max(Math.ceil(percent / 100.0 * totalCount), 1);
+            int[] positions = new int[sortedSamples.length];
+            double cumulativeCount = 0;
+            long duration = 0;
+
+            while (true) {
+                int next = -1;
+                for (int i = 0; i < sortedSamples.length; i++) {
+                    if (positions[i] < sortedSamples[i].length
+                            && (next == -1 || sortedSamples[i][positions[i]] < sortedSamples[next][positions[next]])) {
+                        next = i;
+                    }
+                }
+
+                if (next == -1) {
+                    // the rank was not reached because of rounding errors
+                    return duration;
+                }
+
+                duration = sortedSamples[next][positions[next]++];
+                cumulativeCount += (double) durations[next].count / sortedSamples[next].length;
+                if (cumulativeCount >= rank) {
+                    return duration;
+                }
+            }
+        }
+
+        /**
+         * Return the class of the section, the last one reported if the tag was given to more than
+         * one section.
+         *
+         * @return class of the section
+         */
+        @NonNull
+        public Class<? extends Section> getSectionClass() {
+            return sectionClass;
+        }
+
+        /**
+         * Return the number of timings.
+         *
+         * @return number of ViewHolders created or bound
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Return the median of the timings.
+         *
+         * @return 50th percentile in nanoseconds, or 0 if there are no timings
+         */
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        /**
+         * Return the 95th percentile of the timings.
+         *
+         * @return 95th percentile in nanoseconds, or 0 if there are no timings
+         */
+        public long getP95Nanos() {
+            return p95Nanos;
+        }
+
+        /**
+         * Return the 99th percentile of the timings.
+         *
+         * @return 99th percentile in nanoseconds, or 0 if there are no timings
+         */
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+    }
+
+    private static final class SectionRecord {
+
+        Class<? extends Section> sectionClass;
+        final Durations[] createDurations = newDurations();
+        final Durations[] bindDurations = newDurations();
+
+        private static Durations[] newDurations() {
+            Durations[] durations = new Durations[SectionedRecyclerViewAdapter.VIEW_TYPE_QTY];
+            for (int i = 0; i < durations.length; i++) {
+                durations[i] = new Durations();
+            }
+
+            return durations;
+        }
+    }
+
+    /**
+     * Uniform sample of at most {@value #MAX_SAMPLES} durations, kept with reservoir sampling in an
+     * array to avoid boxing every timing.
+     */
+    static final class Durations {
+
+        long[] samples = new long[16];
+        int size;
+        int count;
+
+        void add(long duration, Random random) {
+            count++;
+
+            if (size < MAX_SAMPLES) {
+                if (size == samples.length) {
+                    samples = Arrays.copyOf(samples, size * 2);
+                }
+                samples[size++] = duration;
+            } else {
+                // replace a sample with a probability of MAX_SAMPLES / count
+                int index = random.nextInt(count);
+                if (index < MAX_SAMPLES) {
+                    samples[index] = duration;
+                }
+            }
+        }
+    }
+}
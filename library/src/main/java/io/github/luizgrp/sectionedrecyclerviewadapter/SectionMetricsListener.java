@@ -0,0 +1,35 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Listener of the time spent by the sections of a {@link SectionedRecyclerViewAdapter} to create
+ * and bind their ViewHolders, set with {@link SectionedRecyclerViewAdapter#setMetricsListener}.
+ * The methods are called on the main thread, right after the ViewHolder is created or bound, so
+ * they should return quickly.
+ *
+ * @see SectionMetricsAggregator
+ */
+public interface SectionMetricsListener {
+
+    /**
+     * Called when a section created a ViewHolder. The sections that share a view type key also
+     * share their ViewHolders, so this is only called for the one that created the ViewHolder.
+     *
+     * @param tag             tag of the section in the adapter
+     * @param section         section that created the ViewHolder
+     * @param sectionViewType kind of row, one of the SectionedRecyclerViewAdapter.VIEW_TYPE_* constants
+     * @param durationNanos   time spent to inflate the view and create the ViewHolder, in nanoseconds
+     */
+    void onViewHolderCreated(@NonNull String tag, @NonNull Section section, int sectionViewType, long durationNanos);
+
+    /**
+     * Called when a section bound a ViewHolder.
+     *
+     * @param tag             tag of the section in the adapter
+     * @param section         section that bound the ViewHolder
+     * @param sectionViewType kind of row, one of the SectionedRecyclerViewAdapter.VIEW_TYPE_* constants
+     * @param durationNanos   time spent to bind the ViewHolder, in nanoseconds
+     */
+    void onViewHolderBound(@NonNull String tag, @NonNull Section section, int sectionViewType, long durationNanos);
+}
@@ -25,6 +25,7 @@ public final class SectionParameters {
     public final boolean loadingViewWillBeProvided;
     public final boolean failedViewWillBeProvided;
     public final boolean emptyViewWillBeProvided;
+    public final String viewTypeKey;
 
     private SectionParameters(Builder builder) {
         this.itemResourceId = builder.itemResourceId;
@@ -39,6 +40,7 @@ public final class SectionParameters {
         this.loadingViewWillBeProvided = builder.loadingViewWillBeProvided;
         this.failedViewWillBeProvided = builder.failedViewWillBeProvided;
         this.emptyViewWillBeProvided = builder.emptyViewWillBeProvided;
+        this.viewTypeKey = builder.viewTypeKey;
 
         if (itemResourceId != null && itemViewWillBeProvided) {
             throw new IllegalArgumentException(
@@ -98,6 +100,7 @@ public final class SectionParameters {
         private boolean loadingViewWillBeProvided;
         private boolean failedViewWillBeProvided;
         private boolean emptyViewWillBeProvided;
+        private String viewTypeKey;
 
         /**
          * Constructor with mandatory parameters of {@link Section} (namely none).
@@ -261,6 +264,22 @@ public final class SectionParameters {
             return this;
         }
 
+        /**
+         * Set the key of the view types of the Section. Sections added to the same adapter with
+         * the same key share their view types, so that their ViewHolders can be recycled across
+         * sections. They must therefore create ViewHolders that each of them is able to bind, and
+         * have the same layouts and provide the same views, otherwise adding the Section throws an
+         * IllegalArgumentException.
+         *
+         * @param viewTypeKey key of the view types of the Section
+         * @return this builder
+         */
+        public Builder viewTypeKey(String viewTypeKey) {
+            this.viewTypeKey = viewTypeKey;
+
+            return this;
+        }
+
         /**
          * Build an instance of SectionParameters.
          *
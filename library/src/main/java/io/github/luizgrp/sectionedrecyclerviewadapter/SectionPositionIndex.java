@@ -0,0 +1,662 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Ordered index of the sections of a {@link SectionedRecyclerViewAdapter} that caches the number
+ * of items of each section and the adapter position where each section starts, so that a position
+ * can be resolved to its section with a binary search instead of a walk through all the sections.
+ *
+ * <p>When a section changes its number of items, only that section is marked as stale and asked
+ * again for its number of items, and the total of items is updated by the difference. The
+ * cumulative offsets are computed lazily from the cached numbers of items, and only up to the
+ * section that is needed.
+ *
+ * <p>The index of each section is also kept in an identity map, so that a section can be found
+ * without a walk through all the sections. The entries after a removal are updated lazily, the
+ * next time a section is looked up.
+ *
+ * <p>The bookkeeping of each section is kept in parallel primitive arrays indexed like the
+ * sections, so that resolving a position reads neither boxed values nor the section itself.
+ */
+final class SectionPositionIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     Layout flags of a section, stored with the view type of its content in the lowest bits.
+     */
+    private static final int CONTENT_VIEW_TYPE_MASK = 0x7;
+    private static final int HAS_HEADER = 1 << 3;
+    private static final int HAS_FOOTER = 1 << 4;
+
+    private String[] tags = new String[INITIAL_CAPACITY];
+    private Section[] sections = new Section[INITIAL_CAPACITY];
+
+    /**
+     * First view type of the block of each section in the adapter.
+     */
+    private int[] viewTypes = new int[INITIAL_CAPACITY];
+
+    /**
+     * ID of each section in the adapter, used to build stable IDs.
+     */
+    private int[] sectionIds = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of visible items of each section, up to date unless the section is stale.
+     */
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private boolean[] stale = new boolean[INITIAL_CAPACITY];
+    private int staleCount;
+
+    /**
+     * Header and footer flags and content view type of each section, up to date unless the
+     * section is stale.
+     */
+    private int[] layouts = new int[INITIAL_CAPACITY];
+
+    /**
+     * There are no stale sections before this index.
+     */
+    private int firstStaleIndex;
+
+    /**
+     * Sum of the cached numbers of items of all the sections.
+     */
+    private int itemCount;
+
+    /**
+     * starts[i] is the adapter position of the section i and starts[size] is the item count of
+     * the adapter. Only the entries up to validIndex (inclusive) are up to date.
+     */
+    private int[] starts = new int[INITIAL_CAPACITY + 1];
+    private int validIndex;
+
+    private int size;
+
+    /**
+     * Index of each section, exact for the sections before indexedUpTo and possibly outdated for
+     * the ones after it.
+     */
+    private final Map<Section, Integer> indexes = new IdentityHashMap<>();
+    private int indexedUpTo;
+
+    /**
+     * Number of times the sections or their number of items might have changed.
+     */
+    private int modificationCount;
+
+    private final PositionCursor cursor = new PositionCursor();
+
+    int size() {
+        return size;
+    }
+
+    int getModificationCount() {
+        return modificationCount;
+    }
+
+    String getTag(int index) {
+        return tags[index];
+    }
+
+    Section getSection(int index) {
+        return sections[index];
+    }
+
+    int getViewType(int index) {
+        return viewTypes[index];
+    }
+
+    int getSectionId(int index) {
+        return sectionIds[index];
+    }
+
+    /**
+     * Return the index of a section other than the given one that uses the given view type block.
+     *
+     * @param viewType first view type of the block
+     * @param section  section to skip
+     * @return index of the section or -1 if no other section uses the view type block
+     */
+    int indexOfViewType(int viewType, Section section) {
+        for (int i = 0; i < size; i++) {
+            if (viewTypes[i] == viewType && sections[i] != section) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Return the index of the section, comparing by identity.
+     *
+     * @param section section to look for
+     * @return index of the section or -1 if it is not in this index
+     */
+    int indexOf(Section section) {
+        Integer index = indexes.get(section);
+
+        if (index == null || index >= indexedUpTo || sections[index] != section) {
+            // the section might have been shifted by a removal
+            for (int i = indexedUpTo; i < size; i++) {
+                indexes.put(sections[i], i);
+            }
+            indexedUpTo = size;
+
+            index = indexes.get(section);
+            if (index == null || index >= size || sections[index] != section) {
+                return indexOfDuplicate(section);
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Return the index of the section added with the given tag, comparing the section by identity.
+     *
+     * @param tag     tag of the section
+     * @param section section to look for
+     * @return index of the section or -1 if it is not in this index with that tag
+     */
+    int indexOf(String tag, Section section) {
+        int index = indexOf(section);
+
+        if (index != -1 && !tags[index].equals(tag)) {
+            // the same section was added with more than one tag
+            for (int i = 0; i < size; i++) {
+                if (sections[i] == section && tags[i].equals(tag)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        return index;
+    }
+
+    void add(String tag, Section section, int viewType, int sectionId) {
+        insert(size, tag, section, viewType, sectionId);
+    }
+
+    /**
+     * Insert a section at the given index, shifting the sections at and after it.
+     *
+     * @param index     index of the new section
+     * @param tag       tag of the section
+     * @param section   section to be inserted
+     * @param viewType  first view type of the block of the section
+     * @param sectionId ID of the section in the adapter
+     */
+    void insert(int index, String tag, Section section, int viewType, int sectionId) {
+        ensureCapacity(size + 1);
+
+        int moved = size - index;
+        if (moved > 0) {
+            System.arraycopy(tags, index, tags, index + 1, moved);
+            System.arraycopy(sections, index, sections, index + 1, moved);
+            System.arraycopy(viewTypes, index, viewTypes, index + 1, moved);
+            System.arraycopy(sectionIds, index, sectionIds, index + 1, moved);
+            System.arraycopy(layouts, index, layouts, index + 1, moved);
+            System.arraycopy(counts, index, counts, index + 1, moved);
+            System.arraycopy(stale, index, stale, index + 1, moved);
+        }
+
+        tags[index] = tag;
+        sections[index] = section;
+        viewTypes[index] = viewType;
+        sectionIds[index] = sectionId;
+        counts[index] = 0;
+        stale[index] = false;
+        indexes.put(section, index);
+        if (index < indexedUpTo) {
+            indexedUpTo = index;
+        } else if (indexedUpTo == size) {
+            indexedUpTo++;
+        }
+        if (firstStaleIndex > index) {
+            firstStaleIndex++;
+        }
+        size++;
+
+        invalidate(index);
+    }
+
+    /**
+     * Move a section to another index, shifting the sections in between.
+     *
+     * @param fromIndex current index of the section
+     * @param toIndex   new index of the section
+     */
+    void move(int fromIndex, int toIndex) {
+        String tag = tags[fromIndex];
+        Section section = sections[fromIndex];
+        int viewType = viewTypes[fromIndex];
+        int sectionId = sectionIds[fromIndex];
+        int count = counts[fromIndex];
+        int layout = layouts[fromIndex];
+        boolean isStale = stale[fromIndex];
+
+        if (fromIndex < toIndex) {
+            int moved = toIndex - fromIndex;
+            System.arraycopy(tags, fromIndex + 1, tags, fromIndex, moved);
+            System.arraycopy(sections, fromIndex + 1, sections, fromIndex, moved);
+            System.arraycopy(viewTypes, fromIndex + 1, viewTypes, fromIndex, moved);
+            System.arraycopy(sectionIds, fromIndex + 1, sectionIds, fromIndex, moved);
+            System.arraycopy(layouts, fromIndex + 1, layouts, fromIndex, moved);
+            System.arraycopy(counts, fromIndex + 1, counts, fromIndex, moved);
+            System.arraycopy(stale, fromIndex + 1, stale, fromIndex, moved);
+        } else {
+            int moved = fromIndex - toIndex;
+            System.arraycopy(tags, toIndex, tags, toIndex + 1, moved);
+            System.arraycopy(sections, toIndex, sections, toIndex + 1, moved);
+            System.arraycopy(viewTypes, toIndex, viewTypes, toIndex + 1, moved);
+            System.arraycopy(sectionIds, toIndex, sectionIds, toIndex + 1, moved);
+            System.arraycopy(layouts, toIndex, layouts, toIndex + 1, moved);
+            System.arraycopy(counts, toIndex, counts, toIndex + 1, moved);
+            System.arraycopy(stale, toIndex, stale, toIndex + 1, moved);
+        }
+
+        tags[toIndex] = tag;
+        sections[toIndex] = section;
+        viewTypes[toIndex] = viewType;
+        sectionIds[toIndex] = sectionId;
+        counts[toIndex] = count;
+        layouts[toIndex] = layout;
+        stale[toIndex] = isStale;
+
+        // the number of items does not change, only the sections in between are shifted
+        int lowIndex = Math.min(fromIndex, toIndex);
+        indexes.put(section, toIndex);
+        if (lowIndex < indexedUpTo) {
+            indexedUpTo = lowIndex;
+        }
+        if (firstStaleIndex > lowIndex) {
+            firstStaleIndex = lowIndex;
+        }
+
+        modificationCount++;
+        invalidateStarts(lowIndex);
+    }
+
+    /**
+     * Replace the section at the given index, keeping the ID of the previous section.
+     *
+     * @param index    index of the section
+     * @param tag      tag of the section
+     * @param section  section that replaces the previous one
+     * @param viewType first view type of the block of the section
+     */
+    void set(int index, String tag, Section section, int viewType) {
+        unindex(index);
+        indexes.put(section, index);
+
+        tags[index] = tag;
+        sections[index] = section;
+        viewTypes[index] = viewType;
+
+        invalidate(index);
+    }
+
+    void remove(int index) {
+        unindex(index);
+        if (index < indexedUpTo) {
+            indexedUpTo = index;
+        }
+
+        itemCount -= counts[index];
+        if (stale[index]) {
+            staleCount--;
+        }
+
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(tags, index + 1, tags, index, moved);
+            System.arraycopy(sections, index + 1, sections, index, moved);
+            System.arraycopy(viewTypes, index + 1, viewTypes, index, moved);
+            System.arraycopy(sectionIds, index + 1, sectionIds, index, moved);
+            System.arraycopy(layouts, index + 1, layouts, index, moved);
+            System.arraycopy(counts, index + 1, counts, index, moved);
+            System.arraycopy(stale, index + 1, stale, index, moved);
+        }
+        size--;
+        tags[size] = null;
+        sections[size] = null;
+
+        if (firstStaleIndex > index) {
+            firstStaleIndex--;
+        }
+
+        modificationCount++;
+        invalidateStarts(index);
+    }
+
+    void clear() {
+        Arrays.fill(tags, 0, size, null);
+        Arrays.fill(sections, 0, size, null);
+        size = 0;
+        indexes.clear();
+        indexedUpTo = 0;
+        validIndex = 0;
+        itemCount = 0;
+        staleCount = 0;
+        firstStaleIndex = 0;
+        modificationCount++;
+        cursor.reset();
+    }
+
+    /**
+     * Mark the number of items of the section at the given index as stale.
+     *
+     * @param index index of the section
+     */
+    void invalidate(int index) {
+        markStale(index);
+
+        modificationCount++;
+        invalidateStarts(index);
+    }
+
+    /**
+     * Mark the number of items of every section as stale.
+     */
+    void invalidateAll() {
+        for (int i = 0; i < size; i++) {
+            markStale(i);
+        }
+
+        modificationCount++;
+        validIndex = 0;
+        cursor.reset();
+    }
+
+    /**
+     * Mark as stale the number of items of every section that might contain the given adapter
+     * position or any position after it.
+     *
+     * @param position position in the adapter
+     */
+    void invalidateFromPosition(int position) {
+        // sections that end before the position are not affected
+        int low = 0;
+        int high = validIndex;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] < position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        for (int i = low; i < size; i++) {
+            markStale(i);
+        }
+
+        modificationCount++;
+        invalidateStarts(low);
+    }
+
+    /**
+     * Return the adapter position of the section at the given index.
+     *
+     * @param index index of the section
+     * @return adapter position where the section starts
+     */
+    int getSectionStart(int index) {
+        validateUpTo(index);
+
+        return starts[index];
+    }
+
+    /**
+     * Return the adapter position after the last item of the section at the given index.
+     *
+     * @param index index of the section
+     * @return adapter position where the section ends (exclusive)
+     */
+    int getSectionEnd(int index) {
+        validateUpTo(index + 1);
+
+        return starts[index + 1];
+    }
+
+    /**
+     * Return the total of items of all the visible sections, only asking the stale sections for
+     * their number of items.
+     *
+     * @return item count of the adapter
+     */
+    int getItemCount() {
+        if (staleCount > 0) {
+            for (int i = firstStaleIndex; i < size && staleCount > 0; i++) {
+                if (stale[i]) {
+                    refresh(i);
+                }
+            }
+            firstStaleIndex = size;
+        }
+
+        return itemCount;
+    }
+
+    /**
+     * Check that the cached number of items and layout of each section that is not stale are
+     * still up to date.
+     *
+     * @throws IllegalStateException if a section changed its number of items, header, footer or
+     *                               state without being invalidated
+     */
+    void checkItemCounts() {
+        for (int i = 0; i < size; i++) {
+            if (!stale[i] && counts[i] != getVisibleItemsTotal(sections[i])) {
+                throw new IllegalStateException("The number of items of the section with tag " + tags[i]
+                        + " changed from " + counts[i] + " to " + getVisibleItemsTotal(sections[i])
+                        + " without notifying the adapter");
+            }
+            if (!stale[i] && layouts[i] != getLayout(sections[i])) {
+                throw new IllegalStateException("The header, footer or state of the section with tag " + tags[i]
+                        + " changed without notifying the adapter");
+            }
+        }
+    }
+
+    /**
+     * Return the index of the visible section that contains the given adapter position.
+     *
+     * @param position position in the adapter
+     * @return index of the section or -1 if the position is out of bounds
+     */
+    int findSectionIndex(int position) {
+        if (position < 0) {
+            return -1;
+        }
+
+        // only compute the offsets that are needed to reach the position
+        while (starts[validIndex] <= position) {
+            if (validIndex == size) {
+                return -1;
+            }
+            if (stale[validIndex]) {
+                refresh(validIndex);
+            }
+            starts[validIndex + 1] = starts[validIndex] + counts[validIndex];
+            validIndex++;
+        }
+
+        // find the last section that starts at or before the position, empty sections included,
+        // as the one after it is guaranteed to start after the position
+        int low = 0;
+        int high = validIndex - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Resolve an adapter position to the section that contains it and to the kind of row it is.
+     * Resolving the same position again is free for as long as the section stays valid.
+     *
+     * @param position position in the adapter
+     * @return shared cursor with the resolved position, or null if the position is out of bounds
+     */
+    PositionCursor resolve(int position) {
+        if (cursor.section != null && position == cursor.position) {
+            return cursor;
+        }
+
+        int sectionIndex = findSectionIndex(position);
+        if (sectionIndex == -1) {
+            return null;
+        }
+
+        // the section containing the position is not stale, so its layout is up to date
+        int layout = layouts[sectionIndex];
+        int sectionStart = starts[sectionIndex];
+        int sectionEnd = starts[sectionIndex + 1];
+        boolean hasHeader = (layout & HAS_HEADER) != 0;
+
+        int sectionViewType;
+        if (hasHeader && position == sectionStart) {
+            sectionViewType = SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER;
+        } else if ((layout & HAS_FOOTER) != 0 && position == sectionEnd - 1) {
+            sectionViewType = SectionedRecyclerViewAdapter.VIEW_TYPE_FOOTER;
+        } else {
+            sectionViewType = layout & CONTENT_VIEW_TYPE_MASK;
+        }
+
+        cursor.position = position;
+        cursor.sectionIndex = sectionIndex;
+        cursor.tag = tags[sectionIndex];
+        cursor.section = sections[sectionIndex];
+        cursor.sectionStart = sectionStart;
+        cursor.positionInSection = position - sectionStart - (hasHeader ? 1 : 0);
+        cursor.sectionViewType = sectionViewType;
+        cursor.viewType = viewTypes[sectionIndex] + sectionViewType;
+        cursor.sectionId = sectionIds[sectionIndex];
+
+        return cursor;
+    }
+
+    private static int getLayout(Section section) {
+        return getContentViewType(section.getState())
+                | (section.hasHeader() ? HAS_HEADER : 0)
+                | (section.hasFooter() ? HAS_FOOTER : 0);
+    }
+
+    private static int getContentViewType(Section.State state) {
+        switch (state) {
+            case LOADED:
+                return SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED;
+            case LOADING:
+                return SectionedRecyclerViewAdapter.VIEW_TYPE_LOADING;
+            case FAILED:
+                return SectionedRecyclerViewAdapter.VIEW_TYPE_FAILED;
+            case EMPTY:
+                return SectionedRecyclerViewAdapter.VIEW_TYPE_EMPTY;
+            default:
+                throw new IllegalStateException("Invalid state");
+        }
+    }
+
+    private void validateUpTo(int index) {
+        for (int i = validIndex; i < index; i++) {
+            if (stale[i]) {
+                refresh(i);
+            }
+            starts[i + 1] = starts[i] + counts[i];
+        }
+
+        if (index > validIndex) {
+            validIndex = index;
+        }
+    }
+
+    private int indexOfDuplicate(Section section) {
+        // the entry of a section added with more than one tag is dropped when one of them is
+        // removed, so the other ones have to be looked up one by one
+        for (int i = 0; i < size; i++) {
+            if (sections[i] == section) {
+                indexes.put(section, i);
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private void unindex(int index) {
+        Section section = sections[index];
+        Integer sectionIndex = indexes.get(section);
+
+        // keep the entry if it points to another tag the same section was added with
+        if (sectionIndex != null && (sectionIndex == index || sectionIndex >= size || sections[sectionIndex] != section)) {
+            indexes.remove(section);
+        }
+    }
+
+    private void markStale(int index) {
+        if (!stale[index]) {
+            stale[index] = true;
+            staleCount++;
+        }
+
+        if (index < firstStaleIndex) {
+            firstStaleIndex = index;
+        }
+    }
+
+    private void refresh(int index) {
+        Section section = sections[index];
+        int count = getVisibleItemsTotal(section);
+
+        itemCount += count - counts[index];
+        counts[index] = count;
+        layouts[index] = getLayout(section);
+        stale[index] = false;
+        staleCount--;
+    }
+
+    private void invalidateStarts(int index) {
+        if (index < validIndex) {
+            validIndex = index;
+        }
+
+        // the section of the cursor might have been moved, removed or changed its header, footer,
+        // state or total of items
+        if (index <= cursor.sectionIndex) {
+            cursor.reset();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > sections.length) {
+            int newCapacity = Math.max(capacity, sections.length * 2);
+            tags = Arrays.copyOf(tags, newCapacity);
+            sections = Arrays.copyOf(sections, newCapacity);
+            viewTypes = Arrays.copyOf(viewTypes, newCapacity);
+            sectionIds = Arrays.copyOf(sectionIds, newCapacity);
+            counts = Arrays.copyOf(counts, newCapacity);
+            stale = Arrays.copyOf(stale, newCapacity);
+            layouts = Arrays.copyOf(layouts, newCapacity);
+            starts = Arrays.copyOf(starts, newCapacity + 1);
+        }
+    }
+
+    private static int getVisibleItemsTotal(Section section) {
+        return section.isVisible() ? section.getSectionItemsTotal() : 0;
+    }
+}
@@ -2,15 +2,38 @@ package io.github.luizgrp.sectionedrecyclerviewadapter;
 
 import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
+import androidx.core.os.TraceCompat;
+import androidx.recyclerview.widget.BatchingListUpdateCallback;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static io.github.luizgrp.sectionedrecyclerviewadapter.Section.State;
 
@@ -28,1154 +51,3063 @@ public class SectionedRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerV
     public static final int VIEW_TYPE_FAILED = 4;
     public static final int VIEW_TYPE_EMPTY = 5;
 
+    /**
+     * Largest stable ID that {@link Section#getItemId(int)} can return.
+     */
+    public static final long MAX_SECTION_ITEM_ID = 0xFFFFFFFFL;
+
+    /*
+     Stable IDs are made of the ID of the section (28 bits), the kind of row (3 bits) and the ID of
+     the item in the section (32 bits), leaving the sign bit unset.
+     */
+    private static final int ITEM_ID_BITS = 32;
+    private static final int ROW_KIND_BITS = 3;
+    private static final int MAX_SECTION_ID = (1 << (Long.SIZE - 1 - ITEM_ID_BITS - ROW_KIND_BITS)) - 1;
+
+    private static final String GENERATED_TAG_PREFIX = "section#";
+    private static final int MAX_TRACE_SECTION_NAME_LENGTH = 127;
+    private static final String[] ROW_KIND_NAMES = {"header", "footer", "item", "loading", "failed", "empty"};
+    private static final String LOG_TAG = "SectionedRVAdapter";
+    private static final int MAX_PREFETCHED_VIEWS_PER_LAYOUT = 16;
+    private static final int FILTER_CANCELLATION_CHECK_MASK = 0x3FF;
+    private static final int MAX_MOVED_ITEMS_NOTIFIED = 32;
+
     private final Map<String, Section> sections;
-    private final Map<String, Integer> sectionViewTypeNumbers;
+    private final SectionPositionIndex positionIndex;
+
+    private int sectionIdCount = 0;
+
+    /**
+     * IDs of removed sections that can be given to new sections, in the order they were removed.
+     */
+    private final Queue<Integer> freeSectionIds = new ArrayDeque<>();
+
+    /**
+     * IDs of removed sections whose rows might still be displayed, until the next notification.
+     */
+    private final List<Integer> removedSectionIds = new ArrayList<>();
+    private int generatedTagCount = 0;
 
+    /**
+     * Tags generated by {@link #addSection(Section)} that are still used by a section.
+     */
+    private final Set<String> generatedTags = new HashSet<>();
     private int viewTypeCount = 0;
-    private static final int VIEW_TYPE_QTY = 6;
+    static final int VIEW_TYPE_QTY = 6;
+    private static final int MAX_HISTOGRAM_PREWARM_VIEW_HOLDERS = 16;
+
+    /**
+     * Sections indexed by their view type divided by {@link #VIEW_TYPE_QTY}. When the view types
+     * are shared through a {@link Section#getViewTypeKey() view type key}, the entry is one of the
+     * sections that use them.
+     */
+    private Section[] viewTypeSections = new Section[16];
+
+    /**
+     * Number of sections that use each view type block, indexed like {@link #viewTypeSections}.
+     */
+    private int[] viewTypeUsages = new int[16];
+
+    private final Map<String, Integer> viewTypeKeyNumbers;
+
+    /**
+     * Blocks of view types that are not used by any section, in the order they were released.
+     */
+    private final Queue<Integer> freeViewTypeBlocks = new ArrayDeque<>();
+
+    /**
+     * Blocks of view types that are not used by any section, but might still have ViewHolders of
+     * their previous owner displayed or cached by a RecyclerView, that would be put in the
+     * RecycledViewPools and given to a new owner of the block.
+     */
+    private final List<Integer> drainingViewTypeBlocks = new ArrayList<>();
+
+    /**
+     * Number of times each view type block has been released, so that ViewHolders created for
+     * a previous owner of the block can be told apart.
+     */
+    private int[] viewTypeGenerations = new int[16];
+
+    /**
+     * View types of each block, as a bit mask, whose RecycledViewPools might hold ViewHolders
+     * created for a previous owner of the block, to discard before the pools are asked for them.
+     */
+    private int[] evictedViewTypes = new int[16];
+    private int evictedViewTypeCount;
+    private final Runnable discardEvictedRecycledViewsTask = new Runnable() {
+        @Override
+        public void run() {
+            discardEvictedRecycledViews();
+            releaseDrainedViewTypeBlocks();
+        }
+    };
+
+    /**
+     * Generation of the view type block of the ViewHolders created by this adapter.
+     */
+    private final Map<RecyclerView.ViewHolder, Integer> viewHolderGenerations = new WeakHashMap<>();
+
+    private final List<RecyclerView> attachedRecyclerViews = new ArrayList<>(1);
+
+    private static final Object BACKGROUND_EXECUTOR_LOCK = new Object();
+    private static ExecutorService defaultBackgroundExecutor;
+
+    private Executor backgroundExecutor;
+    private Executor mainThreadExecutor;
+
+    /**
+     * Views inflated ahead of time by {@link #prefetchViews} for each layout resource ID, only
+     * handed to the ViewHolders created for prefetchRecyclerView.
+     */
+    private final Map<Integer, List<View>> prefetchedViews = new HashMap<>();
+    private RecyclerView prefetchRecyclerView;
+    private int prefetchGeneration = 0;
+
+    /**
+     * RecyclerView whose RecycledViewPool is filled with ViewHolders for the sections added, or
+     * null if the pool is not pre-warmed.
+     */
+    private RecyclerView prewarmRecyclerView;
+    private int prewarmViewHolderCount;
+    private ViewTypeUsageHistogram prewarmHistogram;
+    private boolean prewarming;
+
+    /**
+     * Number of ViewHolders of each view type that are being inflated to pre-warm the
+     * RecycledViewPool and are not in it yet. Replaced when these inflations are dropped.
+     */
+    private Map<Integer, Integer> pendingPrewarmViewHolders = new HashMap<>();
+
+    /**
+     * Histogram of the ViewHolders created by {@link #onCreateViewHolder}, or null if they are not
+     * recorded.
+     */
+    private ViewTypeUsageHistogram viewTypeUsageHistogram;
+
+    /**
+     * Listener of the time spent to create and bind the ViewHolders, or null if it isn't measured.
+     */
+    private SectionMetricsListener metricsListener;
+
+    /**
+     * Names of the trace sections of each section tag, the create ones followed by the bind ones
+     * for each kind of row, or null if the sections are not traced.
+     */
+    private Map<String, String[]> traceSectionNames;
+
+    /**
+     * Generation of the last diff submitted for each section whose diff has not been dispatched.
+     */
+    private final Map<Section, Integer> sectionDiffGenerations = new IdentityHashMap<>();
+    private int diffGeneration = 0;
+    private int sectionListGeneration = 0;
+
+    /**
+     * Generation of the last query submitted to {@link #filterSections}, read by the background
+     * threads to stop matching the items of an outdated query.
+     */
+    private volatile int filterGeneration = 0;
+
+    /**
+     * Updates notified for each section since the outermost call to {@link #beginBatch}, or null
+     * if there's no batch in progress.
+     */
+    private Map<Section, SectionBatchUpdates> batchedUpdates;
+    private int batchDepth = 0;
+    private boolean batchInvalidated;
+
+    /**
+     * Whether the notification being dispatched comes from a notify method of this adapter, that
+     * has already invalidated the sections whose number of items changed.
+     */
+    private boolean dispatchingSectionUpdates;
+    private final RecyclerView.AdapterDataObserver positionIndexObserver = new PositionIndexObserver();
+    private boolean debugChecksEnabled;
 
     public SectionedRecyclerViewAdapter() {
-        sections = new LinkedHashMap<>();
-        sectionViewTypeNumbers = new LinkedHashMap<>();
+        sections = new HashMap<>();
+        positionIndex = new SectionPositionIndex();
+        viewTypeKeyNumbers = new HashMap<>();
+
+        // keep the position index in sync with notifications that don't go through the sections,
+        // such as notifyDataSetChanged, whether or not the adapter is attached
+        registerAdapterDataObserver(positionIndexObserver);
     }
 
     @NonNull
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        RecyclerView.ViewHolder viewHolder = null;
-
-        for (Map.Entry<String, Integer> entry : sectionViewTypeNumbers.entrySet()) {
-            if (viewType >= entry.getValue() && viewType < entry.getValue() + VIEW_TYPE_QTY) {
-
-                Section section = sections.get(entry.getKey());
-                int sectionViewType = viewType - entry.getValue();
-
-                switch (sectionViewType) {
-                    case VIEW_TYPE_HEADER:
-                        viewHolder = getHeaderViewHolder(parent, section);
-                        break;
-                    case VIEW_TYPE_FOOTER:
-                        viewHolder = getFooterViewHolder(parent, section);
-                        break;
-                    case VIEW_TYPE_ITEM_LOADED:
-                        viewHolder = getItemViewHolder(parent, section);
-                        break;
-                    case VIEW_TYPE_LOADING:
-                        viewHolder = getLoadingViewHolder(parent, section);
-                        break;
-                    case VIEW_TYPE_FAILED:
-                        viewHolder = getFailedViewHolder(parent, section);
-                        break;
-                    case VIEW_TYPE_EMPTY:
-                        viewHolder = getEmptyViewHolder(parent, section);
-                        break;
-                    default:
-                        throw new IllegalArgumentException("Invalid viewType");
-                }
+        Section section = getSectionForViewType(viewType);
+
+        if (section == null) {
+            //noinspection ConstantConditions
+            return null;
+        }
+
+        SectionMetricsListener listener = metricsListener;
+        Map<String, String[]> traceNames = traceSectionNames;
+        String tag = listener != null || traceNames != null ? positionIndex.getTag(positionIndex.indexOf(section)) : null;
+        if (traceNames != null) {
+            beginTraceSection(getTraceSectionName(traceNames, tag, section, viewType % VIEW_TYPE_QTY));
+        }
+        long startTime = listener != null ? System.nanoTime() : 0;
+
+        RecyclerView.ViewHolder viewHolder;
+        try {
+            viewHolder = getSectionViewHolder(parent, section, viewType % VIEW_TYPE_QTY);
+        } finally {
+            if (traceNames != null) {
+                endTraceSection();
             }
         }
 
+        if (listener != null) {
+            long duration = System.nanoTime() - startTime;
+            //noinspection ConstantConditions
+            listener.onViewHolderCreated(tag, section, viewType % VIEW_TYPE_QTY, duration);
+        }
+
+        String viewTypeKey = section.getViewTypeKey();
+        if (viewTypeUsageHistogram != null && viewTypeKey != null && !prewarming) {
+            viewTypeUsageHistogram.record(viewTypeKey, viewType % VIEW_TYPE_QTY);
+        }
+
+        if (viewHolder != null) {
+            viewHolderGenerations.put(viewHolder, viewTypeGenerations[viewType / VIEW_TYPE_QTY]);
+        }
+
         return viewHolder;
     }
 
-    private RecyclerView.ViewHolder getItemViewHolder(ViewGroup parent, Section section) {
-        View view;
-        if (section.isItemViewWillBeProvided()) {
-            view = section.getItemView(parent);
-            if (view == null) {
-                throw new NullPointerException("Section.getItemView() returned null");
-            }
-        } else {
-            Integer resId = section.getItemResourceId();
-            if (resId == null) {
-                throw new NullPointerException("Missing 'item' resource id");
+    /**
+     * Called when a ViewHolder is about to be put in the RecycledViewPool. Subclasses that
+     * override this method must call through to the super class implementation.
+     *
+     * @param holder ViewHolder to be recycled
+     */
+    @Override
+    public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
+        super.onViewRecycled(holder);
+
+        // a ViewHolder created for a previous owner of the view type is only put in the pool
+        // after this call, so it is discarded once the RecyclerView is done with the current
+        // pass, or before if a ViewHolder is bound first, and then the block can be reused
+        if (isStaleViewHolder(holder)) {
+            int viewType = holder.getItemViewType();
+            int viewTypeBlock = viewType / VIEW_TYPE_QTY;
+            int viewTypeBit = 1 << (viewType % VIEW_TYPE_QTY);
+
+            if ((evictedViewTypes[viewTypeBlock] & viewTypeBit) == 0) {
+                evictedViewTypes[viewTypeBlock] |= viewTypeBit;
+                if (evictedViewTypeCount++ == 0) {
+                    getMainThreadExecutor().execute(discardEvictedRecycledViewsTask);
+                }
             }
-            view = inflate(resId, parent);
         }
-        return section.getItemViewHolder(view);
     }
 
-    private RecyclerView.ViewHolder getHeaderViewHolder(ViewGroup parent, Section section) {
-        View view;
-        if (section.isHeaderViewWillBeProvided()) {
-            view = section.getHeaderView(parent);
-            if (view == null) {
-                throw new NullPointerException("Section.getHeaderView() returned null");
-            }
-        } else {
-            Integer resId = section.getHeaderResourceId();
-            if (resId == null) {
-                throw new NullPointerException("Missing 'header' resource id");
-            }
-            view = inflate(resId, parent);
+    private boolean isStaleViewHolder(RecyclerView.ViewHolder holder) {
+        int viewType = holder.getItemViewType();
+        int viewTypeBlock = viewType / VIEW_TYPE_QTY;
+
+        if (viewType < 0 || viewTypeBlock >= viewTypeGenerations.length || viewTypeGenerations[viewTypeBlock] == 0) {
+            return false;
         }
-        return section.getHeaderViewHolder(view);
+
+        Integer generation = viewHolderGenerations.get(holder);
+
+        return generation == null || generation != viewTypeGenerations[viewTypeBlock];
     }
 
-    private RecyclerView.ViewHolder getFooterViewHolder(ViewGroup parent, Section section) {
-        View view;
-        if (section.isFooterViewWillBeProvided()) {
-            view = section.getFooterView(parent);
-            if (view == null) {
-                throw new NullPointerException("Section.getFooterView() returned null");
-            }
-        } else {
-            Integer resId = section.getFooterResourceId();
-            if (resId == null) {
-                throw new NullPointerException("Missing 'footer' resource id");
+    /**
+     * Discard the ViewHolders of previous owners of view types from the RecycledViewPools that
+     * might hold any, keeping the ones of the current owners and the limits of the pools.
+     */
+    private void discardEvictedRecycledViews() {
+        for (int viewTypeBlock = 0; evictedViewTypeCount != 0 && viewTypeBlock < evictedViewTypes.length; viewTypeBlock++) {
+            if (evictedViewTypes[viewTypeBlock] != 0) {
+                discardEvictedRecycledViews(viewTypeBlock);
             }
-            view = inflate(resId, parent);
         }
-        return section.getFooterViewHolder(view);
     }
 
-    private RecyclerView.ViewHolder getLoadingViewHolder(ViewGroup parent, Section section) {
-        View view;
-        if (section.isLoadingViewWillBeProvided()) {
-            view = section.getLoadingView(parent);
-            if (view == null) {
-                throw new NullPointerException("Section.getLoadingView() returned null");
-            }
-        } else {
-            Integer resId = section.getLoadingResourceId();
-            if (resId == null) {
-                throw new NullPointerException("Missing 'loading' resource id");
+    /**
+     * Discard the ViewHolders of a previous owner of a view type block from the RecycledViewPools
+     * that might hold any.
+     *
+     * @param viewTypeBlock view type block whose evicted view types are discarded
+     */
+    private void discardEvictedRecycledViews(int viewTypeBlock) {
+        int viewTypeBits = evictedViewTypes[viewTypeBlock];
+        evictedViewTypes[viewTypeBlock] = 0;
+
+        for (int i = 0; i < VIEW_TYPE_QTY; i++) {
+            if ((viewTypeBits & (1 << i)) != 0) {
+                evictedViewTypeCount--;
+                discardStaleRecycledViews(viewTypeBlock * VIEW_TYPE_QTY + i);
             }
-            view = inflate(resId, parent);
         }
-        return section.getLoadingViewHolder(view);
     }
 
-    private RecyclerView.ViewHolder getFailedViewHolder(ViewGroup parent, Section section) {
-        View view;
-        if (section.isFailedViewWillBeProvided()) {
-            view = section.getFailedView(parent);
-            if (view == null) {
-                throw new NullPointerException("Section.getFailedView() returned null");
-            }
-        } else {
-            Integer resId = section.getFailedResourceId();
-            if (resId == null) {
-                throw new NullPointerException("Missing 'failed' resource id");
-            }
-            view = inflate(resId, parent);
+    /**
+     * Make the draining view type blocks available to new sections once no ViewHolder of their
+     * previous owner is still bound to a position, as the ViewHolders displayed or cached by a
+     * RecyclerView are, discarding the ones already put in the RecycledViewPools.
+     */
+    private void releaseDrainedViewTypeBlocks() {
+        if (drainingViewTypeBlocks.isEmpty()) {
+            return;
         }
-        return section.getFailedViewHolder(view);
-    }
 
-    private RecyclerView.ViewHolder getEmptyViewHolder(ViewGroup parent, Section section) {
-        View view;
-        if (section.isEmptyViewWillBeProvided()) {
-            view = section.getEmptyView(parent);
-            if (view == null) {
-                throw new NullPointerException("Section.getEmptyView() returned null");
+        Set<Integer> undrainedViewTypeBlocks = null;
+        for (RecyclerView.ViewHolder viewHolder : viewHolderGenerations.keySet()) {
+            if (viewHolder.getItemViewType() >= 0 && isStaleViewHolder(viewHolder) && isViewHolderBound(viewHolder)) {
+                if (undrainedViewTypeBlocks == null) {
+                    undrainedViewTypeBlocks = new HashSet<>();
+                }
+                undrainedViewTypeBlocks.add(viewHolder.getItemViewType() / VIEW_TYPE_QTY);
             }
-        } else {
-            Integer resId = section.getEmptyResourceId();
-            if (resId == null) {
-                throw new NullPointerException("Missing 'empty' resource id");
+        }
+
+        // in the order they were released
+        for (Iterator<Integer> iterator = drainingViewTypeBlocks.iterator(); iterator.hasNext(); ) {
+            int viewTypeBlock = iterator.next();
+            if (undrainedViewTypeBlocks == null || !undrainedViewTypeBlocks.contains(viewTypeBlock)) {
+                iterator.remove();
+                for (int j = 0; j < VIEW_TYPE_QTY; j++) {
+                    discardStaleRecycledViews(viewTypeBlock * VIEW_TYPE_QTY + j);
+                }
+                freeViewTypeBlocks.add(viewTypeBlock);
             }
-            view = inflate(resId, parent);
         }
-        return section.getEmptyViewHolder(view);
     }
 
     /**
-     * Add a section to this recyclerview.
+     * Return whether a ViewHolder is bound to a position, which is reset when it is put in a
+     * RecycledViewPool.
      *
-     * @param tag     unique identifier of the section
-     * @param section section to be added
+     * @param viewHolder ViewHolder created by this adapter
+     * @return true if the ViewHolder is displayed or cached by a RecyclerView
      */
-    public void addSection(String tag, Section section) {
-        this.sections.put(tag, section);
-        this.sectionViewTypeNumbers.put(tag, viewTypeCount);
-        viewTypeCount += VIEW_TYPE_QTY;
+    boolean isViewHolderBound(RecyclerView.ViewHolder viewHolder) {
+        return viewHolder.getLayoutPosition() != RecyclerView.NO_POSITION;
     }
 
-    /**
-     * Add a section to this recyclerview with a random tag.
-     *
-     * @param section section to be added
-     * @return generated tag
-     */
-    public String addSection(Section section) {
-        String tag = UUID.randomUUID().toString();
-
-        addSection(tag, section);
+    private void discardStaleRecycledViews(int viewType) {
+        for (int i = 0; i < attachedRecyclerViews.size(); i++) {
+            RecyclerView.RecycledViewPool pool = attachedRecyclerViews.get(i).getRecycledViewPool();
+            int recycledViewCount = pool.getRecycledViewCount(viewType);
+            if (recycledViewCount == 0) {
+                continue;
+            }
 
-        return tag;
+            // the pool has no way to remove a single ViewHolder, so take them all and put back
+            // the ones of the current owner
+            RecyclerView.ViewHolder[] keptViewHolders = new RecyclerView.ViewHolder[recycledViewCount];
+            int keptViewHolderCount = 0;
+            for (int j = 0; j < recycledViewCount; j++) {
+                RecyclerView.ViewHolder viewHolder = pool.getRecycledView(viewType);
+                if (viewHolder != null && !isStaleViewHolder(viewHolder)) {
+                    keptViewHolders[keptViewHolderCount++] = viewHolder;
+                }
+            }
+            for (int j = keptViewHolderCount - 1; j >= 0; j--) {
+                pool.putRecycledView(keptViewHolders[j]);
+            }
+        }
     }
 
     /**
-     * Return the section with the tag provided.
+     * Inflate on a background thread the views that a section is about to display, so that
+     * {@link #onCreateViewHolder} can use them instead of inflating them on the main thread. One
+     * view is inflated for the header, the footer and the current state of the section, or the
+     * given number of item views if it is loaded, unless these views are provided by the section.
+     * The views that are not ready when they are needed are inflated on the main thread as usual.
      *
-     * @param tag unique identifier of the section
-     * @return section
+     * <p>The views are inflated with the executors set with {@link #setBackgroundExecutors}, and
+     * kept until they are used or the adapter is detached from the RecyclerView. At most
+     * {@value #MAX_PREFETCHED_VIEWS_PER_LAYOUT} views are kept for each layout, so calling this
+     * again before the views are used doesn't keep more of them. Layouts with views that can only
+     * be created on the main thread must not be prefetched. A view that fails to inflate is logged
+     * and inflated again on the main thread when it is needed, which throws the failure there.
+     *
+     * @param recyclerView  RecyclerView this adapter is attached to, parent of the views
+     * @param section       section whose views are inflated
+     * @param itemViewCount number of item views to inflate if the section is loaded
      */
-    public Section getSection(String tag) {
-        return this.sections.get(tag);
+    public void prefetchViews(@NonNull RecyclerView recyclerView, @NonNull Section section, int itemViewCount) {
+        if (itemViewCount < 0) {
+            throw new IllegalArgumentException("Invalid item view count " + itemViewCount);
+        }
+
+        int[] layoutResourceIds = getPrefetchLayoutResourceIds(section, Math.min(itemViewCount, MAX_PREFETCHED_VIEWS_PER_LAYOUT));
+        if (layoutResourceIds.length > 0) {
+            inflateInBackground(recyclerView, section, layoutResourceIds, MAX_PREFETCHED_VIEWS_PER_LAYOUT, null);
+        }
     }
 
     /**
-     * Remove section from this recyclerview.
+     * Fill the RecycledViewPool of a RecyclerView with ViewHolders for the sections of this
+     * adapter, and for the sections added later, so that scrolling into them for the first time
+     * doesn't create any ViewHolder. The views are inflated on a background thread, as with
+     * {@link #prefetchViews}, and the ViewHolders are created the next time the main thread is
+     * idle once they are ready. At most {@value #MAX_PREFETCHED_VIEWS_PER_LAYOUT} views of each
+     * layout are inflated in the background, the others are inflated with their ViewHolders. The
+     * sections sharing a view type key are pre-warmed once for all of them.
      *
-     * @param section section to be removed
+     * <p>The pool is topped up to the given number of ViewHolders for each view type that a
+     * section can display, its header, footer, items and the views of each state it has a layout
+     * or a view for. The limit of the pool for a view type is only raised if it is lower than
+     * that number.
+     *
+     * @param recyclerView           RecyclerView this adapter is attached to, or null to stop
+     *                               pre-warming its RecycledViewPool
+     * @param viewHoldersPerViewType number of ViewHolders of each view type to keep in the pool
      */
-    public void removeSection(Section section) {
-        String tag = null;
-        for (final Map.Entry<String, Section> entry : this.sections.entrySet()) {
-            if (entry.getValue() == section) {
-                tag = entry.getKey();
-            }
+    public void setRecycledViewPoolPrewarming(@Nullable RecyclerView recyclerView, int viewHoldersPerViewType) {
+        if (viewHoldersPerViewType < 0) {
+            throw new IllegalArgumentException("Invalid number of ViewHolders " + viewHoldersPerViewType);
         }
 
-        if (tag != null) {
-            this.removeSection(tag);
+        prewarmRecyclerView = viewHoldersPerViewType > 0 ? recyclerView : null;
+        prewarmViewHolderCount = viewHoldersPerViewType;
+        prewarmHistogram = null;
+        pendingPrewarmViewHolders = new HashMap<>();
+
+        for (int i = 0; i < positionIndex.size(); i++) {
+            prewarmRecycledViewPool(positionIndex.getSection(i));
         }
     }
 
     /**
-     * Remove section from this recyclerview.
+     * Fill the RecycledViewPool of a RecyclerView with ViewHolders for the sections of this
+     * adapter, and for the sections added later, as many for each view type as were created in a
+     * previous session, up to {@value #MAX_HISTOGRAM_PREWARM_VIEW_HOLDERS}. Only the sections with
+     * a view type key are pre-warmed.
      *
-     * @param tag unique identifier of the section
+     * @param recyclerView RecyclerView this adapter is attached to, or null to stop pre-warming
+     *                     its RecycledViewPool
+     * @param histogram    ViewHolders created in a previous session, usually read with
+     *                     {@link ViewTypeUsageHistogram#readFrom(java.io.File)}
+     * @see #setRecycledViewPoolPrewarming(RecyclerView, int)
      */
-    public void removeSection(String tag) {
-        this.sections.remove(tag);
-        this.sectionViewTypeNumbers.remove(tag);
+    public void setRecycledViewPoolPrewarming(@Nullable RecyclerView recyclerView, @NonNull ViewTypeUsageHistogram histogram) {
+        prewarmRecyclerView = histogram.isEmpty() ? null : recyclerView;
+        prewarmViewHolderCount = 0;
+        prewarmHistogram = histogram;
+        pendingPrewarmViewHolders = new HashMap<>();
+
+        for (int i = 0; i < positionIndex.size(); i++) {
+            prewarmRecycledViewPool(positionIndex.getSection(i));
+        }
     }
 
     /**
-     * Remove all sections from this recyclerview.
+     * Record the ViewHolders created by this adapter for the sections with a view type key, not
+     * counting the ones created to pre-warm the RecycledViewPool.
+     *
+     * @param histogram histogram to record to, or null to stop recording
      */
-    public void removeAllSections() {
-        this.sections.clear();
+    public void setViewTypeUsageHistogram(@Nullable ViewTypeUsageHistogram histogram) {
+        this.viewTypeUsageHistogram = histogram;
     }
 
-    @Override
-    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-
-        int currentPos = 0;
-
-        for (Map.Entry<String, Section> entry : sections.entrySet()) {
-            Section section = entry.getValue();
+    private int getPrewarmViewHolderCount(Section section, int sectionViewType) {
+        if (prewarmHistogram == null) {
+            return prewarmViewHolderCount;
+        }
 
-            // ignore invisible sections
-            if (!section.isVisible()) {
-                continue;
-            }
+        String viewTypeKey = section.getViewTypeKey();
 
-            int sectionTotal = section.getSectionItemsTotal();
+        // the histogram counts the ViewHolders created during a whole session, which can be many
+        // more than the ones displayed at the same time
+        return viewTypeKey != null
+                ? Math.min(prewarmHistogram.getCount(viewTypeKey, sectionViewType), MAX_HISTOGRAM_PREWARM_VIEW_HOLDERS) : 0;
+    }
 
-            // check if position is in this section
-            if (position >= currentPos && position <= (currentPos + sectionTotal - 1)) {
+    private void prewarmRecycledViewPool(final Section section) {
+        final RecyclerView recyclerView = prewarmRecyclerView;
+        if (recyclerView == null) {
+            return;
+        }
 
-                if (section.hasHeader()) {
-                    if (position == currentPos) {
-                        // delegate the binding to the section header
-                        getSectionForPosition(position).onBindHeaderViewHolder(holder);
-                        return;
-                    }
+        // the sections sharing a view type key share its ViewHolders, so the ones already being
+        // inflated for another of these sections are not inflated again
+        final int viewType = positionIndex.getViewType(positionIndex.indexOf(section));
+        final RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        setPrefetchRecyclerView(recyclerView);
+        final Map<Integer, Integer> pendingViewHolders = pendingPrewarmViewHolders;
+        final int generation = viewTypeGenerations[viewType / VIEW_TYPE_QTY];
+
+        final int[] missingViewHolders = new int[VIEW_TYPE_QTY];
+        int missingViewHolderCount = 0;
+        int layoutCount = 0;
+        for (int sectionViewType = 0; sectionViewType < VIEW_TYPE_QTY; sectionViewType++) {
+            if (hasView(section, sectionViewType)) {
+                missingViewHolders[sectionViewType] = Math.max(0, getPrewarmViewHolderCount(section, sectionViewType)
+                        - pool.getRecycledViewCount(viewType + sectionViewType)
+                        - getPendingViewHolderCount(pendingViewHolders, viewType + sectionViewType));
+                missingViewHolderCount += missingViewHolders[sectionViewType];
+                if (getLayoutResourceId(section, sectionViewType) != null) {
+                    layoutCount += Math.min(missingViewHolders[sectionViewType], MAX_PREFETCHED_VIEWS_PER_LAYOUT);
                 }
+            }
+        }
+        if (missingViewHolderCount == 0) {
+            return;
+        }
 
-                if (section.hasFooter()) {
-                    if (position == (currentPos + sectionTotal - 1)) {
-                        // delegate the binding to the section header
-                        getSectionForPosition(position).onBindFooterViewHolder(holder);
-                        return;
-                    }
-                }
+        // beyond the bound of the prefetched views, the views are inflated with their ViewHolders
+        final int[] layoutResourceIds = new int[layoutCount];
+        int index = 0;
+        for (int sectionViewType = 0; sectionViewType < VIEW_TYPE_QTY; sectionViewType++) {
+            Integer layoutResourceId = getLayoutResourceId(section, sectionViewType);
+            for (int i = 0; layoutResourceId != null && i < Math.min(missingViewHolders[sectionViewType], MAX_PREFETCHED_VIEWS_PER_LAYOUT); i++) {
+                layoutResourceIds[index++] = layoutResourceId;
+            }
+            addPendingViewHolderCount(pendingViewHolders, viewType + sectionViewType, missingViewHolders[sectionViewType]);
+        }
 
-                // delegate the binding to the section content
-                getSectionForPosition(position).onBindContentViewHolder(holder, getPositionInSection(position));
-                return;
+        inflateInBackground(recyclerView, section, layoutResourceIds, MAX_PREFETCHED_VIEWS_PER_LAYOUT, new Runnable() {
+            @Override
+            public void run() {
+                // the ViewHolders are created once the first frames are drawn
+                runWhenIdle(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int sectionViewType = 0; sectionViewType < VIEW_TYPE_QTY; sectionViewType++) {
+                            addPendingViewHolderCount(pendingViewHolders, viewType + sectionViewType, -missingViewHolders[sectionViewType]);
+                        }
+
+                        // the ViewHolders are created by any of the sections still sharing the view types
+                        Section viewTypeSection = getSectionForViewType(viewType);
+                        if (recyclerView != prewarmRecyclerView || viewTypeSection == null
+                                || viewTypeGenerations[viewType / VIEW_TYPE_QTY] != generation) {
+                            return;
+                        }
+
+                        for (int sectionViewType = 0; sectionViewType < VIEW_TYPE_QTY; sectionViewType++) {
+                            if (hasView(viewTypeSection, sectionViewType)) {
+                                putViewHolders(pool, viewType + sectionViewType, getPrewarmViewHolderCount(viewTypeSection, sectionViewType));
+                            }
+                        }
+                    }
+                });
             }
+        });
+    }
 
-            currentPos += sectionTotal;
-        }
+    private static int getPendingViewHolderCount(Map<Integer, Integer> pendingViewHolders, int viewType) {
+        Integer pendingViewHolderCount = pendingViewHolders.get(viewType);
 
-        throw new IndexOutOfBoundsException("Invalid position");
+        return pendingViewHolderCount != null ? pendingViewHolderCount : 0;
     }
 
-    @Override
-    public int getItemCount() {
-        int count = 0;
+    private static void addPendingViewHolderCount(Map<Integer, Integer> pendingViewHolders, int viewType, int delta) {
+        int pendingViewHolderCount = getPendingViewHolderCount(pendingViewHolders, viewType) + delta;
 
-        for (Map.Entry<String, Section> entry : sections.entrySet()) {
-            Section section = entry.getValue();
+        if (pendingViewHolderCount > 0) {
+            pendingViewHolders.put(viewType, pendingViewHolderCount);
+        } else {
+            pendingViewHolders.remove(viewType);
+        }
+    }
 
-            // ignore invisible sections
-            if (!section.isVisible()) {
-                continue;
+    private void putViewHolders(RecyclerView.RecycledViewPool pool, int viewType, int viewHolderCount) {
+        int recycledViewCount = pool.getRecycledViewCount(viewType);
+
+        while (recycledViewCount < viewHolderCount) {
+            RecyclerView.ViewHolder viewHolder;
+            prewarming = true;
+            try {
+                viewHolder = createViewHolder(prewarmRecyclerView, viewType);
+            } finally {
+                prewarming = false;
             }
 
-            count += section.getSectionItemsTotal();
+            pool.putRecycledView(viewHolder);
+            if (pool.getRecycledViewCount(viewType) == recycledViewCount) {
+                // the pool has no getter of its limit, which is only raised once it is reached
+                pool.setMaxRecycledViews(viewType, viewHolderCount);
+                pool.putRecycledView(viewHolder);
+                if (pool.getRecycledViewCount(viewType) == recycledViewCount) {
+                    return;
+                }
+            }
+            recycledViewCount++;
         }
-
-        return count;
     }
 
-    @Override
-    public int getItemViewType(int position) {
-        /*
-         Each Section has 6 "viewtypes":
-         1) header
-         2) footer
-         3) items
-         4) loading
-         5) load failed
-         6) empty
-         */
-        int currentPos = 0;
+    /**
+     * Run a task on the main thread the next time its message queue is idle, so that it doesn't
+     * delay the frames being drawn.
+     */
+    @VisibleForTesting // in order to allow this class to be unit tested
+    void runWhenIdle(final Runnable task) {
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                task.run();
+                return false;
+            }
+        });
+    }
+
+    private void inflateInBackground(final RecyclerView recyclerView, final Section section, final int[] layoutResourceIds,
+                                     final int maxViewsPerLayout, @Nullable final Runnable onInflated) {
+        setPrefetchRecyclerView(recyclerView);
+
+        final int generation = prefetchGeneration;
+        final ViewGroup parent = recyclerView;
+        final LayoutInflater inflater = layoutResourceIds.length > 0 ? cloneLayoutInflater(parent) : null;
+        final Executor mainThreadExecutor = getMainThreadExecutor();
+
+        getBackgroundExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final View[] views = new View[layoutResourceIds.length];
+                RuntimeException inflateException = null;
+                int inflatedCount = 0;
+                try {
+                    for (; inflatedCount < layoutResourceIds.length; inflatedCount++) {
+                        views[inflatedCount] = inflater.inflate(layoutResourceIds[inflatedCount], parent, false);
+                    }
+                } catch (RuntimeException e) {
+                    // the views that could not be inflated are inflated on the main thread when needed
+                    inflateException = e;
+                }
 
-        for (Map.Entry<String, Section> entry : sections.entrySet()) {
-            Section section = entry.getValue();
+                final RuntimeException exception = inflateException;
+                final int failedIndex = inflatedCount;
+                mainThreadExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (exception != null) {
+                            logInflateFailure(section, layoutResourceIds[failedIndex], exception);
+                        }
+                        if (generation != prefetchGeneration) {
+                            return;
+                        }
+
+                        addPrefetchedViews(layoutResourceIds, views, maxViewsPerLayout);
+                        if (onInflated != null) {
+                            onInflated.run();
+                        }
+                    }
+                });
+            }
+        });
+    }
 
-            // ignore invisible sections
-            if (!section.isVisible()) {
-                continue;
+    private void logInflateFailure(Section section, int layoutResourceId, RuntimeException exception) {
+        int sectionIndex = positionIndex.indexOf(section);
+        String tag = sectionIndex != -1 ? positionIndex.getTag(sectionIndex) : "removed";
+
+        String rowKind = "unknown";
+        for (int sectionViewType = 0; sectionViewType < VIEW_TYPE_QTY; sectionViewType++) {
+            Integer sectionLayoutResourceId = getLayoutResourceId(section, sectionViewType);
+            if (sectionLayoutResourceId != null && sectionLayoutResourceId == layoutResourceId) {
+                rowKind = ROW_KIND_NAMES[sectionViewType];
+                break;
             }
+        }
 
-            int sectionTotal = section.getSectionItemsTotal();
+        logWarning("Could not inflate in the background the " + rowKind + " view of the section with tag " + tag, exception);
+    }
 
-            // check if position is in this section
-            if (position >= currentPos && position <= (currentPos + sectionTotal - 1)) {
+    private void addPrefetchedViews(int[] layoutResourceIds, View[] views, int maxViewsPerLayout) {
+        for (int i = 0; i < views.length && views[i] != null; i++) {
+            List<View> layoutViews = prefetchedViews.get(layoutResourceIds[i]);
+            if (layoutViews == null) {
+                layoutViews = new ArrayList<>();
+                prefetchedViews.put(layoutResourceIds[i], layoutViews);
+            }
+            if (layoutViews.size() < maxViewsPerLayout) {
+                layoutViews.add(views[i]);
+            }
+        }
+    }
 
-                int viewType = sectionViewTypeNumbers.get(entry.getKey());
+    private void setPrefetchRecyclerView(RecyclerView recyclerView) {
+        if (recyclerView != prefetchRecyclerView) {
+            // the views of another RecyclerView would have the wrong parent and context
+            clearPrefetchedViews();
+            prefetchRecyclerView = recyclerView;
+        }
+    }
 
-                if (section.hasHeader()) {
-                    if (position == currentPos) {
-                        return viewType;
-                    }
-                }
+    private void clearPrefetchedViews() {
+        prefetchedViews.clear();
+        prefetchRecyclerView = null;
+        prefetchGeneration++;
+        // the ViewHolders being pre-warmed are dropped with their views
+        pendingPrewarmViewHolders = new HashMap<>();
+    }
 
-                if (section.hasFooter()) {
-                    if (position == (currentPos + sectionTotal - 1)) {
-                        return viewType + 1;
-                    }
-                }
+    private static int[] getPrefetchLayoutResourceIds(Section section, int itemViewCount) {
+        Integer headerResourceId = section.hasHeader() ? getLayoutResourceId(section, VIEW_TYPE_HEADER) : null;
+        Integer footerResourceId = section.hasFooter() ? getLayoutResourceId(section, VIEW_TYPE_FOOTER) : null;
 
-                switch (section.getState()) {
-                    case LOADED:
-                        return viewType + 2;
-                    case LOADING:
-                        return viewType + 3;
-                    case FAILED:
-                        return viewType + 4;
-                    case EMPTY:
-                        return viewType + 5;
-                    default:
-                        throw new IllegalStateException("Invalid state");
-                }
-            }
+        int contentViewType = getContentViewType(section.getState());
+        Integer contentResourceId = getLayoutResourceId(section, contentViewType);
+        int contentViewCount = contentResourceId == null ? 0 : contentViewType == VIEW_TYPE_ITEM_LOADED ? itemViewCount : 1;
 
-            currentPos += sectionTotal;
+        int[] layoutResourceIds = new int[(headerResourceId != null ? 1 : 0) + contentViewCount
+                + (footerResourceId != null ? 1 : 0)];
+        int index = 0;
+        if (headerResourceId != null) {
+            layoutResourceIds[index++] = headerResourceId;
+        }
+        for (int i = 0; i < contentViewCount; i++) {
+            layoutResourceIds[index++] = contentResourceId;
+        }
+        if (footerResourceId != null) {
+            layoutResourceIds[index] = footerResourceId;
         }
 
-        throw new IndexOutOfBoundsException("Invalid position");
+        return layoutResourceIds;
+    }
+
+    private static int getContentViewType(State state) {
+        switch (state) {
+            case LOADED:
+                return VIEW_TYPE_ITEM_LOADED;
+            case LOADING:
+                return VIEW_TYPE_LOADING;
+            case FAILED:
+                return VIEW_TYPE_FAILED;
+            case EMPTY:
+                return VIEW_TYPE_EMPTY;
+            default:
+                throw new IllegalStateException("Invalid state");
+        }
     }
 
     /**
-     * Converts global item view type, to local Section ViewType.
+     * Return whether a section can display a view of the given kind of row.
      *
-     * @param itemViewType global item view type
-     * @return one of the view types:
-     * <ul>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER</li>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_FOOTER</li>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED</li>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_LOADING</li>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_FAILED</li>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_EMPTY</li>
-     * </ul>
+     * @param section         section of this adapter
+     * @param sectionViewType kind of row, one of the VIEW_TYPE_* constants
+     * @return true if the section has a layout or provides a view for the kind of row
      */
-    public int getSectionItemViewTypeForAdapterViewType(int itemViewType) {
-        return itemViewType % VIEW_TYPE_QTY;
+    private static boolean hasView(Section section, int sectionViewType) {
+        switch (sectionViewType) {
+            case VIEW_TYPE_HEADER:
+                return section.hasHeader();
+            case VIEW_TYPE_FOOTER:
+                return section.hasFooter();
+            case VIEW_TYPE_ITEM_LOADED:
+                return true;
+            case VIEW_TYPE_LOADING:
+                return section.isLoadingViewWillBeProvided() || section.getLoadingResourceId() != null;
+            case VIEW_TYPE_FAILED:
+                return section.isFailedViewWillBeProvided() || section.getFailedResourceId() != null;
+            case VIEW_TYPE_EMPTY:
+                return section.isEmptyViewWillBeProvided() || section.getEmptyResourceId() != null;
+            default:
+                throw new IllegalArgumentException("Invalid viewType");
+        }
     }
 
     /**
-     * Returns the Section ViewType of an item based on the position in the adapter.
+     * Return the layout that is inflated for a kind of row of a section.
      *
-     * @param position position in the adapter
-     * @return one of the view types:
-     * <ul>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER</li>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_FOOTER</li>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED</li>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_LOADING</li>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_FAILED</li>
-     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_EMPTY</li>
-     * </ul>
+     * @param section         section of this adapter
+     * @param sectionViewType kind of row, one of the VIEW_TYPE_* constants
+     * @return layout resource ID, or null if the section provides the view or has no layout
      */
-    public int getSectionItemViewType(int position) {
-        int viewType = getItemViewType(position);
-
-        return getSectionItemViewTypeForAdapterViewType(viewType);
+    private static Integer getLayoutResourceId(Section section, int sectionViewType) {
+        switch (sectionViewType) {
+            case VIEW_TYPE_HEADER:
+                return section.isHeaderViewWillBeProvided() ? null : section.getHeaderResourceId();
+            case VIEW_TYPE_FOOTER:
+                return section.isFooterViewWillBeProvided() ? null : section.getFooterResourceId();
+            case VIEW_TYPE_ITEM_LOADED:
+                return section.isItemViewWillBeProvided() ? null : section.getItemResourceId();
+            case VIEW_TYPE_LOADING:
+                return section.isLoadingViewWillBeProvided() ? null : section.getLoadingResourceId();
+            case VIEW_TYPE_FAILED:
+                return section.isFailedViewWillBeProvided() ? null : section.getFailedResourceId();
+            case VIEW_TYPE_EMPTY:
+                return section.isEmptyViewWillBeProvided() ? null : section.getEmptyResourceId();
+            default:
+                throw new IllegalArgumentException("Invalid viewType");
+        }
     }
 
-    /**
-     * Returns the Section object for a position in the adapter.
-     *
-     * @param position position in the adapter
-     * @return Section object for that position
-     */
-    public Section getSectionForPosition(int position) {
-
-        int currentPos = 0;
-
-        for (Map.Entry<String, Section> entry : sections.entrySet()) {
-            Section section = entry.getValue();
-
-            // ignore invisible sections
-            if (!section.isVisible()) {
-                continue;
+    private View getPrefetchedViewOrInflate(@LayoutRes int layoutResourceId, ViewGroup parent) {
+        if (parent == prefetchRecyclerView) {
+            List<View> layoutViews = prefetchedViews.get(layoutResourceId);
+            if (layoutViews != null && !layoutViews.isEmpty()) {
+                return layoutViews.remove(layoutViews.size() - 1);
             }
+        }
 
-            int sectionTotal = section.getSectionItemsTotal();
-
-            // check if position is in this section
-            if (position >= currentPos && position <= (currentPos + sectionTotal - 1)) {
-                return section;
-            }
+        return inflate(layoutResourceId, parent);
+    }
 
-            currentPos += sectionTotal;
+    private Section getSectionForViewType(int viewType) {
+        if (viewType < 0) {
+            return null;
         }
 
-        throw new IndexOutOfBoundsException("Invalid position");
-    }
+        int viewTypeBlock = viewType / VIEW_TYPE_QTY;
 
-    /**
-     * @deprecated Use {@link #getPositionInSection} instead.
-     */
-    @Deprecated
-    public int getSectionPosition(int position) {
-        return getPositionInSection(position);
+        return viewTypeBlock < viewTypeSections.length ? viewTypeSections[viewTypeBlock] : null;
     }
 
     /**
-     * Return the item position relative to the section.
+     * Check that a section that is being added creates the same views as the sections it shares
+     * its view type key with, since their ViewHolders are recycled across these sections.
      *
-     * @param position position of the item in the adapter
-     * @return position of the item in the section
+     * @param section section being added
      */
-    public int getPositionInSection(int position) {
-        int currentPos = 0;
-
-        for (Map.Entry<String, Section> entry : sections.entrySet()) {
-            Section section = entry.getValue();
+    private void checkViewTypeKey(Section section) {
+        String viewTypeKey = section.getViewTypeKey();
+        Integer viewType = viewTypeKey != null ? viewTypeKeyNumbers.get(viewTypeKey) : null;
 
-            // ignore invisible sections
-            if (!section.isVisible()) {
-                continue;
-            }
+        if (viewType != null) {
+            checkSameViews(viewTypeKey, viewTypeSections[viewType / VIEW_TYPE_QTY], section);
+        }
+    }
 
-            int sectionTotal = section.getSectionItemsTotal();
+    private static void checkSameViews(String viewTypeKey, Section viewTypeKeySection, Section section) {
+        for (int sectionViewType = 0; sectionViewType < VIEW_TYPE_QTY; sectionViewType++) {
+            Integer layoutResourceId = getLayoutResourceId(section, sectionViewType);
+            Integer viewTypeKeyLayoutResourceId = getLayoutResourceId(viewTypeKeySection, sectionViewType);
 
-            // check if position is in this section
-            if (position >= currentPos && position <= (currentPos + sectionTotal - 1)) {
-                return position - currentPos - (section.hasHeader() ? 1 : 0);
+            if (isViewWillBeProvided(section, sectionViewType) != isViewWillBeProvided(viewTypeKeySection, sectionViewType)
+                    || (layoutResourceId == null ? viewTypeKeyLayoutResourceId != null : !layoutResourceId.equals(viewTypeKeyLayoutResourceId))) {
+                throw new IllegalArgumentException("The sections with view type key " + viewTypeKey
+                        + " must have the same layouts and provide the same views");
             }
-
-            currentPos += sectionTotal;
         }
-
-        throw new IndexOutOfBoundsException("Invalid position");
     }
 
-    /**
-     * Return the section position in the adapter.
-     *
-     * @param tag unique identifier of the section
-     * @return position of the section in the adapter
-     */
-    public int getSectionPosition(String tag) {
-        Section section = getValidSectionOrThrowException(tag);
-
-        return getSectionPosition(section);
+    private static boolean isViewWillBeProvided(Section section, int sectionViewType) {
+        switch (sectionViewType) {
+            case VIEW_TYPE_HEADER:
+                return section.isHeaderViewWillBeProvided();
+            case VIEW_TYPE_FOOTER:
+                return section.isFooterViewWillBeProvided();
+            case VIEW_TYPE_ITEM_LOADED:
+                return section.isItemViewWillBeProvided();
+            case VIEW_TYPE_LOADING:
+                return section.isLoadingViewWillBeProvided();
+            case VIEW_TYPE_FAILED:
+                return section.isFailedViewWillBeProvided();
+            case VIEW_TYPE_EMPTY:
+                return section.isEmptyViewWillBeProvided();
+            default:
+                throw new IllegalArgumentException("Invalid viewType");
+        }
     }
 
     /**
-     * Return the section position in the adapter.
+     * Return the view type of a section that is being added, sharing the view types of the
+     * sections with the same view type key if there are any.
      *
-     * @param section a visible section of this adapter
-     * @return position of the section in the adapter
+     * @param section section being added
+     * @return first view type of the block of the section
      */
-    public int getSectionPosition(Section section) {
-        int currentPos = 0;
+    private int acquireViewType(Section section) {
+        String viewTypeKey = section.getViewTypeKey();
+        Integer viewType = viewTypeKey != null ? viewTypeKeyNumbers.get(viewTypeKey) : null;
 
-        for (Map.Entry<String, Section> entry : sections.entrySet()) {
-            Section loopSection = entry.getValue();
+        if (viewType == null) {
+            releaseDrainedViewTypeBlocks();
+            Integer freeViewTypeBlock = freeViewTypeBlocks.poll();
 
-            // ignore invisible sections
-            if (!loopSection.isVisible()) {
-                continue;
-            }
+            if (freeViewTypeBlock != null) {
+                viewType = freeViewTypeBlock * VIEW_TYPE_QTY;
 
-            if (loopSection == section) {
-                return currentPos;
+                // ViewHolders of the previous owner might have been recycled since it was removed
+                if (evictedViewTypes[freeViewTypeBlock] != 0) {
+                    discardEvictedRecycledViews(freeViewTypeBlock);
+                }
+            } else {
+                viewType = viewTypeCount;
+                viewTypeCount += VIEW_TYPE_QTY;
+
+                int viewTypeBlock = viewType / VIEW_TYPE_QTY;
+                if (viewTypeBlock >= viewTypeSections.length) {
+                    int newLength = Math.max(viewTypeBlock + 1, viewTypeSections.length * 2);
+                    viewTypeSections = Arrays.copyOf(viewTypeSections, newLength);
+                    viewTypeUsages = Arrays.copyOf(viewTypeUsages, newLength);
+                    viewTypeGenerations = Arrays.copyOf(viewTypeGenerations, newLength);
+                    evictedViewTypes = Arrays.copyOf(evictedViewTypes, newLength);
+                }
             }
+            viewTypeSections[viewType / VIEW_TYPE_QTY] = section;
 
-            int sectionTotal = loopSection.getSectionItemsTotal();
-
-            currentPos += sectionTotal;
+            if (viewTypeKey != null) {
+                viewTypeKeyNumbers.put(viewTypeKey, viewType);
+            }
         }
 
-        throw new IllegalArgumentException("Invalid section");
-    }
+        viewTypeUsages[viewType / VIEW_TYPE_QTY]++;
 
-    /**
-     * Return a copy of the map with all sections of this adapter.
-     *
-     * @return a copy of the map with all sections
-     */
-    @NonNull
-    public Map<String, Section> getCopyOfSectionsMap() {
-        return new LinkedHashMap<>(sections);
+        return viewType;
     }
 
     /**
-     * Helper method that receives position in relation to the section, and returns the position in
-     * the adapter.
+     * Return the ID of a section that is being added, reusing the ID of a removed section if
+     * there's one whose rows can't be displayed anymore.
      *
-     * @param tag      unique identifier of the section
-     * @param position position of the item in the section
-     * @return position of the item in the adapter
+     * @return ID of the section in this adapter
      */
-    public int getPositionInAdapter(String tag, int position) {
-        Section section = getValidSectionOrThrowException(tag);
+    private int acquireSectionId() {
+        Integer freeSectionId = freeSectionIds.poll();
 
-        return getPositionInAdapter(section, position);
+        if (freeSectionId != null) {
+            return freeSectionId;
+        }
+        if (sectionIdCount > MAX_SECTION_ID) {
+            throw new IllegalStateException("Too many sections were added to this adapter");
+        }
+
+        return sectionIdCount++;
     }
 
     /**
-     * Helper method that receives position in relation to the section, and returns the position in
-     * the adapter.
-     *
-     * @param section  a visible section of this adapter
-     * @param position position of the item in the section
-     * @return position of the item in the adapter
+     * Make the IDs of the removed sections available to new sections once a notification was
+     * dispatched after their removal, so that the stable IDs of their rows still displayed are not
+     * given to the rows of another section.
      */
-    public int getPositionInAdapter(Section section, int position) {
-        return getSectionPosition(section) + (section.hasHeader() ? 1 : 0) + position;
+    private void releaseRemovedSectionIds() {
+        if (!removedSectionIds.isEmpty()) {
+            freeSectionIds.addAll(removedSectionIds);
+            removedSectionIds.clear();
+        }
     }
 
     /**
-     * Helper method that returns the position of header in the adapter.
+     * Release the view type of a section that was removed from this adapter.
      *
-     * @param tag unique identifier of the section
-     * @return position of the header in the adapter
+     * @param viewType first view type of the block of the section
+     * @param section  section that was removed
      */
-    public int getHeaderPositionInAdapter(String tag) {
-        Section section = getValidSectionOrThrowException(tag);
+    private void releaseViewType(int viewType, Section section) {
+        int viewTypeBlock = viewType / VIEW_TYPE_QTY;
 
-        return getHeaderPositionInAdapter(section);
-    }
+        if (--viewTypeUsages[viewTypeBlock] == 0) {
+            String viewTypeKey = section.getViewTypeKey();
+            if (viewTypeKey != null) {
+                viewTypeKeyNumbers.remove(viewTypeKey);
+            }
 
-    /**
-     * Helper method that returns the position of header in the adapter.
-     *
-     * @param section a visible section of this adapter
-     * @return position of the header in the adapter
-     */
-    public int getHeaderPositionInAdapter(Section section) {
-        if (!section.hasHeader()) {
-            throw new IllegalStateException("Section doesn't have a header");
+            freeViewTypeBlock(viewTypeBlock);
+            releaseDrainedViewTypeBlocks();
+        } else if (viewTypeSections[viewTypeBlock] == section) {
+            // new ViewHolders of the shared view types are created by any of the remaining sections
+            int sectionIndex = positionIndex.indexOfViewType(viewType, section);
+            if (sectionIndex != -1) {
+                viewTypeSections[viewTypeBlock] = positionIndex.getSection(sectionIndex);
+            }
         }
-
-        return getSectionPosition(section);
     }
 
     /**
-     * Helper method that returns the position of footer in the adapter.
+     * Make a view type block available to new sections once the ViewHolders of its previous
+     * owner are drained from the RecyclerViews, discarding its recycled views.
      *
-     * @param tag unique identifier of the section
-     * @return position of the footer in the adapter
+     * @param viewTypeBlock view type block that is not used anymore
      */
-    public int getFooterPositionInAdapter(String tag) {
-        Section section = getValidSectionOrThrowException(tag);
-
-        return getFooterPositionInAdapter(section);
+    private void freeViewTypeBlock(int viewTypeBlock) {
+        viewTypeSections[viewTypeBlock] = null;
+        viewTypeUsages[viewTypeBlock] = 0;
+        viewTypeGenerations[viewTypeBlock]++;
+        drainingViewTypeBlocks.add(viewTypeBlock);
+    }
+
+    private RecyclerView.ViewHolder getSectionViewHolder(ViewGroup parent, Section section, int sectionViewType) {
+        switch (sectionViewType) {
+            case VIEW_TYPE_HEADER:
+                return getHeaderViewHolder(parent, section);
+            case VIEW_TYPE_FOOTER:
+                return getFooterViewHolder(parent, section);
+            case VIEW_TYPE_ITEM_LOADED:
+                return getItemViewHolder(parent, section);
+            case VIEW_TYPE_LOADING:
+                return getLoadingViewHolder(parent, section);
+            case VIEW_TYPE_FAILED:
+                return getFailedViewHolder(parent, section);
+            case VIEW_TYPE_EMPTY:
+                return getEmptyViewHolder(parent, section);
+            default:
+                throw new IllegalArgumentException("Invalid viewType");
+        }
     }
 
-    /**
-     * Helper method that returns the position of header in the adapter.
-     *
-     * @param section a visible section of this adapter
-     * @return position of the footer in the adapter
-     */
-    public int getFooterPositionInAdapter(Section section) {
-        if (!section.hasFooter()) {
-            throw new IllegalStateException("Section doesn't have a footer");
+    private RecyclerView.ViewHolder getItemViewHolder(ViewGroup parent, Section section) {
+        View view;
+        if (section.isItemViewWillBeProvided()) {
+            view = section.getItemView(parent);
+            if (view == null) {
+                throw new NullPointerException("Section.getItemView() returned null");
+            }
+        } else {
+            Integer resId = section.getItemResourceId();
+            if (resId == null) {
+                throw new NullPointerException("Missing 'item' resource id");
+            }
+            view = getPrefetchedViewOrInflate(resId, parent);
         }
-
-        return getSectionPosition(section) + section.getSectionItemsTotal() - 1;
+        return section.getItemViewHolder(view);
     }
 
-    /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemInserted}.
-     *
-     * @param tag      unique identifier of the section
-     * @param position position of the item in the section
-     */
-    public void notifyItemInsertedInSection(String tag, int position) {
-        callSuperNotifyItemInserted(getPositionInAdapter(tag, position));
+    private RecyclerView.ViewHolder getHeaderViewHolder(ViewGroup parent, Section section) {
+        View view;
+        if (section.isHeaderViewWillBeProvided()) {
+            view = section.getHeaderView(parent);
+            if (view == null) {
+                throw new NullPointerException("Section.getHeaderView() returned null");
+            }
+        } else {
+            Integer resId = section.getHeaderResourceId();
+            if (resId == null) {
+                throw new NullPointerException("Missing 'header' resource id");
+            }
+            view = getPrefetchedViewOrInflate(resId, parent);
+        }
+        return section.getHeaderViewHolder(view);
     }
 
-    /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemInserted}.
-     *
-     * @param section  a visible section of this adapter
-     * @param position position of the item in the section
-     */
-    public void notifyItemInsertedInSection(Section section, int position) {
-        callSuperNotifyItemInserted(getPositionInAdapter(section, position));
+    private RecyclerView.ViewHolder getFooterViewHolder(ViewGroup parent, Section section) {
+        View view;
+        if (section.isFooterViewWillBeProvided()) {
+            view = section.getFooterView(parent);
+            if (view == null) {
+                throw new NullPointerException("Section.getFooterView() returned null");
+            }
+        } else {
+            Integer resId = section.getFooterResourceId();
+            if (resId == null) {
+                throw new NullPointerException("Missing 'footer' resource id");
+            }
+            view = getPrefetchedViewOrInflate(resId, parent);
+        }
+        return section.getFooterViewHolder(view);
     }
 
-    /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRangeInserted}.
-     *
-     * @param tag      unique identifier of the section
-     */
-    public void notifyAllItemsInsertedInSection(String tag) {
-        notifyAllItemsInsertedInSection(getValidSectionOrThrowException(tag));
-    }
+    private RecyclerView.ViewHolder getLoadingViewHolder(ViewGroup parent, Section section) {
+        View view;
+        if (section.isLoadingViewWillBeProvided()) {
+            view = section.getLoadingView(parent);
+            if (view == null) {
+                throw new NullPointerException("Section.getLoadingView() returned null");
+            }
+        } else {
+            Integer resId = section.getLoadingResourceId();
+            if (resId == null) {
+                throw new NullPointerException("Missing 'loading' resource id");
+            }
+            view = getPrefetchedViewOrInflate(resId, parent);
+        }
+        return section.getLoadingViewHolder(view);
+    }
+
+    private RecyclerView.ViewHolder getFailedViewHolder(ViewGroup parent, Section section) {
+        View view;
+        if (section.isFailedViewWillBeProvided()) {
+            view = section.getFailedView(parent);
+            if (view == null) {
+                throw new NullPointerException("Section.getFailedView() returned null");
+            }
+        } else {
+            Integer resId = section.getFailedResourceId();
+            if (resId == null) {
+                throw new NullPointerException("Missing 'failed' resource id");
+            }
+            view = getPrefetchedViewOrInflate(resId, parent);
+        }
+        return section.getFailedViewHolder(view);
+    }
+
+    private RecyclerView.ViewHolder getEmptyViewHolder(ViewGroup parent, Section section) {
+        View view;
+        if (section.isEmptyViewWillBeProvided()) {
+            view = section.getEmptyView(parent);
+            if (view == null) {
+                throw new NullPointerException("Section.getEmptyView() returned null");
+            }
+        } else {
+            Integer resId = section.getEmptyResourceId();
+            if (resId == null) {
+                throw new NullPointerException("Missing 'empty' resource id");
+            }
+            view = getPrefetchedViewOrInflate(resId, parent);
+        }
+        return section.getEmptyViewHolder(view);
+    }
+
+    /**
+     * Add a section to this recyclerview.
+     *
+     * @param tag     unique identifier of the section
+     * @param section section to be added
+     */
+    public void addSection(String tag, Section section) {
+        checkViewTypeKey(section);
+        Section previousSection = this.sections.put(tag, section);
+        // a generated tag given again by the app is not generated anymore
+        generatedTags.remove(tag);
+        int viewType = acquireViewType(section);
+
+        if (previousSection == null) {
+            positionIndex.add(tag, section, viewType, acquireSectionId());
+        } else {
+            // the section replaces the previous one with the same tag, keeping its position and ID
+            int sectionIndex = positionIndex.indexOf(tag, previousSection);
+            int previousViewType = positionIndex.getViewType(sectionIndex);
+            positionIndex.set(sectionIndex, tag, section, viewType);
+            // the name of a generated tag is made of the class of the section
+            removeTraceSectionNames(tag);
+            invalidateBatch();
+            releaseViewType(previousViewType, previousSection);
+            previousSection.onRemovedFromAdapter(this);
+        }
+        section.onAddedToAdapter(this);
+        prewarmRecycledViewPool(section);
+    }
+
+    /**
+     * Insert a section in this recyclerview at the given index, and notify the adapter of the
+     * items of the section that were inserted.
+     *
+     * @param index   index of the section among all the sections of this adapter, visible or not
+     * @param tag     unique identifier of the section
+     * @param section section to be inserted
+     */
+    public void addSection(int index, String tag, Section section) {
+        if (index < 0 || index > positionIndex.size()) {
+            throw new IndexOutOfBoundsException("Invalid index " + index + ", size is " + positionIndex.size());
+        }
+        if (sections.containsKey(tag)) {
+            throw new IllegalArgumentException("A section with tag " + tag + " was already added");
+        }
+        checkViewTypeKey(section);
+        int sectionId = acquireSectionId();
+
+        sections.put(tag, section);
+        positionIndex.insert(index, tag, section, acquireViewType(section), sectionId);
+        section.onAddedToAdapter(this);
+        prewarmRecycledViewPool(section);
+
+        if (batchedUpdates != null) {
+            invalidateBatch();
+            return;
+        }
+
+        int sectionStart = positionIndex.getSectionStart(index);
+        int itemCount = positionIndex.getSectionEnd(index) - sectionStart;
+        if (itemCount > 0) {
+            callSuperNotifyItemRangeInserted(sectionStart, itemCount);
+        }
+    }
+
+    /**
+     * Move a section of this recyclerview to another index, and notify the adapter of the items
+     * that were moved.
+     *
+     * @param fromIndex current index of the section among all the sections of this adapter
+     * @param toIndex   new index of the section among all the sections of this adapter
+     */
+    public void moveSection(int fromIndex, int toIndex) {
+        checkSectionIndex(fromIndex);
+        checkSectionIndex(toIndex);
+
+        if (fromIndex == toIndex) {
+            return;
+        }
+
+        int lowIndex = Math.min(fromIndex, toIndex);
+        int highIndex = Math.max(fromIndex, toIndex);
+        int start = positionIndex.getSectionStart(lowIndex);
+        int itemCount = positionIndex.getSectionEnd(highIndex) - start;
+        int movedItemCount = positionIndex.getSectionEnd(fromIndex) - positionIndex.getSectionStart(fromIndex);
+
+        positionIndex.move(fromIndex, toIndex);
+
+        if (batchedUpdates != null) {
+            invalidateBatch();
+            return;
+        }
+
+        if (fromIndex < toIndex) {
+            notifyItemBlocksSwapped(start, movedItemCount, itemCount - movedItemCount);
+        } else {
+            notifyItemBlocksSwapped(start, itemCount - movedItemCount, movedItemCount);
+        }
+    }
+
+    /**
+     * Swap two sections of this recyclerview, and notify the adapter of the items that were
+     * moved.
+     *
+     * @param index  index of a section among all the sections of this adapter
+     * @param index2 index of the other section among all the sections of this adapter
+     */
+    public void swapSections(int index, int index2) {
+        checkSectionIndex(index);
+        checkSectionIndex(index2);
+
+        int lowIndex = Math.min(index, index2);
+        int highIndex = Math.max(index, index2);
+
+        if (lowIndex != highIndex) {
+            moveSection(lowIndex, highIndex);
+            if (highIndex - lowIndex > 1) {
+                moveSection(highIndex - 1, lowIndex);
+            }
+        }
+    }
+
+    /**
+     * Add a section to this recyclerview with a generated tag, unique in this adapter.
+     *
+     * @param section section to be added
+     * @return generated tag
+     */
+    public String addSection(Section section) {
+        String tag;
+        // the tags are never reused, and skip the ones already added by the app
+        do {
+            tag = GENERATED_TAG_PREFIX + Integer.toString(generatedTagCount++, Character.MAX_RADIX);
+        } while (sections.containsKey(tag));
+
+        addSection(tag, section);
+        generatedTags.add(tag);
+
+        return tag;
+    }
+
+    /**
+     * Return the section with the tag provided.
+     *
+     * @param tag unique identifier of the section
+     * @return section
+     */
+    public Section getSection(String tag) {
+        return this.sections.get(tag);
+    }
+
+    /**
+     * Remove section from this recyclerview.
+     *
+     * @param section section to be removed
+     */
+    public void removeSection(Section section) {
+        int sectionIndex = positionIndex.indexOf(section);
+
+        if (sectionIndex != -1) {
+            this.removeSection(positionIndex.getTag(sectionIndex));
+        }
+    }
+
+    /**
+     * Remove section from this recyclerview.
+     *
+     * @param tag unique identifier of the section
+     */
+    public void removeSection(String tag) {
+        Section section = this.sections.remove(tag);
+
+        if (section != null) {
+            int sectionIndex = positionIndex.indexOf(tag, section);
+            int viewType = positionIndex.getViewType(sectionIndex);
+            removedSectionIds.add(positionIndex.getSectionId(sectionIndex));
+            sectionDiffGenerations.remove(section);
+            positionIndex.remove(sectionIndex);
+            generatedTags.remove(tag);
+            removeTraceSectionNames(tag);
+            releaseViewType(viewType, section);
+            section.onRemovedFromAdapter(this);
+            invalidateBatch();
+        }
+    }
+
+    /**
+     * Remove all sections from this recyclerview.
+     */
+    public void removeAllSections() {
+        for (Section section : this.sections.values()) {
+            section.onRemovedFromAdapter(this);
+        }
+        for (int i = 0; i < positionIndex.size(); i++) {
+            removedSectionIds.add(positionIndex.getSectionId(i));
+        }
+
+        this.sections.clear();
+        this.sectionDiffGenerations.clear();
+        positionIndex.clear();
+        viewTypeKeyNumbers.clear();
+        generatedTags.clear();
+        if (traceSectionNames != null) {
+            traceSectionNames.clear();
+        }
+        invalidateBatch();
+
+        for (int viewTypeBlock = 0; viewTypeBlock < viewTypeCount / VIEW_TYPE_QTY; viewTypeBlock++) {
+            if (viewTypeUsages[viewTypeBlock] != 0) {
+                freeViewTypeBlock(viewTypeBlock);
+            }
+        }
+        releaseDrainedViewTypeBlocks();
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        // the ViewHolders recycled for a previous owner of a view type are discarded before the
+        // RecyclerView looks for the next ViewHolder of the current pass
+        if (evictedViewTypeCount != 0) {
+            discardEvictedRecycledViews();
+        }
+
+        PositionCursor cursor = resolvePositionOrThrowException(position);
+
+        // read the cursor before calling the section, as it might resolve other positions
+        Section section = cursor.section;
+        String tag = cursor.tag;
+        int positionInSection = cursor.positionInSection;
+        int sectionViewType = cursor.sectionViewType;
+
+        SectionMetricsListener listener = metricsListener;
+        Map<String, String[]> traceNames = traceSectionNames;
+        if (traceNames != null) {
+            beginTraceSection(getTraceSectionName(traceNames, tag, section, VIEW_TYPE_QTY + sectionViewType));
+        }
+        long startTime = listener != null ? System.nanoTime() : 0;
+
+        try {
+            switch (sectionViewType) {
+                case VIEW_TYPE_HEADER:
+                    // delegate the binding to the section header
+                    section.onBindHeaderViewHolder(holder);
+                    break;
+                case VIEW_TYPE_FOOTER:
+                    // delegate the binding to the section footer
+                    section.onBindFooterViewHolder(holder);
+                    break;
+                default:
+                    // delegate the binding to the section content
+                    section.onBindContentViewHolder(holder, positionInSection);
+                    break;
+            }
+        } finally {
+            if (traceNames != null) {
+                endTraceSection();
+            }
+        }
+
+        if (listener != null) {
+            listener.onViewHolderBound(tag, section, sectionViewType, System.nanoTime() - startTime);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        PositionCursor cursor = resolvePositionOrThrowException(position);
+
+        // read the cursor before calling the section, as it might resolve other positions
+        Section section = cursor.section;
+        String tag = cursor.tag;
+        int positionInSection = cursor.positionInSection;
+        int sectionViewType = cursor.sectionViewType;
+
+        SectionMetricsListener listener = metricsListener;
+        Map<String, String[]> traceNames = traceSectionNames;
+        if (traceNames != null) {
+            beginTraceSection(getTraceSectionName(traceNames, tag, section, VIEW_TYPE_QTY + sectionViewType));
+        }
+        long startTime = listener != null ? System.nanoTime() : 0;
+
+        try {
+            switch (sectionViewType) {
+                case VIEW_TYPE_HEADER:
+                    section.onBindHeaderViewHolder(holder, payloads);
+                    break;
+                case VIEW_TYPE_FOOTER:
+                    section.onBindFooterViewHolder(holder, payloads);
+                    break;
+                default:
+                    section.onBindContentViewHolder(holder, positionInSection, payloads);
+                    break;
+            }
+        } finally {
+            if (traceNames != null) {
+                endTraceSection();
+            }
+        }
+
+        if (listener != null) {
+            listener.onViewHolderBound(tag, section, sectionViewType, System.nanoTime() - startTime);
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        int itemCount = positionIndex.getItemCount();
+
+        // the sections in a batch are only invalidated when it ends
+        if (debugChecksEnabled && batchedUpdates == null) {
+            positionIndex.checkItemCounts();
+        }
+
+        return itemCount;
+    }
+
+    /**
+     * Enable checks, meant for debug builds, that the number of items of the sections doesn't
+     * change without notifying this adapter. The number of items of each section is cached and
+     * only asked again when the section is notified through this adapter, so a missing
+     * notification leads to a stale item count. When enabled, {@link #getItemCount} asks every
+     * section for its number of items and throws an {@link IllegalStateException} if it is
+     * different from the cached one.
+     *
+     * @param enabled true to enable the checks, for example {@code BuildConfig.DEBUG}
+     */
+    public void setDebugChecksEnabled(boolean enabled) {
+        debugChecksEnabled = enabled;
+    }
+
+    /**
+     * Set a listener of the time spent by the sections to create and bind their ViewHolders, for
+     * example a {@link SectionMetricsAggregator}. Nothing is measured while there's no listener.
+     *
+     * @param listener listener of the timings, or null to stop measuring them
+     */
+    public void setMetricsListener(@Nullable SectionMetricsListener listener) {
+        this.metricsListener = listener;
+    }
+
+    /**
+     * Enable system trace sections around the creation and binding of the ViewHolders, named
+     * after the tag of the section, or its class if the tag was generated, and the kind of row,
+     * for example {@code SectionBind:news:item}. They show in Systrace and Perfetto captures which
+     * section is slow to create or bind its ViewHolders, under the RecyclerView ones. Nothing is
+     * traced while disabled, and the trace sections are no-ops while no trace is captured.
+     *
+     * @param enabled true to trace the sections, for example in profileable builds
+     */
+    public void setTraceSectionsEnabled(boolean enabled) {
+        if (!enabled) {
+            traceSectionNames = null;
+        } else if (traceSectionNames == null) {
+            traceSectionNames = new HashMap<>();
+        }
+    }
+
+    /**
+     * Return the name of the trace section of a section and a kind of row, built once per tag.
+     *
+     * @param traceIndex kind of row, plus VIEW_TYPE_QTY for the binding
+     */
+    private String getTraceSectionName(Map<String, String[]> traceNames, String tag, Section section, int traceIndex) {
+        String[] names = traceNames.get(tag);
+
+        if (names == null) {
+            String sectionName = tag;
+            if (generatedTags.contains(tag)) {
+                // anonymous classes have no simple name
+                Class<?> sectionClass = section.getClass();
+                sectionName = sectionClass.isAnonymousClass() ? sectionClass.getName() : sectionClass.getSimpleName();
+            }
+
+            names = new String[VIEW_TYPE_QTY * 2];
+            for (int i = 0; i < VIEW_TYPE_QTY; i++) {
+                names[i] = getTraceSectionName("SectionCreate:", sectionName, ROW_KIND_NAMES[i]);
+                names[VIEW_TYPE_QTY + i] = getTraceSectionName("SectionBind:", sectionName, ROW_KIND_NAMES[i]);
+            }
+            traceNames.put(tag, names);
+        }
+
+        return names[traceIndex];
+    }
+
+    private void removeTraceSectionNames(String tag) {
+        if (traceSectionNames != null) {
+            traceSectionNames.remove(tag);
+        }
+    }
+
+    private static String getTraceSectionName(String prefix, String sectionName, String rowKind) {
+        String name = prefix + sectionName + ":" + rowKind;
+
+        // longer names make the trace section fail
+        return name.length() > MAX_TRACE_SECTION_NAME_LENGTH ? name.substring(0, MAX_TRACE_SECTION_NAME_LENGTH) : name;
+    }
+
+    /**
+     * Return the stable ID of the item at the given position, made of the ID of its section in
+     * this adapter, the kind of row and, for the items, the ID returned by
+     * {@link Section#getItemId(int)}. A section replaced with {@link #addSection(String, Section)}
+     * keeps the ID of the previous section with the same tag. The ID of a removed section is given
+     * to a new section once a notification is dispatched after the removal.
+     *
+     * @param position position in the adapter
+     * @return stable ID of the item
+     */
+    @Override
+    public long getItemId(int position) {
+        PositionCursor cursor = resolvePositionOrThrowException(position);
+
+        // read the cursor before calling the section, as it might resolve other positions
+        long sectionId = cursor.sectionId;
+        int sectionViewType = cursor.sectionViewType;
+
+        long itemId = 0;
+        if (sectionViewType == VIEW_TYPE_ITEM_LOADED) {
+            itemId = cursor.section.getItemId(cursor.positionInSection);
+
+            if (itemId < 0 || itemId > MAX_SECTION_ITEM_ID) {
+                throw new IllegalStateException("Section.getItemId() returned an invalid id: " + itemId);
+            }
+        }
+
+        return sectionId << (ROW_KIND_BITS + ITEM_ID_BITS) | (long) sectionViewType << ITEM_ID_BITS | itemId;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        /*
+         Each Section has 6 "viewtypes":
+         1) header
+         2) footer
+         3) items
+         4) loading
+         5) load failed
+         6) empty
+         */
+        return resolvePositionOrThrowException(position).viewType;
+    }
+
+    /**
+     * Converts global item view type, to local Section ViewType.
+     *
+     * @param itemViewType global item view type
+     * @return one of the view types:
+     * <ul>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER</li>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_FOOTER</li>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED</li>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_LOADING</li>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_FAILED</li>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_EMPTY</li>
+     * </ul>
+     */
+    public int getSectionItemViewTypeForAdapterViewType(int itemViewType) {
+        return itemViewType % VIEW_TYPE_QTY;
+    }
+
+    /**
+     * Returns the Section ViewType of an item based on the position in the adapter.
+     *
+     * @param position position in the adapter
+     * @return one of the view types:
+     * <ul>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER</li>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_FOOTER</li>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED</li>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_LOADING</li>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_FAILED</li>
+     * <li>SectionedRecyclerViewAdapter.VIEW_TYPE_EMPTY</li>
+     * </ul>
+     */
+    public int getSectionItemViewType(int position) {
+        return resolvePositionOrThrowException(position).sectionViewType;
+    }
+
+    /**
+     * Returns the Section object for a position in the adapter.
+     *
+     * @param position position in the adapter
+     * @return Section object for that position
+     */
+    public Section getSectionForPosition(int position) {
+        return resolvePositionOrThrowException(position).section;
+    }
+
+    /**
+     * @deprecated Use {@link #getPositionInSection} instead.
+     */
+    @Deprecated
+    public int getSectionPosition(int position) {
+        return getPositionInSection(position);
+    }
+
+    /**
+     * Return the item position relative to the section.
+     *
+     * @param position position of the item in the adapter
+     * @return position of the item in the section
+     */
+    public int getPositionInSection(int position) {
+        return resolvePositionOrThrowException(position).positionInSection;
+    }
+
+    /**
+     * Return the section position in the adapter.
+     *
+     * @param tag unique identifier of the section
+     * @return position of the section in the adapter
+     */
+    public int getSectionPosition(String tag) {
+        Section section = getValidSectionOrThrowException(tag);
+
+        return getSectionPosition(section);
+    }
+
+    /**
+     * Return the section position in the adapter.
+     *
+     * @param section a visible section of this adapter
+     * @return position of the section in the adapter
+     */
+    public int getSectionPosition(Section section) {
+        int sectionIndex = positionIndex.indexOf(section);
+
+        // ignore invisible sections
+        if (sectionIndex == -1 || !section.isVisible()) {
+            throw new IllegalArgumentException("Invalid section");
+        }
+
+        return positionIndex.getSectionStart(sectionIndex);
+    }
+
+    /**
+     * Return a copy of the map with all sections of this adapter.
+     *
+     * @return a copy of the map with all sections, in the order of the adapter
+     */
+    @NonNull
+    public Map<String, Section> getCopyOfSectionsMap() {
+        Map<String, Section> copy = new LinkedHashMap<>();
+        for (int i = 0; i < positionIndex.size(); i++) {
+            copy.put(positionIndex.getTag(i), positionIndex.getSection(i));
+        }
+
+        return copy;
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, and returns the position in
+     * the adapter.
+     *
+     * @param tag      unique identifier of the section
+     * @param position position of the item in the section
+     * @return position of the item in the adapter
+     */
+    public int getPositionInAdapter(String tag, int position) {
+        Section section = getValidSectionOrThrowException(tag);
+
+        return getPositionInAdapter(section, position);
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, and returns the position in
+     * the adapter.
+     *
+     * @param section  a visible section of this adapter
+     * @param position position of the item in the section
+     * @return position of the item in the adapter
+     */
+    public int getPositionInAdapter(Section section, int position) {
+        return getSectionPosition(section) + (section.hasHeader() ? 1 : 0) + position;
+    }
+
+    /**
+     * Helper method that returns the position of header in the adapter.
+     *
+     * @param tag unique identifier of the section
+     * @return position of the header in the adapter
+     */
+    public int getHeaderPositionInAdapter(String tag) {
+        Section section = getValidSectionOrThrowException(tag);
+
+        return getHeaderPositionInAdapter(section);
+    }
+
+    /**
+     * Helper method that returns the position of header in the adapter.
+     *
+     * @param section a visible section of this adapter
+     * @return position of the header in the adapter
+     */
+    public int getHeaderPositionInAdapter(Section section) {
+        if (!section.hasHeader()) {
+            throw new IllegalStateException("Section doesn't have a header");
+        }
+
+        return getSectionPosition(section);
+    }
+
+    /**
+     * Helper method that returns the position of footer in the adapter.
+     *
+     * @param tag unique identifier of the section
+     * @return position of the footer in the adapter
+     */
+    public int getFooterPositionInAdapter(String tag) {
+        Section section = getValidSectionOrThrowException(tag);
+
+        return getFooterPositionInAdapter(section);
+    }
+
+    /**
+     * Helper method that returns the position of header in the adapter.
+     *
+     * @param section a visible section of this adapter
+     * @return position of the footer in the adapter
+     */
+    public int getFooterPositionInAdapter(Section section) {
+        if (!section.hasFooter()) {
+            throw new IllegalStateException("Section doesn't have a footer");
+        }
+
+        return getSectionPosition(section) + section.getSectionItemsTotal() - 1;
+    }
+
+    /**
+     * Start a batch of notifications. Until the matching call to {@link #endBatch}, the notify
+     * methods of this adapter that receive a section or a tag record the updates relative to the
+     * section instead of notifying the RecyclerView. Consecutive updates on adjacent or
+     * overlapping rows of the same section are merged, and the positions in the adapter are
+     * calculated once when the batch ends.
+     *
+     * <p>Batches can be nested, only the outermost one dispatches the updates. If a section is
+     * removed or replaced, or the RecyclerView is notified directly, while a batch is in progress,
+     * {@link #notifyDataSetChanged} is called instead when the batch ends.
+     */
+    public void beginBatch() {
+        if (batchDepth++ == 0) {
+            batchedUpdates = new IdentityHashMap<>();
+            batchInvalidated = false;
+        }
+    }
+
+    /**
+     * End a batch of notifications started with {@link #beginBatch} and, if it is the outermost
+     * one, dispatch the updates recorded to the RecyclerView.
+     */
+    public void endBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("No batch in progress");
+        }
+
+        if (--batchDepth > 0) {
+            return;
+        }
+
+        Map<Section, SectionBatchUpdates> updates = batchedUpdates;
+        batchedUpdates = null;
+
+        // a batch with only sections added or moved has no updates, but must be dispatched too
+        if (batchInvalidated) {
+            // the sections notified during the batch still have their old number of items
+            positionIndex.invalidateAll();
+            callSuperNotifyDataSetChanged();
+        } else if (!updates.isEmpty()) {
+            dispatchBatchedUpdates(updates);
+        }
+    }
+
+    private void dispatchBatchedUpdates(Map<Section, SectionBatchUpdates> updates) {
+        SectionBatchUpdates[] sectionUpdates = new SectionBatchUpdates[updates.size()];
+        int[] offsets = new int[updates.size()];
+        int count = 0;
+        int itemCountDelta = 0;
+
+        for (int i = 0; i < positionIndex.size() && count < sectionUpdates.length; i++) {
+            SectionBatchUpdates batchUpdates = updates.get(positionIndex.getSection(i));
+
+            if (batchUpdates != null) {
+                positionIndex.invalidate(i);
+
+                // the updates are dispatched from the last section to the first, so the sections
+                // before this one still have the item count they had before the batch
+                offsets[count] = positionIndex.getSectionStart(i) - itemCountDelta;
+                sectionUpdates[count] = batchUpdates;
+                itemCountDelta += batchUpdates.getItemCountDelta();
+                count++;
+            }
+        }
+
+        for (int i = count - 1; i >= 0; i--) {
+            sectionUpdates[i].dispatchTo(new SectionListUpdateCallback(this, offsets[i]));
+        }
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemInserted}.
+     *
+     * @param tag      unique identifier of the section
+     * @param position position of the item in the section
+     */
+    public void notifyItemInsertedInSection(String tag, int position) {
+        notifyItemInsertedInSection(getValidSectionOrThrowException(tag), position);
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemInserted}.
+     *
+     * @param section  a visible section of this adapter
+     * @param position position of the item in the section
+     */
+    public void notifyItemInsertedInSection(Section section, int position) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onInserted(getContentRow(section, position), 1);
+            return;
+        }
+
+        onSectionItemsTotalChanged(section);
+        callSuperNotifyItemInserted(getPositionInAdapter(section, position));
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemRangeInserted}.
+     *
+     * @param tag      unique identifier of the section
+     */
+    public void notifyAllItemsInsertedInSection(String tag) {
+        notifyAllItemsInsertedInSection(getValidSectionOrThrowException(tag));
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemRangeInserted}.
+     *
+     * @param section       a visible section of this adapter
+     */
+    public void notifyAllItemsInsertedInSection(Section section) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onInserted(getContentRow(section, 0), section.getContentItemsTotal());
+            return;
+        }
+
+        onSectionItemsTotalChanged(section);
+        callSuperNotifyItemRangeInserted(getPositionInAdapter(section, 0), section.getContentItemsTotal());
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemRangeInserted}.
+     *
+     * @param tag           unique identifier of the section
+     * @param positionStart position of the first item that was inserted in the section
+     * @param itemCount     number of items inserted in the section
+     */
+    public void notifyItemRangeInsertedInSection(String tag, int positionStart, int itemCount) {
+        notifyItemRangeInsertedInSection(getValidSectionOrThrowException(tag), positionStart, itemCount);
+    }
 
     /**
      * Helper method that receives position in relation to the section, calculates the relative
      * position in the adapter and calls {@link #notifyItemRangeInserted}.
      *
      * @param section       a visible section of this adapter
+     * @param positionStart position of the first item that was inserted in the section
+     * @param itemCount     number of items inserted in the section
+     */
+    public void notifyItemRangeInsertedInSection(Section section, int positionStart, int itemCount) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onInserted(getContentRow(section, positionStart), itemCount);
+            return;
+        }
+
+        onSectionItemsTotalChanged(section);
+        callSuperNotifyItemRangeInserted(getPositionInAdapter(section, positionStart), itemCount);
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemRemoved}.
+     *
+     * @param tag      unique identifier of the section
+     * @param position position of the item in the section
+     */
+    public void notifyItemRemovedFromSection(String tag, int position) {
+        notifyItemRemovedFromSection(getValidSectionOrThrowException(tag), position);
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemRemoved}.
+     *
+     * @param section  a visible section of this adapter
+     * @param position position of the item in the section
+     */
+    public void notifyItemRemovedFromSection(Section section, int position) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onRemoved(getContentRow(section, position), 1);
+            return;
+        }
+
+        onSectionItemsTotalChanged(section);
+        callSuperNotifyItemRemoved(getPositionInAdapter(section, position));
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemRangeRemoved}.
+     *
+     * @param tag           unique identifier of the section
+     * @param positionStart previous position of the first item that was removed from the section
+     * @param itemCount     number of items removed from the section
+     */
+    public void notifyItemRangeRemovedFromSection(String tag, int positionStart, int itemCount) {
+        notifyItemRangeRemovedFromSection(getValidSectionOrThrowException(tag), positionStart, itemCount);
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemRangeRemoved}.
+     *
+     * @param section       a visible section of this adapter
+     * @param positionStart previous position of the first item that was removed from the section
+     * @param itemCount     number of items removed from the section
+     */
+    public void notifyItemRangeRemovedFromSection(Section section, int positionStart, int itemCount) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onRemoved(getContentRow(section, positionStart), itemCount);
+            return;
+        }
+
+        onSectionItemsTotalChanged(section);
+        callSuperNotifyItemRangeRemoved(getPositionInAdapter(section, positionStart), itemCount);
+    }
+
+    /**
+     * Helper method that calculates the relative header position in the adapter and calls
+     * {@link #notifyItemChanged}.
+     *
+     * @param tag unique identifier of the section
+     */
+    public void notifyHeaderChangedInSection(String tag) {
+        notifyHeaderChangedInSection(getValidSectionOrThrowException(tag));
+    }
+
+    /**
+     * Helper method that calculates the relative header position in the adapter and calls
+     * {@link #notifyItemChanged}.
+     *
+     * @param section a visible section of this adapter
+     */
+    public void notifyHeaderChangedInSection(Section section) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onChanged(getHeaderRow(section), 1, null);
+            return;
+        }
+
+        callSuperNotifyItemChanged(getHeaderPositionInAdapter(section));
+    }
+
+    /**
+     * Helper method that calculates the relative header position in the adapter and calls
+     * {@link #notifyItemChanged} with a payload.
+     *
+     * @param tag     unique identifier of the section
+     * @param payload optional parameter, use null to identify a "full" update
+     */
+    public void notifyHeaderChangedInSection(String tag, Object payload) {
+        notifyHeaderChangedInSection(getValidSectionOrThrowException(tag), payload);
+    }
+
+    /**
+     * Helper method that calculates the relative header position in the adapter and calls
+     * {@link #notifyItemChanged} with a payload.
+     *
+     * @param section a visible section of this adapter
+     * @param payload optional parameter, use null to identify a "full" update
+     */
+    public void notifyHeaderChangedInSection(Section section, Object payload) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onChanged(getHeaderRow(section), 1, payload);
+            return;
+        }
+
+        callSuperNotifyItemChanged(getHeaderPositionInAdapter(section), payload);
+    }
+
+    /**
+     * Helper method that calculates the relative footer position in the adapter and calls
+     * {@link #notifyItemChanged}.
+     *
+     * @param tag unique identifier of the section
+     */
+    public void notifyFooterChangedInSection(String tag) {
+        notifyFooterChangedInSection(getValidSectionOrThrowException(tag));
+    }
+
+    /**
+     * Helper method that calculates the relative footer position in the adapter and calls
+     * {@link #notifyItemChanged}.
+     *
+     * @param section a visible section of this adapter
+     */
+    public void notifyFooterChangedInSection(Section section) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onChanged(getFooterRow(section), 1, null);
+            return;
+        }
+
+        callSuperNotifyItemChanged(getFooterPositionInAdapter(section));
+    }
+
+    /**
+     * Helper method that calculates the relative footer position in the adapter and calls
+     * {@link #notifyItemChanged} with a payload.
+     *
+     * @param tag     unique identifier of the section
+     * @param payload optional parameter, use null to identify a "full" update
+     */
+    public void notifyFooterChangedInSection(String tag, Object payload) {
+        notifyFooterChangedInSection(getValidSectionOrThrowException(tag), payload);
+    }
+
+    /**
+     * Helper method that calculates the relative footer position in the adapter and calls
+     * {@link #notifyItemChanged} with a payload.
+     *
+     * @param section a visible section of this adapter
+     * @param payload optional parameter, use null to identify a "full" update
+     */
+    public void notifyFooterChangedInSection(Section section, Object payload) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onChanged(getFooterRow(section), 1, payload);
+            return;
+        }
+
+        callSuperNotifyItemChanged(getFooterPositionInAdapter(section), payload);
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemChanged}.
+     *
+     * @param tag      unique identifier of the section
+     * @param position position of the item in the section
+     */
+    public void notifyItemChangedInSection(String tag, int position) {
+        notifyItemChangedInSection(getValidSectionOrThrowException(tag), position);
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemChanged}.
+     *
+     * @param section  a visible section of this adapter
+     * @param position position of the item in the section
+     */
+    public void notifyItemChangedInSection(Section section, int position) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onChanged(getContentRow(section, position), 1, null);
+            return;
+        }
+
+        callSuperNotifyItemChanged(getPositionInAdapter(section, position));
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemChanged} with a payload.
+     *
+     * @param tag      unique identifier of the section
+     * @param position position of the item in the section
+     * @param payload  optional parameter, use null to identify a "full" update
+     */
+    public void notifyItemChangedInSection(String tag, int position, Object payload) {
+        notifyItemChangedInSection(getValidSectionOrThrowException(tag), position, payload);
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemChanged} with a payload.
+     *
+     * @param section  a visible section of this adapter
+     * @param position position of the item in the section
+     * @param payload  optional parameter, use null to identify a "full" update
+     */
+    public void notifyItemChangedInSection(Section section, int position, Object payload) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onChanged(getContentRow(section, position), 1, payload);
+            return;
+        }
+
+        callSuperNotifyItemChanged(getPositionInAdapter(section, position), payload);
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemRangeChanged}.
+     *
+     * @param tag           unique identifier of the section
+     */
+    public void notifyAllItemsChangedInSection(String tag) {
+        notifyAllItemsChangedInSection(getValidSectionOrThrowException(tag));
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemRangeChanged}.
+     *
+     * @param section       a visible section of this adapter
+     */
+    public void notifyAllItemsChangedInSection(Section section) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onChanged(getContentRow(section, 0), section.getContentItemsTotal(), null);
+            return;
+        }
+
+        callSuperNotifyItemRangeChanged(getPositionInAdapter(section, 0), section.getContentItemsTotal());
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemRangeChanged}.
+     *
+     * @param tag           unique identifier of the section
+     * @param positionStart position of the first item that was changed in the section
+     * @param itemCount     number of items changed in the section
+     */
+    public void notifyItemRangeChangedInSection(String tag, int positionStart, int itemCount) {
+        notifyItemRangeChangedInSection(getValidSectionOrThrowException(tag), positionStart, itemCount);
+    }
+
+    /**
+     * Helper method that receives position in relation to the section, calculates the relative
+     * position in the adapter and calls {@link #notifyItemRangeChanged}.
+     *
+     * @param section       a visible section of this adapter
+     * @param positionStart position of the first item that was changed in the section
+     * @param itemCount     number of items changed in the section
      */
-    public void notifyAllItemsInsertedInSection(Section section) {
-        callSuperNotifyItemRangeInserted(getPositionInAdapter(section, 0), section.getContentItemsTotal());
+    public void notifyItemRangeChangedInSection(Section section, int positionStart, int itemCount) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onChanged(getContentRow(section, positionStart), itemCount, null);
+            return;
+        }
+
+        callSuperNotifyItemRangeChanged(getPositionInAdapter(section, positionStart), itemCount);
     }
 
     /**
      * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRangeInserted}.
+     * position in the adapter and calls {@link #notifyItemRangeChanged}.
      *
      * @param tag           unique identifier of the section
      * @param positionStart position of the first item that was inserted in the section
      * @param itemCount     number of items inserted in the section
+     * @param payload       optional parameter, use null to identify a "full" update
      */
-    public void notifyItemRangeInsertedInSection(String tag, int positionStart, int itemCount) {
-        callSuperNotifyItemRangeInserted(getPositionInAdapter(tag, positionStart), itemCount);
+    public void notifyItemRangeChangedInSection(String tag, int positionStart, int itemCount,
+                                                Object payload) {
+        notifyItemRangeChangedInSection(getValidSectionOrThrowException(tag), positionStart, itemCount, payload);
     }
 
     /**
      * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRangeInserted}.
+     * position in the adapter and calls {@link #notifyItemRangeChanged}.
      *
      * @param section       a visible section of this adapter
      * @param positionStart position of the first item that was inserted in the section
      * @param itemCount     number of items inserted in the section
+     * @param payload       optional parameter, use null to identify a "full" update
      */
-    public void notifyItemRangeInsertedInSection(Section section, int positionStart, int itemCount) {
-        callSuperNotifyItemRangeInserted(getPositionInAdapter(section, positionStart), itemCount);
+    public void notifyItemRangeChangedInSection(Section section, int positionStart, int itemCount,
+                                                Object payload) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onChanged(getContentRow(section, positionStart), itemCount, payload);
+            return;
+        }
+
+        callSuperNotifyItemRangeChanged(getPositionInAdapter(section, positionStart), itemCount, payload);
     }
 
     /**
      * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRemoved}.
+     * position in the adapter and calls {@link #notifyItemMoved}.
      *
-     * @param tag      unique identifier of the section
-     * @param position position of the item in the section
+     * @param tag          unique identifier of the section
+     * @param fromPosition previous position of the item in the section
+     * @param toPosition   new position of the item in the section
      */
-    public void notifyItemRemovedFromSection(String tag, int position) {
-        callSuperNotifyItemRemoved(getPositionInAdapter(tag, position));
+    public void notifyItemMovedInSection(String tag, int fromPosition, int toPosition) {
+        notifyItemMovedInSection(getValidSectionOrThrowException(tag), fromPosition, toPosition);
     }
 
     /**
      * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRemoved}.
+     * position in the adapter and calls {@link #notifyItemMoved}.
      *
-     * @param section  a visible section of this adapter
-     * @param position position of the item in the section
+     * @param section      a visible section of this adapter
+     * @param fromPosition previous position of the item in the section
+     * @param toPosition   new position of the item in the section
      */
-    public void notifyItemRemovedFromSection(Section section, int position) {
-        callSuperNotifyItemRemoved(getPositionInAdapter(section, position));
+    public void notifyItemMovedInSection(Section section, int fromPosition, int toPosition) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onMoved(getContentRow(section, fromPosition), getContentRow(section, toPosition));
+            return;
+        }
+
+        callSuperNotifyItemMoved(getPositionInAdapter(section, fromPosition), getPositionInAdapter(section, toPosition));
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRangeRemoved}.
+     * Helper method that calls {@link #notifyItemChanged} with the position of the {@link State}
+     * view holder in the adapter. Useful to be called after changing the State from
+     * LOADING/FAILED/EMPTY to LOADING/FAILED/EMPTY.
      *
      * @param tag           unique identifier of the section
-     * @param positionStart previous position of the first item that was removed from the section
-     * @param itemCount     number of items removed from the section
+     * @param previousState previous state of section
      */
-    public void notifyItemRangeRemovedFromSection(String tag, int positionStart, int itemCount) {
-        callSuperNotifyItemRangeRemoved(getPositionInAdapter(tag, positionStart), itemCount);
+    public void notifyNotLoadedStateChanged(String tag, State previousState) {
+        Section section = getValidSectionOrThrowException(tag);
+
+        notifyNotLoadedStateChanged(section, previousState);
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRangeRemoved}.
+     * Helper method that calls {@link #notifyItemChanged} with the position of the {@link State}
+     * view holder in the adapter. Useful to be called after changing the State from
+     * LOADING/ FAILED/ EMPTY to LOADING/ FAILED/ EMPTY.
      *
      * @param section       a visible section of this adapter
-     * @param positionStart previous position of the first item that was removed from the section
-     * @param itemCount     number of items removed from the section
+     * @param previousState previous state of section
      */
-    public void notifyItemRangeRemovedFromSection(Section section, int positionStart, int itemCount) {
-        callSuperNotifyItemRangeRemoved(getPositionInAdapter(section, positionStart), itemCount);
-    }
+    public void notifyNotLoadedStateChanged(Section section, State previousState) {
+        State state = section.getState();
 
-    /**
-     * Helper method that calculates the relative header position in the adapter and calls
-     * {@link #notifyItemChanged}.
-     *
-     * @param tag unique identifier of the section
-     */
-    public void notifyHeaderChangedInSection(String tag) {
-        notifyHeaderChangedInSection(getValidSectionOrThrowException(tag));
-    }
+        if (state == previousState) {
+            throw new IllegalStateException("No state changed");
+        }
 
-    /**
-     * Helper method that calculates the relative header position in the adapter and calls
-     * {@link #notifyItemChanged}.
-     *
-     * @param section a visible section of this adapter
-     */
-    public void notifyHeaderChangedInSection(Section section) {
-        callSuperNotifyItemChanged(getHeaderPositionInAdapter(section));
+        if (previousState == State.LOADED) {
+            throw new IllegalStateException("Use notifyStateChangedFromLoaded");
+        }
+
+        if (state == State.LOADED) {
+            throw new IllegalStateException("Use notifyStateChangedToLoaded");
+        }
+
+        notifyItemChangedInSection(section, 0);
     }
 
     /**
-     * Helper method that calculates the relative footer position in the adapter and calls
-     * {@link #notifyItemChanged}.
+     * Helper method that calls {@link #notifyItemChanged} and {@link #notifyItemInserted} with
+     * the position of the {@link State} view holder in the adapter. Useful to be called after
+     * changing the State from LOADING/ FAILED/ EMPTY to LOADED.
      *
-     * @param tag unique identifier of the section
+     * @param tag           unique identifier of the section
+     * @param previousState previous state of section
      */
-    public void notifyFooterChangedInSection(String tag) {
-        notifyFooterChangedInSection(getValidSectionOrThrowException(tag));
+    public void notifyStateChangedToLoaded(String tag, State previousState) {
+        Section section = getValidSectionOrThrowException(tag);
+
+        notifyStateChangedToLoaded(section, previousState);
     }
 
     /**
-     * Helper method that calculates the relative footer position in the adapter and calls
-     * {@link #notifyItemChanged}.
+     * Helper method that calls {@link #notifyItemChanged} and {@link #notifyItemInserted} with
+     * the position of the {@link State} view holder in the adapter. Useful to be called after
+     * changing the State from LOADING/ FAILED/ EMPTY to LOADED.
      *
-     * @param section a visible section of this adapter
+     * @param section       a visible section of this adapter
+     * @param previousState previous state of section
      */
-    public void notifyFooterChangedInSection(Section section) {
-        callSuperNotifyItemChanged(getFooterPositionInAdapter(section));
+    public void notifyStateChangedToLoaded(Section section, State previousState) {
+        State state = section.getState();
+
+        if (state == previousState) {
+            throw new IllegalStateException("No state changed");
+        }
+
+        if (state != State.LOADED) {
+            if (previousState == State.LOADED) {
+                throw new IllegalStateException("Use notifyStateChangedFromLoaded");
+            } else {
+                throw new IllegalStateException("Use notifyNotLoadedStateChanged");
+            }
+        }
+
+        int contentItemsTotal = section.getContentItemsTotal();
+
+        if (contentItemsTotal == 0) {
+            notifyItemRemovedFromSection(section, 0);
+        } else {
+            notifyItemChangedInSection(section, 0);
+
+            if (contentItemsTotal > 1) {
+                notifyItemRangeInsertedInSection(section, 1, contentItemsTotal - 1);
+            }
+        }
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemChanged}.
+     * Helper method that calls {@link #notifyItemRangeRemoved} and {@link #notifyItemChanged} with
+     * the position of the {@link State} view holder in the adapter. Useful to be called after
+     * changing the State from LOADED to LOADING/ FAILED/ EMPTY.
      *
-     * @param tag      unique identifier of the section
-     * @param position position of the item in the section
+     * @param tag                       unique identifier of the section
+     * @param previousContentItemsCount previous content items count of section
      */
-    public void notifyItemChangedInSection(String tag, int position) {
-        callSuperNotifyItemChanged(getPositionInAdapter(tag, position));
+    public void notifyStateChangedFromLoaded(String tag, int previousContentItemsCount) {
+        Section section = getValidSectionOrThrowException(tag);
+
+        notifyStateChangedFromLoaded(section, previousContentItemsCount);
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemChanged}.
+     * Helper method that calls {@link #notifyItemRangeRemoved} and {@link #notifyItemChanged} with
+     * the position of the {@link State} view holder in the adapter. Useful to be called after
+     * changing the State from LOADED to LOADING/ FAILED/ EMPTY.
      *
-     * @param section  a visible section of this adapter
-     * @param position position of the item in the section
+     * @param section                   a visible section of this adapter
+     * @param previousContentItemsCount previous content items count of section
      */
-    public void notifyItemChangedInSection(Section section, int position) {
-        callSuperNotifyItemChanged(getPositionInAdapter(section, position));
+    public void notifyStateChangedFromLoaded(Section section, int previousContentItemsCount) {
+        State state = section.getState();
+
+        if (state == State.LOADED) {
+            throw new IllegalStateException("Use notifyStateChangedToLoaded");
+        }
+
+        if (previousContentItemsCount == 0) {
+            notifyItemInsertedInSection(section, 0);
+        } else {
+            if (previousContentItemsCount > 1) {
+                notifyItemRangeRemovedFromSection(section, 1, previousContentItemsCount - 1);
+            }
+
+            notifyItemChangedInSection(section, 0);
+        }
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRangeChanged}.
+     * Helper method that calls {@link #notifyItemInserted} with the position of the section's
+     * header in the adapter. Useful to be called after changing the visibility of the section's
+     * header to visible with {@link Section#setHasHeader}.
      *
-     * @param tag           unique identifier of the section
+     * @param tag unique identifier of the section
      */
-    public void notifyAllItemsChangedInSection(String tag) {
-        notifyAllItemsChangedInSection(getValidSectionOrThrowException(tag));
+    public void notifyHeaderInsertedInSection(String tag) {
+        Section section = getValidSectionOrThrowException(tag);
+
+        notifyHeaderInsertedInSection(section);
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRangeChanged}.
+     * Helper method that calls {@link #notifyItemInserted} with the position of the section's
+     * header in the adapter. Useful to be called after changing the visibility of the section's
+     * header to visible with {@link Section#setHasHeader}.
      *
-     * @param section       a visible section of this adapter
+     * @param section a visible section of this adapter
      */
-    public void notifyAllItemsChangedInSection(Section section) {
-        callSuperNotifyItemRangeChanged(getPositionInAdapter(section, 0), section.getContentItemsTotal());
+    public void notifyHeaderInsertedInSection(Section section) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onInserted(getHeaderRow(section), 1);
+            return;
+        }
+
+        int headerPosition = getHeaderPositionInAdapter(section);
+
+        callSuperNotifyItemInserted(headerPosition);
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRangeChanged}.
+     * Helper method that calls {@link #notifyItemInserted} with the position of the section's
+     * footer in the adapter. Useful to be called after changing the visibility of the section's
+     * footer to visible with {@link Section#setHasFooter}.
      *
-     * @param tag           unique identifier of the section
-     * @param positionStart position of the first item that was changed in the section
-     * @param itemCount     number of items changed in the section
+     * @param tag unique identifier of the section
      */
-    public void notifyItemRangeChangedInSection(String tag, int positionStart, int itemCount) {
-        callSuperNotifyItemRangeChanged(getPositionInAdapter(tag, positionStart), itemCount);
+    public void notifyFooterInsertedInSection(String tag) {
+        Section section = getValidSectionOrThrowException(tag);
+
+        notifyFooterInsertedInSection(section);
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRangeChanged}.
+     * Helper method that calls {@link #notifyItemInserted} with the position of the section's
+     * footer in the adapter. Useful to be called after changing the visibility of the section's
+     * footer to visible with {@link Section#setHasFooter}.
      *
-     * @param section       a visible section of this adapter
-     * @param positionStart position of the first item that was changed in the section
-     * @param itemCount     number of items changed in the section
+     * @param section a visible section of this adapter
      */
-    public void notifyItemRangeChangedInSection(Section section, int positionStart, int itemCount) {
-        callSuperNotifyItemRangeChanged(getPositionInAdapter(section, positionStart), itemCount);
+    public void notifyFooterInsertedInSection(Section section) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onInserted(getFooterRow(section), 1);
+            return;
+        }
+
+        int footerPosition = getFooterPositionInAdapter(section);
+
+        callSuperNotifyItemInserted(footerPosition);
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRangeChanged}.
+     * Helper method that calls {@link #notifyItemRemoved} with the position of the section's
+     * header in the adapter. Useful to be called after changing the visibility of the section's
+     * header to invisible with {@link Section#setHasHeader}.
      *
-     * @param tag           unique identifier of the section
-     * @param positionStart position of the first item that was inserted in the section
-     * @param itemCount     number of items inserted in the section
-     * @param payload       optional parameter, use null to identify a "full" update
+     * @param tag unique identifier of the section
      */
-    public void notifyItemRangeChangedInSection(String tag, int positionStart, int itemCount,
-                                                Object payload) {
-        callSuperNotifyItemRangeChanged(getPositionInAdapter(tag, positionStart), itemCount, payload);
+    public void notifyHeaderRemovedFromSection(String tag) {
+        Section section = getValidSectionOrThrowException(tag);
+
+        notifyHeaderRemovedFromSection(section);
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemRangeChanged}.
+     * Helper method that calls {@link #notifyItemRemoved} with the position of the section's
+     * header in the adapter. Useful to be called after changing the visibility of the section's
+     * header to invisible with {@link Section#setHasHeader}.
      *
-     * @param section       a visible section of this adapter
-     * @param positionStart position of the first item that was inserted in the section
-     * @param itemCount     number of items inserted in the section
-     * @param payload       optional parameter, use null to identify a "full" update
+     * @param section a visible section of this adapter
      */
-    public void notifyItemRangeChangedInSection(Section section, int positionStart, int itemCount,
-                                                Object payload) {
-        callSuperNotifyItemRangeChanged(getPositionInAdapter(section, positionStart), itemCount, payload);
+    public void notifyHeaderRemovedFromSection(Section section) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onRemoved(0, 1);
+            return;
+        }
+
+        int position = getSectionPosition(section);
+
+        callSuperNotifyItemRemoved(position);
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemMoved}.
+     * Helper method that calls {@link #notifyItemRemoved} with the position of the section's
+     * footer in the adapter. Useful to be called after changing the visibility of the section's
+     * footer to invisible with {@link Section#setHasFooter}.
      *
-     * @param tag          unique identifier of the section
-     * @param fromPosition previous position of the item in the section
-     * @param toPosition   new position of the item in the section
+     * @param tag unique identifier of the section
      */
-    public void notifyItemMovedInSection(String tag, int fromPosition, int toPosition) {
-        callSuperNotifyItemMoved(getPositionInAdapter(tag, fromPosition), getPositionInAdapter(tag, toPosition));
+    public void notifyFooterRemovedFromSection(String tag) {
+        Section section = getValidSectionOrThrowException(tag);
+
+        notifyFooterRemovedFromSection(section);
     }
 
     /**
-     * Helper method that receives position in relation to the section, calculates the relative
-     * position in the adapter and calls {@link #notifyItemMoved}.
+     * Helper method that calls {@link #notifyItemRemoved} with the position of the section's
+     * footer in the adapter. Useful to be called after changing the visibility of the section's
+     * footer to invisible with {@link Section#setHasFooter}.
      *
-     * @param section      a visible section of this adapter
-     * @param fromPosition previous position of the item in the section
-     * @param toPosition   new position of the item in the section
+     * @param section a visible section of this adapter
      */
-    public void notifyItemMovedInSection(Section section, int fromPosition, int toPosition) {
-        callSuperNotifyItemMoved(getPositionInAdapter(section, fromPosition), getPositionInAdapter(section, toPosition));
+    public void notifyFooterRemovedFromSection(Section section) {
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onRemoved(section.getSectionItemsTotal(), 1);
+            return;
+        }
+
+        int position = getSectionPosition(section) + section.getSectionItemsTotal();
+
+        callSuperNotifyItemRemoved(position);
     }
 
     /**
-     * Helper method that calls {@link #notifyItemChanged} with the position of the {@link State}
-     * view holder in the adapter. Useful to be called after changing the State from
-     * LOADING/FAILED/EMPTY to LOADING/FAILED/EMPTY.
+     * Helper method that calls {@link #notifyItemRangeInserted} with the position of the section
+     * in the adapter. Useful to be called after changing the visibility of the section to visible
+     * with {@link Section#setVisible}.
      *
-     * @param tag           unique identifier of the section
-     * @param previousState previous state of section
+     * @param tag unique identifier of the section
      */
-    public void notifyNotLoadedStateChanged(String tag, State previousState) {
+    public void notifySectionChangedToVisible(String tag) {
         Section section = getValidSectionOrThrowException(tag);
 
-        notifyNotLoadedStateChanged(section, previousState);
+        notifySectionChangedToVisible(section);
     }
 
     /**
-     * Helper method that calls {@link #notifyItemChanged} with the position of the {@link State}
-     * view holder in the adapter. Useful to be called after changing the State from
-     * LOADING/ FAILED/ EMPTY to LOADING/ FAILED/ EMPTY.
+     * Helper method that calls {@link #notifyItemRangeInserted} with the position of the section
+     * in the adapter. Useful to be called after changing the visibility of the section to visible
+     * with {@link Section#setVisible}.
      *
-     * @param section       a visible section of this adapter
-     * @param previousState previous state of section
+     * @param section a visible section of this adapter
      */
-    public void notifyNotLoadedStateChanged(Section section, State previousState) {
-        State state = section.getState();
-
-        if (state == previousState) {
-            throw new IllegalStateException("No state changed");
+    public void notifySectionChangedToVisible(Section section) {
+        if (!section.isVisible()) {
+            throw new IllegalStateException("This section is not visible.");
         }
 
-        if (previousState == State.LOADED) {
-            throw new IllegalStateException("Use notifyStateChangedFromLoaded");
+        if (batchedUpdates != null) {
+            getBatchUpdates(section).onInserted(0, section.getSectionItemsTotal());
+            return;
         }
 
-        if (state == State.LOADED) {
-            throw new IllegalStateException("Use notifyStateChangedToLoaded");
-        }
+        int sectionPosition = getSectionPosition(section);
 
-        notifyItemChangedInSection(section, 0);
+        int sectionItemsTotal = section.getSectionItemsTotal();
+
+        callSuperNotifyItemRangeInserted(sectionPosition, sectionItemsTotal);
     }
 
     /**
-     * Helper method that calls {@link #notifyItemChanged} and {@link #notifyItemInserted} with
-     * the position of the {@link State} view holder in the adapter. Useful to be called after
-     * changing the State from LOADING/ FAILED/ EMPTY to LOADED.
+     * Helper method that calls {@link #notifyItemRangeInserted} with the position of the section
+     * in the adapter. Useful to be called after changing the visibility of the section to invisible
+     * with {@link Section#setVisible}.
      *
-     * @param tag           unique identifier of the section
-     * @param previousState previous state of section
+     * @param tag                     unique identifier of the section
+     * @param previousSectionPosition previous section position
      */
-    public void notifyStateChangedToLoaded(String tag, State previousState) {
+    public void notifySectionChangedToInvisible(String tag, int previousSectionPosition) {
         Section section = getValidSectionOrThrowException(tag);
 
-        notifyStateChangedToLoaded(section, previousState);
+        notifySectionChangedToInvisible(section, previousSectionPosition);
     }
 
     /**
-     * Helper method that calls {@link #notifyItemChanged} and {@link #notifyItemInserted} with
-     * the position of the {@link State} view holder in the adapter. Useful to be called after
-     * changing the State from LOADING/ FAILED/ EMPTY to LOADED.
+     * Helper method that calls {@link #notifyItemRangeInserted} with the position of the section
+     * in the adapter. Useful to be called after changing the visibility of the section to invisible
+     * with {@link Section#setVisible}.
      *
-     * @param section       a visible section of this adapter
-     * @param previousState previous state of section
+     * @param section                 an invisible section of this adapter
+     * @param previousSectionPosition previous section position
      */
-    public void notifyStateChangedToLoaded(Section section, State previousState) {
-        State state = section.getState();
+    public void notifySectionChangedToInvisible(Section section, int previousSectionPosition) {
+        if (section.isVisible()) {
+            throw new IllegalStateException("This section is not invisible.");
+        }
 
-        if (state == previousState) {
-            throw new IllegalStateException("No state changed");
+        if (batchedUpdates != null) {
+            getBatchUpdates(section, false).onRemoved(0, section.getSectionItemsTotal());
+            return;
         }
 
-        if (state != State.LOADED) {
-            if (previousState == State.LOADED) {
-                throw new IllegalStateException("Use notifyStateChangedFromLoaded");
-            } else {
-                throw new IllegalStateException("Use notifyNotLoadedStateChanged");
+        int sectionItemsTotal = section.getSectionItemsTotal();
+
+        callSuperNotifyItemRangeRemoved(previousSectionPosition, sectionItemsTotal);
+    }
+
+    /**
+     * Change the visibility of many sections at once with {@link Section#setVisible}, and notify
+     * the adapter of the items inserted or removed, merging the ranges of adjacent sections.
+     *
+     * @param tags    unique identifiers of the sections
+     * @param visible true to make the sections visible, false to make them invisible
+     */
+    public void setSectionsVisible(Collection<String> tags, boolean visible) {
+        int[] sectionIndexes = new int[tags.size()];
+        int sectionCount = 0;
+        for (String tag : tags) {
+            Section section = getValidSectionOrThrowException(tag);
+            if (section.isVisible() != visible) {
+                sectionIndexes[sectionCount++] = positionIndex.indexOf(tag, section);
+            }
+        }
+        Arrays.sort(sectionIndexes, 0, sectionCount);
+
+        if (batchedUpdates != null) {
+            for (int i = 0; i < sectionCount; i++) {
+                Section section = positionIndex.getSection(sectionIndexes[i]);
+                if (section.isVisible() != visible) {
+                    section.setVisible(visible);
+                    if (visible) {
+                        getBatchUpdates(section).onInserted(0, section.getSectionItemsTotal());
+                    } else {
+                        getBatchUpdates(section, false).onRemoved(0, section.getSectionItemsTotal());
+                    }
+                }
             }
+            return;
         }
 
-        int contentItemsTotal = section.getContentItemsTotal();
+        int[] starts = new int[sectionCount];
+        int[] itemCounts = new int[sectionCount];
+        int rangeCount = 0;
 
-        if (contentItemsTotal == 0) {
-            notifyItemRemovedFromSection(section, 0);
-        } else {
-            notifyItemChangedInSection(section, 0);
+        // the removed items are at the positions before the change, the inserted ones after it
+        if (!visible) {
+            rangeCount = collectItemRanges(sectionIndexes, sectionCount, starts, itemCounts);
+        }
+        for (int i = 0; i < sectionCount; i++) {
+            positionIndex.getSection(sectionIndexes[i]).setVisible(visible);
+        }
+        if (visible) {
+            rangeCount = collectItemRanges(sectionIndexes, sectionCount, starts, itemCounts);
 
-            if (contentItemsTotal > 1) {
-                notifyItemRangeInsertedInSection(section, 1, contentItemsTotal - 1);
+            for (int i = 0; i < rangeCount; i++) {
+                callSuperNotifyItemRangeInserted(starts[i], itemCounts[i]);
+            }
+        } else {
+            // from the last range to the first, so that the positions of the others are still valid
+            for (int i = rangeCount - 1; i >= 0; i--) {
+                callSuperNotifyItemRangeRemoved(starts[i], itemCounts[i]);
             }
         }
     }
 
     /**
-     * Helper method that calls {@link #notifyItemRangeRemoved} and {@link #notifyItemChanged} with
-     * the position of the {@link State} view holder in the adapter. Useful to be called after
-     * changing the State from LOADED to LOADING/ FAILED/ EMPTY.
+     * Set the executors used to work on a background thread and to apply the results on the main
+     * thread: the diffs of {@link #submitSectionDiff} and {@link #submitSections}, the queries of
+     * {@link #filterSections}, and the views inflated by {@link #prefetchViews} and
+     * {@link #setRecycledViewPoolPrewarming}. By default the work runs on a shared pool of
+     * background threads and its results are applied on the main thread.
      *
-     * @param tag                       unique identifier of the section
-     * @param previousContentItemsCount previous content items count of section
+     * @param backgroundExecutor executor that runs the work in the background
+     * @param mainThreadExecutor executor that runs on the main thread
      */
-    public void notifyStateChangedFromLoaded(String tag, int previousContentItemsCount) {
-        Section section = getValidSectionOrThrowException(tag);
+    public void setBackgroundExecutors(@NonNull Executor backgroundExecutor, @NonNull Executor mainThreadExecutor) {
+        this.backgroundExecutor = backgroundExecutor;
+        this.mainThreadExecutor = mainThreadExecutor;
+    }
 
-        notifyStateChangedFromLoaded(section, previousContentItemsCount);
+    /**
+     * Set the executors used to calculate the diffs and to dispatch their results.
+     *
+     * @param backgroundExecutor executor that calculates the diffs
+     * @param mainThreadExecutor executor that runs on the main thread
+     * @deprecated Use {@link #setBackgroundExecutors} instead, as the executors are also used to
+     * filter the sections and to inflate views.
+     */
+    @Deprecated
+    public void setDiffExecutors(@NonNull Executor backgroundExecutor, @NonNull Executor mainThreadExecutor) {
+        setBackgroundExecutors(backgroundExecutor, mainThreadExecutor);
     }
 
     /**
-     * Helper method that calls {@link #notifyItemRangeRemoved} and {@link #notifyItemChanged} with
-     * the position of the {@link State} view holder in the adapter. Useful to be called after
-     * changing the State from LOADED to LOADING/ FAILED/ EMPTY.
+     * Calculate on a background thread the difference between the content currently displayed by
+     * the section and its new content, then apply the new content and dispatch the updates to the
+     * adapter on the main thread. If another diff is submitted for the section before the updates
+     * are dispatched, this one is discarded.
      *
-     * @param section                   a visible section of this adapter
-     * @param previousContentItemsCount previous content items count of section
+     * @param section  a section of this adapter
+     * @param callback callback that compares the old and the new content of the section
      */
-    public void notifyStateChangedFromLoaded(Section section, int previousContentItemsCount) {
-        State state = section.getState();
+    public void submitSectionDiff(@NonNull Section section, @NonNull SectionDiffCallback callback) {
+        submitSectionDiffs(Collections.singletonMap(section, callback));
+    }
 
-        if (state == State.LOADED) {
-            throw new IllegalStateException("Use notifyStateChangedToLoaded");
+    /**
+     * Calculate on a background thread the difference between the content currently displayed by
+     * each section and its new content, then apply the new content of all the sections and
+     * dispatch the updates to the adapter at once on the main thread. If another diff is submitted
+     * for a section before the updates are dispatched, the diff of that section is discarded.
+     *
+     * @param callbacks callbacks that compare the old and the new content of sections of this
+     *                  adapter
+     */
+    public void submitSectionDiffs(@NonNull Map<Section, SectionDiffCallback> callbacks) {
+        final int generation = ++diffGeneration;
+        final Map<Section, SectionDiffCallback> sectionCallbacks = new IdentityHashMap<>(callbacks);
+
+        for (Section section : sectionCallbacks.keySet()) {
+            if (positionIndex.indexOf(section) == -1) {
+                throw new IllegalArgumentException("Invalid section");
+            }
+        }
+        for (Section section : sectionCallbacks.keySet()) {
+            sectionDiffGenerations.put(section, generation);
         }
 
-        if (previousContentItemsCount == 0) {
-            notifyItemInsertedInSection(section, 0);
-        } else {
-            if (previousContentItemsCount > 1) {
-                notifyItemRangeRemovedFromSection(section, 1, previousContentItemsCount - 1);
+        final Executor mainThreadExecutor = getMainThreadExecutor();
+
+        getBackgroundExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final Map<Section, DiffUtil.DiffResult> diffResults = new IdentityHashMap<>();
+                for (Map.Entry<Section, SectionDiffCallback> entry : sectionCallbacks.entrySet()) {
+                    SectionDiffCallback callback = entry.getValue();
+                    diffResults.put(entry.getKey(), DiffUtil.calculateDiff(callback, callback.detectMoves()));
+                }
+
+                mainThreadExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        dispatchSectionDiffs(generation, sectionCallbacks, diffResults);
+                    }
+                });
+            }
+        });
+    }
+
+    private void dispatchSectionDiffs(int generation, Map<Section, SectionDiffCallback> callbacks,
+                                      Map<Section, DiffUtil.DiffResult> diffResults) {
+        // discard the diffs of the sections that were removed or that have a newer diff
+        for (Section section : diffResults.keySet()) {
+            Integer sectionGeneration = sectionDiffGenerations.get(section);
+
+            if (sectionGeneration != null && sectionGeneration == generation) {
+                sectionDiffGenerations.remove(section);
+            } else {
+                callbacks.remove(section);
             }
+        }
 
-            notifyItemChangedInSection(section, 0);
+        // apply the diffs in the order of the sections, so that the position of each section
+        // already accounts for the updates of the sections before it
+        for (int i = 0; i < positionIndex.size() && !callbacks.isEmpty(); i++) {
+            Section section = positionIndex.getSection(i);
+            SectionDiffCallback callback = callbacks.remove(section);
+
+            if (callback == null) {
+                continue;
+            }
+
+            // the content of a section in another state or invisible is not displayed
+            boolean displayed = section.isVisible() && section.getState() == State.LOADED;
+            int offset = displayed ? getPositionInAdapter(section, 0) : 0;
+
+            callback.applyNewContent();
+            onSectionItemsTotalChanged(section);
+
+            if (displayed) {
+                diffResults.get(section).dispatchUpdatesTo(new SectionListUpdateCallback(this, offset));
+            }
         }
     }
 
     /**
-     * Helper method that calls {@link #notifyItemInserted} with the position of the section's
-     * header in the adapter. Useful to be called after changing the visibility of the section's
-     * header to visible with {@link Section#setHasHeader}.
+     * Display only the items of the {@link FilterableSection}s of this adapter that match the
+     * query. The items are matched on the same background threads as {@link #submitSectionDiff},
+     * and the items removed and inserted are dispatched on the main thread. The sections left
+     * without items are made invisible, and shown again when a query matches their items or the
+     * query is cleared. The sections made invisible by the app stay invisible.
      *
-     * @param tag unique identifier of the section
+     * <p>A query submitted before the previous one was dispatched cancels it. The sections added
+     * after the query was submitted are not filtered.
+     *
+     * @param query query to match the items, or null or empty to display all the items
      */
-    public void notifyHeaderInsertedInSection(String tag) {
-        Section section = getValidSectionOrThrowException(tag);
+    public void filterSections(@Nullable final CharSequence query) {
+        final int generation = ++diffGeneration;
+        filterGeneration = generation;
 
-        notifyHeaderInsertedInSection(section);
+        final List<FilterableSection<?>> filterableSections = new ArrayList<>();
+        for (int i = 0; i < positionIndex.size(); i++) {
+            Section section = positionIndex.getSection(i);
+
+            if (section instanceof FilterableSection) {
+                filterableSections.add((FilterableSection<?>) section);
+                sectionDiffGenerations.put(section, generation);
+            }
+        }
+
+        final Executor mainThreadExecutor = getMainThreadExecutor();
+
+        getBackgroundExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final Map<Section, int[]> filteredIndexes = new IdentityHashMap<>();
+                for (FilterableSection<?> section : filterableSections) {
+                    int[] indexes = filterItems(section, query, generation);
+
+                    if (indexes == null) {
+                        // a newer query was submitted
+                        return;
+                    }
+                    filteredIndexes.put(section, indexes);
+                }
+
+                mainThreadExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        dispatchFilteredSections(generation, query == null || query.length() == 0, filteredIndexes);
+                    }
+                });
+            }
+        });
     }
 
-    /**
-     * Helper method that calls {@link #notifyItemInserted} with the position of the section's
-     * header in the adapter. Useful to be called after changing the visibility of the section's
-     * header to visible with {@link Section#setHasHeader}.
-     *
-     * @param section a visible section of this adapter
-     */
-    public void notifyHeaderInsertedInSection(Section section) {
-        int headerPosition = getHeaderPositionInAdapter(section);
+    private <T> int[] filterItems(FilterableSection<T> section, @Nullable CharSequence query, int generation) {
+        List<T> items = section.getItems();
+        int[] indexes = new int[items.size()];
+        int count = 0;
+
+        for (int i = 0; i < indexes.length; i++) {
+            if ((i & FILTER_CANCELLATION_CHECK_MASK) == 0 && generation != filterGeneration) {
+                return null;
+            }
+
+            if (query == null || query.length() == 0 || section.matches(items.get(i), query)) {
+                indexes[count++] = i;
+            }
+        }
+
+        return count == indexes.length ? indexes : Arrays.copyOf(indexes, count);
+    }
+
+    private void dispatchFilteredSections(int generation, boolean showAll, Map<Section, int[]> filteredIndexes) {
+        if (generation != filterGeneration) {
+            return;
+        }
+
+        // apply the results in the order of the sections, so that the position of each section
+        // already accounts for the updates of the sections before it
+        for (int i = 0; i < positionIndex.size() && !filteredIndexes.isEmpty(); i++) {
+            Section section = positionIndex.getSection(i);
+            int[] indexes = filteredIndexes.remove(section);
+
+            // discard the results of the sections that were removed or that have a newer diff
+            Integer sectionGeneration = sectionDiffGenerations.get(section);
+            if (indexes == null || sectionGeneration == null || sectionGeneration != generation) {
+                continue;
+            }
+            sectionDiffGenerations.remove(section);
+
+            FilterableSection<?> filterableSection = (FilterableSection<?>) section;
+            if (section.isVisible() && section.getState() == State.LOADED) {
+                BatchingListUpdateCallback callback = new BatchingListUpdateCallback(
+                        new SectionListUpdateCallback(this, getPositionInAdapter(section, 0)));
+                filterableSection.setFilteredIndexes(indexes, callback);
+                onSectionItemsTotalChanged(section);
+                callback.dispatchLastEvent();
+            } else {
+                filterableSection.setFilteredIndexes(indexes, null);
+                onSectionItemsTotalChanged(section);
+            }
 
-        callSuperNotifyItemInserted(headerPosition);
+            // only the sections hidden by a previous query are shown again, not the ones hidden
+            // by the app
+            boolean visible = showAll || indexes.length > 0;
+            if (section.isVisible()) {
+                filterableSection.setHiddenByFilter(false);
+
+                if (!visible) {
+                    int sectionPosition = getSectionPosition(section);
+                    section.setVisible(false);
+                    filterableSection.setHiddenByFilter(true);
+                    notifySectionChangedToInvisible(section, sectionPosition);
+                }
+            } else if (visible && filterableSection.isHiddenByFilter()) {
+                filterableSection.setHiddenByFilter(false);
+                section.setVisible(true);
+                notifySectionChangedToVisible(section);
+            }
+        }
     }
 
     /**
-     * Helper method that calls {@link #notifyItemInserted} with the position of the section's
-     * footer in the adapter. Useful to be called after changing the visibility of the section's
-     * footer to visible with {@link Section#setHasFooter}.
+     * Replace the sections of this adapter with the given ones, in their iteration order, and
+     * dispatch the rows that were inserted, removed or moved. The sections are matched by tag, and
+     * their rows by kind and {@link Section#getItemId(int) item id}. The difference is calculated
+     * on a background thread, then the sections are replaced on the main thread. If another list
+     * of sections is submitted before that, this one is discarded.
      *
-     * @param tag unique identifier of the section
+     * <p>The rows of a section kept with the same instance are considered unchanged. Replace the
+     * instance of the sections whose content changed, so that their rows are compared and rebound.
+     * If the adapter is modified before the sections are replaced, {@link #notifyDataSetChanged}
+     * is called instead.
+     *
+     * @param newSections new sections of this adapter by tag, in the order they will be displayed
      */
-    public void notifyFooterInsertedInSection(String tag) {
-        Section section = getValidSectionOrThrowException(tag);
+    public void submitSections(@NonNull Map<String, Section> newSections) {
+        final Map<String, Section> orderedSections = new LinkedHashMap<>(newSections);
+
+        Map<Section, Boolean> uniqueSections = new IdentityHashMap<>();
+        Map<String, Section> viewTypeKeySections = new HashMap<>();
+        for (Section section : orderedSections.values()) {
+            if (uniqueSections.put(section, Boolean.TRUE) != null) {
+                throw new IllegalArgumentException("A section cannot be added more than once");
+            }
 
-        notifyFooterInsertedInSection(section);
-    }
+            checkViewTypeKey(section);
+            String viewTypeKey = section.getViewTypeKey();
+            if (viewTypeKey != null) {
+                Section viewTypeKeySection = viewTypeKeySections.get(viewTypeKey);
+                if (viewTypeKeySection == null) {
+                    viewTypeKeySections.put(viewTypeKey, section);
+                } else {
+                    checkSameViews(viewTypeKey, viewTypeKeySection, section);
+                }
+            }
+        }
 
-    /**
-     * Helper method that calls {@link #notifyItemInserted} with the position of the section's
-     * footer in the adapter. Useful to be called after changing the visibility of the section's
-     * footer to visible with {@link Section#setHasFooter}.
-     *
-     * @param section a visible section of this adapter
-     */
-    public void notifyFooterInsertedInSection(Section section) {
-        int footerPosition = getFooterPositionInAdapter(section);
+        final int generation = ++sectionListGeneration;
+        final int modificationCount = positionIndex.getModificationCount();
 
-        callSuperNotifyItemInserted(footerPosition);
-    }
+        // the sections are only accessed on the main thread
+        final SectionListDiffCallback.Rows oldRows = new SectionListDiffCallback.Rows();
+        for (int i = 0; i < positionIndex.size(); i++) {
+            oldRows.addSection(positionIndex.getTag(i), positionIndex.getSection(i));
+        }
+        final SectionListDiffCallback.Rows newRows = new SectionListDiffCallback.Rows();
+        for (Map.Entry<String, Section> entry : orderedSections.entrySet()) {
+            newRows.addSection(entry.getKey(), entry.getValue());
+        }
 
-    /**
-     * Helper method that calls {@link #notifyItemRemoved} with the position of the section's
-     * header in the adapter. Useful to be called after changing the visibility of the section's
-     * header to invisible with {@link Section#setHasHeader}.
-     *
-     * @param tag unique identifier of the section
-     */
-    public void notifyHeaderRemovedFromSection(String tag) {
-        Section section = getValidSectionOrThrowException(tag);
+        final Executor mainThreadExecutor = getMainThreadExecutor();
 
-        notifyHeaderRemovedFromSection(section);
+        getBackgroundExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(
+                        new SectionListDiffCallback(oldRows, newRows), true);
+
+                mainThreadExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        dispatchSections(generation, modificationCount, orderedSections, diffResult);
+                    }
+                });
+            }
+        });
     }
 
-    /**
-     * Helper method that calls {@link #notifyItemRemoved} with the position of the section's
-     * header in the adapter. Useful to be called after changing the visibility of the section's
-     * header to invisible with {@link Section#setHasHeader}.
-     *
-     * @param section a visible section of this adapter
-     */
-    public void notifyHeaderRemovedFromSection(Section section) {
-        int position = getSectionPosition(section);
+    private void dispatchSections(int generation, int modificationCount, Map<String, Section> newSections,
+                                  DiffUtil.DiffResult diffResult) {
+        if (generation != sectionListGeneration) {
+            return;
+        }
 
-        callSuperNotifyItemRemoved(position);
-    }
+        boolean modified = modificationCount != positionIndex.getModificationCount();
 
-    /**
-     * Helper method that calls {@link #notifyItemRemoved} with the position of the section's
-     * footer in the adapter. Useful to be called after changing the visibility of the section's
-     * footer to invisible with {@link Section#setHasFooter}.
-     *
-     * @param tag unique identifier of the section
-     */
-    public void notifyFooterRemovedFromSection(String tag) {
-        Section section = getValidSectionOrThrowException(tag);
+        replaceSections(newSections);
 
-        notifyFooterRemovedFromSection(section);
+        if (modified) {
+            positionIndex.invalidateAll();
+            callSuperNotifyDataSetChanged();
+        } else {
+            diffResult.dispatchUpdatesTo(new SectionListUpdateCallback(this, 0));
+        }
     }
 
-    /**
-     * Helper method that calls {@link #notifyItemRemoved} with the position of the section's
-     * footer in the adapter. Useful to be called after changing the visibility of the section's
-     * footer to invisible with {@link Section#setHasFooter}.
-     *
-     * @param section a visible section of this adapter
-     */
-    public void notifyFooterRemovedFromSection(Section section) {
-        int position = getSectionPosition(section) + section.getSectionItemsTotal();
+    private void replaceSections(Map<String, Section> newSections) {
+        int oldSize = positionIndex.size();
+        Section[] oldSections = new Section[oldSize];
+        String[] oldTags = new String[oldSize];
+        int[] oldViewTypes = new int[oldSize];
+        int[] oldSectionIds = new int[oldSize];
+        Map<String, Integer> oldIndexes = new HashMap<>();
+        for (int i = 0; i < oldSize; i++) {
+            oldSections[i] = positionIndex.getSection(i);
+            oldTags[i] = positionIndex.getTag(i);
+            oldViewTypes[i] = positionIndex.getViewType(i);
+            oldSectionIds[i] = positionIndex.getSectionId(i);
+            oldIndexes.put(oldTags[i], i);
+        }
 
-        callSuperNotifyItemRemoved(position);
+        sections.clear();
+        positionIndex.clear();
+        invalidateBatch();
+
+        boolean[] kept = new boolean[oldSize];
+        for (Map.Entry<String, Section> entry : newSections.entrySet()) {
+            String tag = entry.getKey();
+            Section section = entry.getValue();
+            Integer oldIndex = oldIndexes.get(tag);
+
+            if (oldIndex != null && oldSections[oldIndex] == section) {
+                kept[oldIndex] = true;
+                positionIndex.add(tag, section, oldViewTypes[oldIndex], oldSectionIds[oldIndex]);
+            } else {
+                int sectionId;
+                if (oldIndex != null) {
+                    // a section replaced with the same tag keeps its id
+                    sectionId = oldSectionIds[oldIndex];
+                } else {
+                    sectionId = acquireSectionId();
+                }
+                positionIndex.add(tag, section, acquireViewType(section), sectionId);
+                section.onAddedToAdapter(this);
+                prewarmRecycledViewPool(section);
+            }
+
+            sections.put(tag, section);
+        }
+        generatedTags.retainAll(newSections.keySet());
+
+        // release the sections that are not kept with the same instance, once the new sections
+        // are indexed so that the view types they share are handed over to them
+        for (int i = 0; i < oldSize; i++) {
+            if (!kept[i]) {
+                Section section = oldSections[i];
+                if (!newSections.containsKey(oldTags[i])) {
+                    removedSectionIds.add(oldSectionIds[i]);
+                }
+                removeTraceSectionNames(oldTags[i]);
+                releaseViewType(oldViewTypes[i], section);
+                if (positionIndex.indexOf(section) == -1) {
+                    sectionDiffGenerations.remove(section);
+                    section.onRemovedFromAdapter(this);
+                }
+            }
+        }
     }
 
-    /**
-     * Helper method that calls {@link #notifyItemRangeInserted} with the position of the section
-     * in the adapter. Useful to be called after changing the visibility of the section to visible
-     * with {@link Section#setVisible}.
-     *
-     * @param tag unique identifier of the section
-     */
-    public void notifySectionChangedToVisible(String tag) {
-        Section section = getValidSectionOrThrowException(tag);
+    private Executor getBackgroundExecutor() {
+        if (backgroundExecutor == null) {
+            synchronized (BACKGROUND_EXECUTOR_LOCK) {
+                if (defaultBackgroundExecutor == null) {
+                    defaultBackgroundExecutor = Executors.newFixedThreadPool(2);
+                }
+            }
+            backgroundExecutor = defaultBackgroundExecutor;
+        }
 
-        notifySectionChangedToVisible(section);
+        return backgroundExecutor;
     }
 
-    /**
-     * Helper method that calls {@link #notifyItemRangeInserted} with the position of the section
-     * in the adapter. Useful to be called after changing the visibility of the section to visible
-     * with {@link Section#setVisible}.
-     *
-     * @param section a visible section of this adapter
-     */
-    public void notifySectionChangedToVisible(Section section) {
-        if (!section.isVisible()) {
-            throw new IllegalStateException("This section is not visible.");
+    private Executor getMainThreadExecutor() {
+        if (mainThreadExecutor == null) {
+            final Handler handler = new Handler(Looper.getMainLooper());
+            mainThreadExecutor = new Executor() {
+                @Override
+                public void execute(@NonNull Runnable command) {
+                    handler.post(command);
+                }
+            };
         }
 
-        int sectionPosition = getSectionPosition(section);
+        return mainThreadExecutor;
+    }
 
-        int sectionItemsTotal = section.getSectionItemsTotal();
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
 
-        callSuperNotifyItemRangeInserted(sectionPosition, sectionItemsTotal);
+        attachedRecyclerViews.add(recyclerView);
     }
 
-    /**
-     * Helper method that calls {@link #notifyItemRangeInserted} with the position of the section
-     * in the adapter. Useful to be called after changing the visibility of the section to invisible
-     * with {@link Section#setVisible}.
-     *
-     * @param tag                     unique identifier of the section
-     * @param previousSectionPosition previous section position
-     */
-    public void notifySectionChangedToInvisible(String tag, int previousSectionPosition) {
-        Section section = getValidSectionOrThrowException(tag);
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
 
-        notifySectionChangedToInvisible(section, previousSectionPosition);
+        attachedRecyclerViews.remove(recyclerView);
+        if (recyclerView == prefetchRecyclerView) {
+            clearPrefetchedViews();
+        }
+        if (recyclerView == prewarmRecyclerView) {
+            prewarmRecyclerView = null;
+        }
     }
 
     /**
-     * Helper method that calls {@link #notifyItemRangeInserted} with the position of the section
-     * in the adapter. Useful to be called after changing the visibility of the section to invisible
-     * with {@link Section#setVisible}.
+     * Called by a {@link Section} of this adapter when its total of items might have changed.
      *
-     * @param section                 an invisible section of this adapter
-     * @param previousSectionPosition previous section position
+     * @param section section of this adapter
      */
-    public void notifySectionChangedToInvisible(Section section, int previousSectionPosition) {
-        if (section.isVisible()) {
-            throw new IllegalStateException("This section is not invisible.");
+    void onSectionItemsTotalChanged(Section section) {
+        int sectionIndex = positionIndex.indexOf(section);
+
+        if (sectionIndex != -1) {
+            positionIndex.invalidate(sectionIndex);
         }
+    }
 
-        int sectionItemsTotal = section.getSectionItemsTotal();
+    @VisibleForTesting // in order to allow this class to be unit tested
+    void logWarning(String message, Throwable throwable) {
+        Log.w(LOG_TAG, message, throwable);
+    }
 
-        callSuperNotifyItemRangeRemoved(previousSectionPosition, sectionItemsTotal);
+    @VisibleForTesting // in order to allow this class to be unit tested
+    void beginTraceSection(String sectionName) {
+        TraceCompat.beginSection(sectionName);
+    }
+
+    @VisibleForTesting // in order to allow this class to be unit tested
+    void endTraceSection() {
+        TraceCompat.endSection();
     }
 
     @VisibleForTesting // in order to allow this class to be unit tested
@@ -1183,44 +3115,252 @@ public class SectionedRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerV
         return LayoutInflater.from(parent.getContext()).inflate(layoutResourceId, parent, false);
     }
 
+    /**
+     * Return a LayoutInflater that is only used by one background thread, as the shared instance
+     * of the context is not thread safe.
+     *
+     * @param parent parent of the views to inflate
+     * @return LayoutInflater for the context of the parent
+     */
+    @VisibleForTesting // in order to allow this class to be unit tested
+    LayoutInflater cloneLayoutInflater(ViewGroup parent) {
+        return LayoutInflater.from(parent.getContext()).cloneInContext(parent.getContext());
+    }
+
+    @VisibleForTesting // in order to allow this class to be unit tested
+    void callSuperNotifyDataSetChanged() {
+        super.notifyDataSetChanged();
+    }
+
     @VisibleForTesting // in order to allow this class to be unit tested
     void callSuperNotifyItemRemoved(int position) {
-        super.notifyItemRemoved(position);
+        dispatchingSectionUpdates = true;
+        try {
+            super.notifyItemRemoved(position);
+        } finally {
+            dispatchingSectionUpdates = false;
+        }
     }
 
     @VisibleForTesting // in order to allow this class to be unit tested
     void callSuperNotifyItemRangeRemoved(int positionStart, int itemCount) {
-        super.notifyItemRangeRemoved(positionStart, itemCount);
+        dispatchingSectionUpdates = true;
+        try {
+            super.notifyItemRangeRemoved(positionStart, itemCount);
+        } finally {
+            dispatchingSectionUpdates = false;
+        }
     }
 
     @VisibleForTesting // in order to allow this class to be unit tested
     void callSuperNotifyItemChanged(int position) {
-        super.notifyItemChanged(position);
+        dispatchingSectionUpdates = true;
+        try {
+            super.notifyItemChanged(position);
+        } finally {
+            dispatchingSectionUpdates = false;
+        }
+    }
+
+    @VisibleForTesting // in order to allow this class to be unit tested
+    void callSuperNotifyItemChanged(int position, Object payload) {
+        dispatchingSectionUpdates = true;
+        try {
+            super.notifyItemChanged(position, payload);
+        } finally {
+            dispatchingSectionUpdates = false;
+        }
     }
 
     @VisibleForTesting // in order to allow this class to be unit tested
     void callSuperNotifyItemRangeChanged(int positionStart, int itemCount) {
-        super.notifyItemRangeChanged(positionStart, itemCount);
+        dispatchingSectionUpdates = true;
+        try {
+            super.notifyItemRangeChanged(positionStart, itemCount);
+        } finally {
+            dispatchingSectionUpdates = false;
+        }
     }
 
     @VisibleForTesting // in order to allow this class to be unit tested
     void callSuperNotifyItemRangeChanged(int positionStart, int itemCount, Object payload) {
-        super.notifyItemRangeChanged(positionStart, itemCount, payload);
+        dispatchingSectionUpdates = true;
+        try {
+            super.notifyItemRangeChanged(positionStart, itemCount, payload);
+        } finally {
+            dispatchingSectionUpdates = false;
+        }
     }
 
     @VisibleForTesting // in order to allow this class to be unit tested
     void callSuperNotifyItemRangeInserted(int positionStart, int itemCount) {
-        super.notifyItemRangeInserted(positionStart, itemCount);
+        dispatchingSectionUpdates = true;
+        try {
+            super.notifyItemRangeInserted(positionStart, itemCount);
+        } finally {
+            dispatchingSectionUpdates = false;
+        }
     }
 
     @VisibleForTesting // in order to allow this class to be unit tested
     void callSuperNotifyItemInserted(int position) {
-        super.notifyItemInserted(position);
+        dispatchingSectionUpdates = true;
+        try {
+            super.notifyItemInserted(position);
+        } finally {
+            dispatchingSectionUpdates = false;
+        }
     }
 
     @VisibleForTesting // in order to allow this class to be unit tested
     void callSuperNotifyItemMoved(int fromPosition, int toPosition) {
-        super.notifyItemMoved(fromPosition, toPosition);
+        dispatchingSectionUpdates = true;
+        try {
+            super.notifyItemMoved(fromPosition, toPosition);
+        } finally {
+            dispatchingSectionUpdates = false;
+        }
+    }
+
+    @NonNull
+    private PositionCursor resolvePositionOrThrowException(int position) {
+        PositionCursor cursor = positionIndex.resolve(position);
+
+        if (cursor == null) {
+            throw new IndexOutOfBoundsException("Invalid position");
+        }
+
+        return cursor;
+    }
+
+    private SectionBatchUpdates getBatchUpdates(Section section) {
+        return getBatchUpdates(section, true);
+    }
+
+    /**
+     * Return the updates recorded for a section in the batch in progress, after the checks that
+     * the notify methods do outside of a batch, so that the updates of a section that is not
+     * displayed are neither dispatched at the positions of another one nor dropped.
+     *
+     * @param section section of this adapter
+     * @param visible whether the section must be visible or invisible
+     * @return updates of the section
+     */
+    private SectionBatchUpdates getBatchUpdates(Section section, boolean visible) {
+        if (positionIndex.indexOf(section) == -1 || section.isVisible() != visible) {
+            throw new IllegalArgumentException("Invalid section");
+        }
+
+        SectionBatchUpdates updates = batchedUpdates.get(section);
+
+        if (updates == null) {
+            updates = new SectionBatchUpdates();
+            batchedUpdates.put(section, updates);
+        }
+
+        return updates;
+    }
+
+    /**
+     * Collect the positions of the items of the sections at the given indexes, merging the ranges
+     * of the sections that are adjacent in the adapter.
+     *
+     * @param sectionIndexes sorted indexes of the sections
+     * @param sectionCount   number of indexes
+     * @param starts         receives the first position of each range
+     * @param itemCounts     receives the number of items of each range
+     * @return number of ranges
+     */
+    private int collectItemRanges(int[] sectionIndexes, int sectionCount, int[] starts, int[] itemCounts) {
+        int rangeCount = 0;
+
+        for (int i = 0; i < sectionCount; i++) {
+            if (i > 0 && sectionIndexes[i] == sectionIndexes[i - 1]) {
+                continue;
+            }
+
+            int start = positionIndex.getSectionStart(sectionIndexes[i]);
+            int itemCount = positionIndex.getSectionEnd(sectionIndexes[i]) - start;
+            if (itemCount == 0) {
+                continue;
+            }
+
+            if (rangeCount > 0 && starts[rangeCount - 1] + itemCounts[rangeCount - 1] == start) {
+                itemCounts[rangeCount - 1] += itemCount;
+            } else {
+                starts[rangeCount] = start;
+                itemCounts[rangeCount] = itemCount;
+                rangeCount++;
+            }
+        }
+
+        return rangeCount;
+    }
+
+    private void checkSectionIndex(int index) {
+        if (index < 0 || index >= positionIndex.size()) {
+            throw new IndexOutOfBoundsException("Invalid index " + index + ", size is " + positionIndex.size());
+        }
+    }
+
+    /**
+     * Notify that two adjacent blocks of items swapped places, moving the items of the smallest
+     * block one by one.
+     *
+     * <p>The moves keep the ViewHolders of the moved items and let the ItemAnimator animate them
+     * to their new place, where a removal and an insertion would rebind them and fade them out
+     * and in. As there's one notification per item, a block of more than
+     * {@value #MAX_MOVED_ITEMS_NOTIFIED} items is notified as removed and inserted instead.
+     *
+     * @param position   position of the first item of the first block
+     * @param itemCount  number of items of the first block
+     * @param itemCount2 number of items of the second block
+     */
+    private void notifyItemBlocksSwapped(int position, int itemCount, int itemCount2) {
+        if (Math.min(itemCount, itemCount2) > MAX_MOVED_ITEMS_NOTIFIED) {
+            if (itemCount <= itemCount2) {
+                callSuperNotifyItemRangeRemoved(position, itemCount);
+                callSuperNotifyItemRangeInserted(position + itemCount2, itemCount);
+            } else {
+                callSuperNotifyItemRangeRemoved(position + itemCount, itemCount2);
+                callSuperNotifyItemRangeInserted(position, itemCount2);
+            }
+        } else if (itemCount <= itemCount2) {
+            // move the first item of the first block after the second block, in a loop
+            for (int i = 0; i < itemCount; i++) {
+                callSuperNotifyItemMoved(position, position + itemCount + itemCount2 - 1);
+            }
+        } else {
+            for (int i = 0; i < itemCount2; i++) {
+                callSuperNotifyItemMoved(position + itemCount + i, position + i);
+            }
+        }
+    }
+
+    private void invalidateBatch() {
+        if (batchedUpdates != null) {
+            batchInvalidated = true;
+        }
+    }
+
+    private static int getContentRow(Section section, int position) {
+        return (section.hasHeader() ? 1 : 0) + position;
+    }
+
+    private static int getHeaderRow(Section section) {
+        if (!section.hasHeader()) {
+            throw new IllegalStateException("Section doesn't have a header");
+        }
+
+        return 0;
+    }
+
+    private static int getFooterRow(Section section) {
+        if (!section.hasFooter()) {
+            throw new IllegalStateException("Section doesn't have a footer");
+        }
+
+        return section.getSectionItemsTotal() - 1;
     }
 
     @NonNull
@@ -1234,6 +3374,54 @@ public class SectionedRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerV
         return section;
     }
 
+    /**
+     * Invalidates the position index on notifications that change the number of items and don't
+     * come from the notify methods of this adapter, and the batch in progress on any notification,
+     * as they are dispatched before the batched updates. Any notification also makes the IDs of the
+     * sections removed before it available to new sections.
+     */
+    private class PositionIndexObserver extends RecyclerView.AdapterDataObserver {
+        @Override
+        public void onChanged() {
+            positionIndex.invalidateAll();
+            invalidateBatch();
+            releaseRemovedSectionIds();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            invalidateBatch();
+            releaseRemovedSectionIds();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            if (!dispatchingSectionUpdates) {
+                positionIndex.invalidateFromPosition(positionStart);
+            }
+            invalidateBatch();
+            releaseRemovedSectionIds();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            if (!dispatchingSectionUpdates) {
+                positionIndex.invalidateFromPosition(positionStart);
+            }
+            invalidateBatch();
+            releaseRemovedSectionIds();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            if (!dispatchingSectionUpdates) {
+                positionIndex.invalidateFromPosition(Math.min(fromPosition, toPosition));
+            }
+            invalidateBatch();
+            releaseRemovedSectionIds();
+        }
+    }
+
     /**
      * A concrete class of an empty ViewHolder.
      * Should be used to avoid the boilerplate of creating a ViewHolder class for simple case
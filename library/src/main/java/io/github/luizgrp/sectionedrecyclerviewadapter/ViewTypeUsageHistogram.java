@@ -0,0 +1,212 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import androidx.annotation.NonNull;
+import androidx.core.util.AtomicFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Number of ViewHolders created by a {@link SectionedRecyclerViewAdapter} for each view type key
+ * of its sections and each kind of row, set with
+ * {@link SectionedRecyclerViewAdapter#setViewTypeUsageHistogram}.
+ *
+ * <p>The histogram of a session can be written to a file in the app-private storage and read on
+ * the next launch to size the pre-warming of the RecycledViewPool with
+ * {@link SectionedRecyclerViewAdapter#setRecycledViewPoolPrewarming(androidx.recyclerview.widget.RecyclerView,
+ * ViewTypeUsageHistogram)}. Only the sections with a view type key are recorded, as the view
+ * types of the other sections change between sessions. The counts add up the ViewHolders created
+ * during the whole session, not the ones alive at the same time, so the pre-warming caps them.
+ */
+public final class ViewTypeUsageHistogram {
+
+    private static final int VERSION = 1;
+
+    private final Map<String, int[]> counts = new HashMap<>();
+
+    /**
+     * Record that a ViewHolder was created for a kind of row of the sections with a view type key.
+     *
+     * @param viewTypeKey     view type key of the section
+     * @param sectionViewType kind of row, one of the SectionedRecyclerViewAdapter.VIEW_TYPE_* constants
+     */
+    public void record(@NonNull String viewTypeKey, int sectionViewType) {
+        int[] viewTypeCounts = counts.get(viewTypeKey);
+        if (viewTypeCounts == null) {
+            viewTypeCounts = new int[SectionedRecyclerViewAdapter.VIEW_TYPE_QTY];
+            counts.put(viewTypeKey, viewTypeCounts);
+        }
+
+        viewTypeCounts[sectionViewType]++;
+    }
+
+    /**
+     * Return the number of ViewHolders created for a kind of row of the sections with a view type
+     * key.
+     *
+     * @param viewTypeKey     view type key of the section
+     * @param sectionViewType kind of row, one of the SectionedRecyclerViewAdapter.VIEW_TYPE_* constants
+     * @return number of ViewHolders created
+     */
+    public int getCount(@NonNull String viewTypeKey, int sectionViewType) {
+        int[] viewTypeCounts = counts.get(viewTypeKey);
+
+        return viewTypeCounts != null ? viewTypeCounts[sectionViewType] : 0;
+    }
+
+    /**
+     * Return whether no ViewHolder was recorded.
+     *
+     * @return true if the histogram is empty
+     */
+    public boolean isEmpty() {
+        return counts.isEmpty();
+    }
+
+    /**
+     * Write this histogram to a file with an {@link AtomicFile}, which keeps the previous file
+     * until this one is completely written.
+     *
+     * @param file file in the app-private storage
+     * @throws IOException if the file could not be written
+     */
+    public void writeTo(@NonNull File file) throws IOException {
+        AtomicFile atomicFile = new AtomicFile(file);
+        FileOutputStream outputStream = atomicFile.startWrite();
+        boolean written = false;
+
+        try {
+            writeTo(outputStream);
+            written = true;
+        } finally {
+            if (written) {
+                atomicFile.finishWrite(outputStream);
+            } else {
+                // restore the previous file
+                atomicFile.failWrite(outputStream);
+            }
+        }
+    }
+
+    /**
+     * Write this histogram to a stream, with a variable-length encoding of the counts and only the
+     * kinds of row that were recorded.
+     *
+     * @param outputStream stream to write to, not closed by this method
+     * @throws IOException if the stream could not be written
+     */
+    public void writeTo(@NonNull OutputStream outputStream) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+
+        output.writeByte(VERSION);
+        writeVarInt(output, counts.size());
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            int[] viewTypeCounts = entry.getValue();
+
+            int recordedViewTypes = 0;
+            for (int i = 0; i < viewTypeCounts.length; i++) {
+                if (viewTypeCounts[i] != 0) {
+                    recordedViewTypes |= 1 << i;
+                }
+            }
+
+            output.writeUTF(entry.getKey());
+            output.writeByte(recordedViewTypes);
+            for (int i = 0; i < viewTypeCounts.length; i++) {
+                if (viewTypeCounts[i] != 0) {
+                    writeVarInt(output, viewTypeCounts[i]);
+                }
+            }
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Read a histogram written by {@link #writeTo(File)}.
+     *
+     * @param file file in the app-private storage
+     * @return histogram read, or an empty histogram if the file does not exist
+     * @throws IOException if the file could not be read or is not a histogram
+     */
+    @NonNull
+    public static ViewTypeUsageHistogram readFrom(@NonNull File file) throws IOException {
+        InputStream inputStream;
+        try {
+            inputStream = new AtomicFile(file).openRead();
+        } catch (FileNotFoundException e) {
+            return new ViewTypeUsageHistogram();
+        }
+
+        try {
+            return readFrom(inputStream);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Read a histogram written by {@link #writeTo(OutputStream)}.
+     *
+     * @param inputStream stream to read from, not closed by this method
+     * @return histogram read
+     * @throws IOException if the stream could not be read or does not contain a histogram
+     */
+    @NonNull
+    public static ViewTypeUsageHistogram readFrom(@NonNull InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+
+        int version = input.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported histogram version " + version);
+        }
+
+        ViewTypeUsageHistogram histogram = new ViewTypeUsageHistogram();
+        int keyCount = readVarInt(input);
+        for (int k = 0; k < keyCount; k++) {
+            String viewTypeKey = input.readUTF();
+            int recordedViewTypes = input.readUnsignedByte();
+
+            int[] viewTypeCounts = new int[SectionedRecyclerViewAdapter.VIEW_TYPE_QTY];
+            for (int i = 0; i < viewTypeCounts.length; i++) {
+                if ((recordedViewTypes & (1 << i)) != 0) {
+                    viewTypeCounts[i] = readVarInt(input);
+                }
+            }
+            histogram.counts.put(viewTypeKey, viewTypeCounts);
+        }
+
+        return histogram;
+    }
+
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed histogram");
+    }
+}
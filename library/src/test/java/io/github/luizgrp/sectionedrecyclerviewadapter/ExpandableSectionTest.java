@@ -0,0 +1,100 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.HeadedExpandableSectionStub;
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.StatelessSectionStub;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/*
+ * Unit tests for ExpandableSection
+ */
+@SuppressWarnings({"PMD.MethodNamingConventions"})
+public class ExpandableSectionTest {
+
+    private static final int ITEMS_QTY = 10;
+
+    @Spy
+    private SectionedRecyclerViewAdapter spySectionedRecyclerViewAdapter;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(anyInt(), anyInt());
+    }
+
+    @Test
+    public void setExpanded_withFalse_callsSuperNotifyItemRangeRemovedWithTheContentItems() {
+        // Given
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        HeadedExpandableSectionStub section = new HeadedExpandableSectionStub(ITEMS_QTY);
+        spySectionedRecyclerViewAdapter.addSection(section);
+        spySectionedRecyclerViewAdapter.getItemCount();
+
+        // When
+        section.setExpanded(false);
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(11, ITEMS_QTY);
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(ITEMS_QTY + 1));
+        assertThat(section.getContentItemsTotal(), is(0));
+    }
+
+    @Test
+    public void setExpanded_withTrueAfterCollapsed_callsSuperNotifyItemRangeInsertedWithTheContentItems() {
+        // Given
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        HeadedExpandableSectionStub section = new HeadedExpandableSectionStub(ITEMS_QTY);
+        spySectionedRecyclerViewAdapter.addSection(section);
+        section.setExpanded(false);
+
+        // When
+        section.setExpanded(true);
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(11, ITEMS_QTY);
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(ITEMS_QTY * 2 + 1));
+    }
+
+    @Test
+    public void setExpanded_withLoadingState_doesNotNotifyAdapter() {
+        // Given
+        HeadedExpandableSectionStub section = new HeadedExpandableSectionStub(ITEMS_QTY);
+        section.setState(Section.State.LOADING);
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        section.setExpanded(false);
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeRemoved(anyInt(), anyInt());
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(2));
+    }
+
+    @Test
+    public void setExpanded_withInvisibleSection_doesNotNotifyAdapter() {
+        // Given
+        HeadedExpandableSectionStub section = new HeadedExpandableSectionStub(ITEMS_QTY);
+        section.setVisible(false);
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        section.setExpanded(false);
+        section.setVisible(true);
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeRemoved(anyInt(), anyInt());
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(1));
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.luizgrp.sectionedrecyclerviewadapter;
 
+import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
+import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
@@ -8,14 +10,37 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 import static io.github.luizgrp.sectionedrecyclerviewadapter.Section.State;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -31,6 +56,7 @@ import static org.mockito.Mockito.when;
 public class SectionBindingTest {
 
     private static final int ITEMS_QTY = 10;
+    private static final int PREFETCHED_VIEW_TAG = 100;
 
     private SectionedRecyclerViewAdapter sectionAdapter;
 
@@ -47,6 +73,7 @@ public class SectionBindingTest {
     public void setup() {
         MockitoAnnotations.initMocks(this);
         sectionAdapter = new AdapterImpl();
+        sectionAdapter.setBackgroundExecutors(new DirectExecutor(), new DirectExecutor());
         sectionAdapter.addSection(dummySection); // View types 0-5, items 0-9
         sectionAdapter.addSection(section); // View types 6-11, items 10-19
     }
@@ -64,6 +91,470 @@ public class SectionBindingTest {
         verify(section, times(1)).getItemViewHolder(argThat(hasTag(-1)));
     }
 
+    @Test
+    public void onCreateViewHolder_withManySections_calls_getItemViewHolder_ofOwningSection() {
+        // Given
+        for (int i = 0; i < 100; i++) {
+            sectionAdapter.addSection(new SectionImpl()); // View types 12-611
+        }
+        Section lastSection = spy(new SectionImpl());
+        sectionAdapter.addSection(lastSection); // View types 612-617
+
+        // When
+        //noinspection ConstantConditions
+        sectionAdapter.onCreateViewHolder(null, 612 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        verify(section, never()).getItemViewHolder(any(View.class));
+        verify(lastSection, times(1)).getItemViewHolder(argThat(hasTag(-1)));
+    }
+
+    @Test
+    public void onCreateViewHolder_withSharedViewTypeKey_calls_getItemViewHolder_ofRemainingSection() {
+        // Given
+        Section keyedSection = spy(new SectionImpl(SectionParameters.builder().itemResourceId(-2).viewTypeKey("key")));
+        Section otherKeyedSection = spy(new SectionImpl(SectionParameters.builder().itemResourceId(-2).viewTypeKey("key")));
+        sectionAdapter.addSection(keyedSection); // Third section, view types 12-17
+        sectionAdapter.addSection(otherKeyedSection); // Fourth section, view types 12-17
+        sectionAdapter.removeSection(keyedSection);
+
+        // When
+        //noinspection ConstantConditions
+        sectionAdapter.onCreateViewHolder(null, 12 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        verify(keyedSection, never()).getItemViewHolder(any(View.class));
+        verify(otherKeyedSection, times(1)).getItemViewHolder(argThat(hasTag(-2)));
+    }
+
+    @Test
+    public void addSection_withSharedViewTypeKeyAndDifferentItemLayout_throwsException() {
+        // Given
+        sectionAdapter.addSection(new SectionImpl(SectionParameters.builder().itemResourceId(-1).viewTypeKey("key")));
+
+        // Expect exception
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The sections with view type key key must have the same layouts and provide the same views");
+
+        // When
+        sectionAdapter.addSection(new SectionImpl(SectionParameters.builder().itemResourceId(-2).viewTypeKey("key")));
+    }
+
+    @Test
+    public void addSection_withSharedViewTypeKeyAndHeaderViewProvidedByOneSection_throwsException() {
+        // Given
+        sectionAdapter.addSection("keyed", new SectionImpl(SectionParameters.builder().itemResourceId(-1).viewTypeKey("key")));
+
+        // When
+        try {
+            sectionAdapter.addSection("other", new SectionImpl(
+                    SectionParameters.builder().itemResourceId(-1).headerViewWillBeProvided().viewTypeKey("key")));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Then
+            assertThat(sectionAdapter.getSection("other") == null, is(true));
+            assertThat(sectionAdapter.getCopyOfSectionsMap().size(), is(3));
+        }
+    }
+
+    @Test
+    public void onCreateViewHolder_withReusedViewType_calls_getItemViewHolder_ofNewSection() {
+        // Given
+        sectionAdapter.removeSection(section);
+        Section newSection = spy(new SectionImpl(SectionParameters.builder().itemResourceId(-2)));
+        sectionAdapter.addSection(newSection); // Reuses view types 6-11
+
+        // When
+        //noinspection ConstantConditions
+        sectionAdapter.onCreateViewHolder(null, 6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        verify(section, never()).getItemViewHolder(any(View.class));
+        verify(newSection, times(1)).getItemViewHolder(argThat(hasTag(-2)));
+    }
+
+    @Test
+    public void onCreateViewHolder_withPrefetchedItemView_calls_getItemViewHolder_withPrefetchedViewFirst() {
+        // Given
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        sectionAdapter.prefetchViews(recyclerView, section, 1);
+
+        // When
+        sectionAdapter.onCreateViewHolder(recyclerView, 6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        sectionAdapter.onCreateViewHolder(recyclerView, 6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        verify(section, times(1)).getItemViewHolder(argThat(hasTag(PREFETCHED_VIEW_TAG)));
+        verify(section, times(1)).getItemViewHolder(argThat(hasTag(-1)));
+    }
+
+    @Test
+    public void onCreateViewHolder_withItemViewPrefetchedForOtherRecyclerView_calls_getItemViewHolder_withInflatedView() {
+        // Given
+        sectionAdapter.prefetchViews(mock(RecyclerView.class), section, 1);
+
+        // When
+        sectionAdapter.onCreateViewHolder(mock(RecyclerView.class), 6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        verify(section, never()).getItemViewHolder(argThat(hasTag(PREFETCHED_VIEW_TAG)));
+        verify(section, times(1)).getItemViewHolder(argThat(hasTag(-1)));
+    }
+
+    @Test
+    public void prefetchViews_withMoreItemViewsThanKept_inflatesAtMostMaxPrefetchedViews() {
+        // Given
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        SectionedRecyclerViewAdapter adapter = spy(new AdapterImpl());
+        adapter.setBackgroundExecutors(new DirectExecutor(), new DirectExecutor());
+        adapter.addSection("news", section);
+        LayoutInflater inflater = mock(LayoutInflater.class);
+        View view = dummyViewWithTag(PREFETCHED_VIEW_TAG);
+        when(inflater.inflate(anyInt(), any(ViewGroup.class), anyBoolean())).thenReturn(view);
+        doReturn(inflater).when(adapter).cloneLayoutInflater(recyclerView);
+
+        // When
+        adapter.prefetchViews(recyclerView, section, 100);
+
+        // Then
+        verify(inflater, times(16)).inflate(eq(-1), same(recyclerView), eq(false));
+    }
+
+    @Test
+    public void prefetchViews_withLayoutFailingToInflate_logsSectionTagAndKindOfRow() {
+        // Given
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        SectionedRecyclerViewAdapter adapter = spy(new AdapterImpl());
+        adapter.setBackgroundExecutors(new DirectExecutor(), new DirectExecutor());
+        adapter.addSection("news", section);
+        LayoutInflater inflater = mock(LayoutInflater.class);
+        RuntimeException exception = new IllegalStateException();
+        when(inflater.inflate(anyInt(), any(ViewGroup.class), anyBoolean())).thenThrow(exception);
+        doReturn(inflater).when(adapter).cloneLayoutInflater(recyclerView);
+        doNothing().when(adapter).logWarning(anyString(), any(Throwable.class));
+
+        // When
+        adapter.prefetchViews(recyclerView, section, 1);
+
+        // Then
+        verify(adapter, times(1)).logWarning("Could not inflate in the background the item view of the section with tag news", exception);
+    }
+
+    @Test
+    public void addSection_withRecycledViewPoolPrewarming_putsViewHoldersInPool() {
+        // Given
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        RecyclerView.RecycledViewPool recycledViewPool = mockRecycledViewPool(5);
+        when(recyclerView.getRecycledViewPool()).thenReturn(recycledViewPool);
+        SectionedRecyclerViewAdapter adapter = new AdapterImpl();
+        adapter.setBackgroundExecutors(new DirectExecutor(), new DirectExecutor());
+        adapter.setRecycledViewPoolPrewarming(recyclerView, 2);
+
+        // When
+        adapter.addSection(new ViewHolderSectionImpl());
+
+        // Then
+        verify(recycledViewPool, times(2)).putRecycledView(argThat(hasItemViewType(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED)));
+        verify(recycledViewPool, never()).putRecycledView(argThat(hasItemViewType(SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER)));
+        verify(recycledViewPool, never()).setMaxRecycledViews(anyInt(), anyInt());
+    }
+
+    @Test
+    public void addSection_withRecycledViewPoolPrewarmingAboveLimitOfPool_raisesLimitOnceReached() {
+        // Given
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        RecyclerView.RecycledViewPool recycledViewPool = mockRecycledViewPool(3);
+        when(recyclerView.getRecycledViewPool()).thenReturn(recycledViewPool);
+        SectionedRecyclerViewAdapter adapter = new AdapterImpl();
+        adapter.setBackgroundExecutors(new DirectExecutor(), new DirectExecutor());
+        adapter.setRecycledViewPoolPrewarming(recyclerView, 4);
+
+        // When
+        adapter.addSection(new ViewHolderSectionImpl());
+
+        // Then
+        verify(recycledViewPool, times(1)).setMaxRecycledViews(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, 4);
+        assertThat(recycledViewPool.getRecycledViewCount(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED), is(4));
+    }
+
+    @Test
+    public void addSection_withRecycledViewPoolPrewarmingFromHistogram_capsViewHolders() {
+        // Given
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        RecyclerView.RecycledViewPool recycledViewPool = mockRecycledViewPool(5);
+        when(recyclerView.getRecycledViewPool()).thenReturn(recycledViewPool);
+        ViewTypeUsageHistogram histogram = new ViewTypeUsageHistogram();
+        for (int i = 0; i < 500; i++) {
+            histogram.record("key", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        }
+        SectionedRecyclerViewAdapter adapter = new AdapterImpl();
+        adapter.setBackgroundExecutors(new DirectExecutor(), new DirectExecutor());
+        adapter.setRecycledViewPoolPrewarming(recyclerView, histogram);
+
+        // When
+        adapter.addSection(new ViewHolderSectionImpl(SectionParameters.builder().itemResourceId(-2).viewTypeKey("key")));
+
+        // Then
+        assertThat(recycledViewPool.getRecycledViewCount(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED), is(16));
+    }
+
+    @Test
+    public void addSection_withRecycledViewPoolPrewarmingOfSharedViewTypeKey_inflatesViewsOnce() {
+        // Given
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        RecyclerView.RecycledViewPool recycledViewPool = mockRecycledViewPool(5);
+        when(recyclerView.getRecycledViewPool()).thenReturn(recycledViewPool);
+        Executor backgroundExecutor = mock(Executor.class);
+        SectionedRecyclerViewAdapter adapter = new AdapterImpl();
+        adapter.setBackgroundExecutors(backgroundExecutor, new DirectExecutor());
+        adapter.setRecycledViewPoolPrewarming(recyclerView, 2);
+
+        // When
+        for (int i = 0; i < 26; i++) {
+            adapter.addSection(new ViewHolderSectionImpl(SectionParameters.builder().itemResourceId(-2).viewTypeKey("key")));
+        }
+
+        // Then
+        ArgumentCaptor<Runnable> inflation = ArgumentCaptor.forClass(Runnable.class);
+        verify(backgroundExecutor, times(1)).execute(inflation.capture());
+        inflation.getValue().run();
+        assertThat(recycledViewPool.getRecycledViewCount(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED), is(2));
+    }
+
+    @Test
+    public void addSection_withRecycledViewPoolPrewarmingOfRemovedSectionSharingViewTypeKey_putsViewHoldersInPool() {
+        // Given
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        RecyclerView.RecycledViewPool recycledViewPool = mockRecycledViewPool(5);
+        when(recyclerView.getRecycledViewPool()).thenReturn(recycledViewPool);
+        Executor backgroundExecutor = mock(Executor.class);
+        SectionedRecyclerViewAdapter adapter = new AdapterImpl();
+        adapter.setBackgroundExecutors(backgroundExecutor, new DirectExecutor());
+        adapter.setRecycledViewPoolPrewarming(recyclerView, 2);
+        Section keyedSection = new ViewHolderSectionImpl(SectionParameters.builder().itemResourceId(-2).viewTypeKey("key"));
+        adapter.addSection(keyedSection);
+        adapter.addSection(new ViewHolderSectionImpl(SectionParameters.builder().itemResourceId(-2).viewTypeKey("key")));
+
+        // When
+        adapter.removeSection(keyedSection);
+        ArgumentCaptor<Runnable> inflation = ArgumentCaptor.forClass(Runnable.class);
+        verify(backgroundExecutor, times(1)).execute(inflation.capture());
+        inflation.getValue().run();
+
+        // Then
+        assertThat(recycledViewPool.getRecycledViewCount(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED), is(2));
+    }
+
+    @Test
+    public void onCreateViewHolder_withViewTypeUsageHistogram_recordsViewTypeKey() {
+        // Given
+        ViewTypeUsageHistogram histogram = new ViewTypeUsageHistogram();
+        sectionAdapter.setViewTypeUsageHistogram(histogram);
+        sectionAdapter.addSection(new SectionImpl(SectionParameters.builder().itemResourceId(-2).viewTypeKey("key")));
+
+        // When
+        //noinspection ConstantConditions
+        sectionAdapter.onCreateViewHolder(null, 6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        //noinspection ConstantConditions
+        sectionAdapter.onCreateViewHolder(null, 12 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        //noinspection ConstantConditions
+        sectionAdapter.onCreateViewHolder(null, 12 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        assertThat(histogram.getCount("key", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED), is(2));
+        assertThat(histogram.getCount("key", SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER), is(0));
+    }
+
+    @Test
+    public void onCreateViewHolder_withMetricsListener_reportsSectionAndKindOfRow() {
+        // Given
+        SectionMetricsListener listener = mock(SectionMetricsListener.class);
+        sectionAdapter.setMetricsListener(listener);
+
+        // When
+        //noinspection ConstantConditions
+        sectionAdapter.onCreateViewHolder(null, 6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        verify(listener, times(1)).onViewHolderCreated(anyString(), same(section),
+                eq(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED), anyLong());
+        verify(listener, never()).onViewHolderBound(anyString(), any(Section.class), anyInt(), anyLong());
+    }
+
+    @Test
+    public void onBindViewHolder_withMetricsListener_reportsSectionAndKindOfRow() {
+        // Given
+        SectionMetricsListener listener = mock(SectionMetricsListener.class);
+        sectionAdapter.setMetricsListener(listener);
+        section.setState(State.EMPTY);
+
+        // When
+        // Section - Empty [10]
+        //noinspection ConstantConditions
+        sectionAdapter.onBindViewHolder(null, 10);
+
+        // Then
+        verify(listener, times(1)).onViewHolderBound(anyString(), same(section),
+                eq(SectionedRecyclerViewAdapter.VIEW_TYPE_EMPTY), anyLong());
+    }
+
+    @Test
+    public void onBindViewHolder_withTraceSectionsEnabled_tracesTagAndKindOfRow() {
+        // Given
+        SectionedRecyclerViewAdapter adapter = spy(new AdapterImpl());
+        adapter.addSection("news", section);
+        adapter.setTraceSectionsEnabled(true);
+
+        // When
+        //noinspection ConstantConditions
+        adapter.onBindViewHolder(null, 0);
+
+        // Then
+        InOrder inOrder = inOrder(adapter, section);
+        inOrder.verify(adapter).beginTraceSection("SectionBind:news:item");
+        inOrder.verify(section).onBindItemViewHolder(null, 0);
+        inOrder.verify(adapter).endTraceSection();
+    }
+
+    @Test
+    public void onCreateViewHolder_withTraceSectionsEnabledAndGeneratedTag_tracesClassName() {
+        // Given
+        SectionedRecyclerViewAdapter adapter = spy(new AdapterImpl());
+        adapter.addSection(new SectionImpl());
+        adapter.setTraceSectionsEnabled(true);
+
+        // When
+        //noinspection ConstantConditions
+        adapter.onCreateViewHolder(null, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        InOrder inOrder = inOrder(adapter);
+        inOrder.verify(adapter).beginTraceSection("SectionCreate:SectionImpl:item");
+        inOrder.verify(adapter).endTraceSection();
+    }
+
+    @Test
+    public void onCreateViewHolder_withTraceSectionsEnabledAndTagLikeGeneratedOne_tracesTag() {
+        // Given
+        SectionedRecyclerViewAdapter adapter = spy(new AdapterImpl());
+        adapter.addSection("section#news", new SectionImpl());
+        adapter.setTraceSectionsEnabled(true);
+
+        // When
+        //noinspection ConstantConditions
+        adapter.onCreateViewHolder(null, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        InOrder inOrder = inOrder(adapter);
+        inOrder.verify(adapter).beginTraceSection("SectionCreate:section#news:item");
+        inOrder.verify(adapter).endTraceSection();
+    }
+
+    @Test
+    public void onBindViewHolder_withTraceSectionsEnabledAndBindingThrowing_endsTraceSection() {
+        // Given
+        SectionedRecyclerViewAdapter adapter = spy(new AdapterImpl());
+        adapter.addSection("news", section);
+        adapter.setTraceSectionsEnabled(true);
+        doThrow(new IllegalStateException()).when(section).onBindItemViewHolder(null, 0);
+
+        // When
+        try {
+            //noinspection ConstantConditions
+            adapter.onBindViewHolder(null, 0);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+            // Then
+            verify(adapter, times(1)).beginTraceSection("SectionBind:news:item");
+            verify(adapter, times(1)).endTraceSection();
+        }
+    }
+
+    @Test
+    public void removeSection_withAttachedRecyclerView_discardsRecycledViewsWithoutChangingPoolLimits() {
+        // Given
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        RecyclerView.RecycledViewPool recycledViewPool = mock(RecyclerView.RecycledViewPool.class);
+        when(recyclerView.getRecycledViewPool()).thenReturn(recycledViewPool);
+        when(recycledViewPool.getRecycledViewCount(anyInt())).thenReturn(1);
+        sectionAdapter.onAttachedToRecyclerView(recyclerView);
+
+        // When
+        sectionAdapter.removeSection(section);
+
+        // Then
+        verify(recycledViewPool, times(1)).getRecycledView(6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        verify(recycledViewPool, never()).getRecycledView(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        verify(recycledViewPool, never()).setMaxRecycledViews(anyInt(), anyInt());
+    }
+
+    @Test
+    public void onBindViewHolder_afterViewHolderOfRemovedSectionRecycled_discardsItFromPool() {
+        // Given
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        RecyclerView.RecycledViewPool recycledViewPool = mock(RecyclerView.RecycledViewPool.class);
+        when(recyclerView.getRecycledViewPool()).thenReturn(recycledViewPool);
+        sectionAdapter.setBackgroundExecutors(new DirectExecutor(), mock(Executor.class));
+        sectionAdapter.onAttachedToRecyclerView(recyclerView);
+        Section removedSection = new ViewHolderSectionImpl();
+        sectionAdapter.addSection(removedSection); // View types 12-17, items 20-29
+        //noinspection ConstantConditions
+        RecyclerView.ViewHolder staleViewHolder = sectionAdapter.createViewHolder(null, 12 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        sectionAdapter.removeSection(removedSection);
+        sectionAdapter.addSection(new ViewHolderSectionImpl()); // View types 12-17 reused
+        //noinspection ConstantConditions
+        RecyclerView.ViewHolder viewHolder = sectionAdapter.createViewHolder(null, 12 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        sectionAdapter.onViewRecycled(staleViewHolder);
+        when(recycledViewPool.getRecycledViewCount(12 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED)).thenReturn(1);
+        when(recycledViewPool.getRecycledView(12 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED)).thenReturn(staleViewHolder);
+
+        // When
+        sectionAdapter.getItemViewType(20);
+
+        // Then
+        verify(recycledViewPool, never()).getRecycledView(anyInt());
+
+        // When
+        sectionAdapter.onBindViewHolder(viewHolder, 20);
+
+        // Then
+        verify(recycledViewPool, times(1)).getRecycledView(12 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        verify(recycledViewPool, never()).putRecycledView(any(RecyclerView.ViewHolder.class));
+    }
+
+    @Test
+    public void addSection_afterSectionWithDisplayedViewHolderRemoved_reusesItsViewTypesOnceTheViewHolderIsRecycled() {
+        // Given
+        SectionedRecyclerViewAdapter adapter = spy(new AdapterImpl());
+        adapter.setBackgroundExecutors(new DirectExecutor(), mock(Executor.class));
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        when(recyclerView.getRecycledViewPool()).thenReturn(mock(RecyclerView.RecycledViewPool.class));
+        adapter.onAttachedToRecyclerView(recyclerView);
+        Section removedSection = new ViewHolderSectionImpl();
+        adapter.addSection(removedSection); // View types 0-5
+        //noinspection ConstantConditions
+        RecyclerView.ViewHolder displayedViewHolder = adapter.createViewHolder(null, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        doReturn(true).when(adapter).isViewHolderBound(displayedViewHolder);
+        adapter.removeSection(removedSection);
+        adapter.addSection(new ViewHolderSectionImpl()); // View types 6-11, items 0-9
+
+        // When
+        // notifyDataSetChanged puts the displayed ViewHolder in the pool before the new section asks for one
+        doReturn(false).when(adapter).isViewHolderBound(displayedViewHolder);
+        adapter.onViewRecycled(displayedViewHolder);
+        int result = adapter.getItemViewType(0);
+
+        // Then
+        assertThat(result, is(6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+
+        // When
+        adapter.addSection(new ViewHolderSectionImpl()); // View types 0-5 reused, items 10-19
+        int result2 = adapter.getItemViewType(10);
+
+        // Then
+        assertThat(result2, is(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+    }
+
     @Test
     public void onCreateViewHolder_withItemViewProvided_calls_getItemView() {
         // Given
@@ -455,6 +946,59 @@ public class SectionBindingTest {
         verify(headedFootedSection, times(1)).onBindFooterViewHolder(null);
     }
 
+    @Test
+    public void onBindViewHolderWithPayloads_withHeadedFootedSection_isCalledWithPayloads() {
+        // Given
+        Section headedFootedSection = spy(new SectionImpl(SectionParameters.builder()
+                .itemResourceId(-1)
+                .headerResourceId(-1)
+                .footerResourceId(-1)));
+        sectionAdapter.addSection(headedFootedSection); // Third section, items 10-19
+        List<Object> payloads = Collections.<Object>singletonList("payload");
+
+        // When
+        // HeadedFootedSection - Header [20]
+        //noinspection ConstantConditions
+        sectionAdapter.onBindViewHolder(null, 20, payloads);
+        // HeadedFootedSection - Items [21-30]
+        //noinspection ConstantConditions
+        sectionAdapter.onBindViewHolder(null, 23, payloads);
+        // HeadedFootedSection - Footer [31]
+        //noinspection ConstantConditions
+        sectionAdapter.onBindViewHolder(null, 31, payloads);
+
+        // Then
+        verify(headedFootedSection, times(1)).onBindHeaderViewHolder(null, payloads);
+        verify(headedFootedSection, times(1)).onBindItemViewHolder(null, 23 - 21, payloads);
+        verify(headedFootedSection, times(1)).onBindFooterViewHolder(null, payloads);
+    }
+
+    @Test
+    public void onBindViewHolderWithPayloads_withEmptyPayloads_isCalledWithoutPayloads() {
+        // When
+        // Section - Items [10-19]
+        //noinspection ConstantConditions
+        sectionAdapter.onBindViewHolder(null, 10, Collections.emptyList());
+
+        // Then
+        verify(section, never()).onBindItemViewHolder(null, 0, Collections.emptyList());
+        verify(section, times(1)).onBindItemViewHolder(null, 0);
+    }
+
+    @Test
+    public void onBindViewHolderWithPayloads_withSectionInLoadingState_isCalledWithoutPayloads() {
+        // Given
+        section.setState(State.LOADING);
+
+        // When
+        // Section - Loading [10]
+        //noinspection ConstantConditions
+        sectionAdapter.onBindViewHolder(null, 10, Collections.<Object>singletonList("payload"));
+
+        // Then
+        verify(section, times(1)).onBindLoadingViewHolder(null);
+    }
+
     private static class SectionImpl extends Section {
 
         SectionImpl(SectionParameters.Builder builder) {
@@ -485,20 +1029,98 @@ public class SectionBindingTest {
         }
     }
 
+    private static class ViewHolderSectionImpl extends SectionImpl {
+
+        ViewHolderSectionImpl() {
+            this(SectionParameters.builder().itemResourceId(-2));
+        }
+
+        ViewHolderSectionImpl(SectionParameters.Builder builder) {
+            super(builder);
+        }
+
+        @Override
+        public RecyclerView.ViewHolder getItemViewHolder(View view) {
+            return new RecyclerView.ViewHolder(view) {
+            };
+        }
+    }
+
     /**
-     * Override the inflate method in order to avoid mocking the LayoutInflater.
+     * Override the inflate methods in order to avoid mocking the LayoutInflater of the context.
      */
     private static class AdapterImpl extends SectionedRecyclerViewAdapter {
         @Override
         View inflate(int layoutResourceId, ViewGroup parent) {
             return dummyViewWithTag(layoutResourceId);
         }
+
+        @Override
+        LayoutInflater cloneLayoutInflater(ViewGroup parent) {
+            LayoutInflater inflater = mock(LayoutInflater.class);
+            View view = dummyViewWithTag(PREFETCHED_VIEW_TAG);
+            when(inflater.inflate(anyInt(), any(ViewGroup.class), anyBoolean())).thenReturn(view);
+            return inflater;
+        }
+
+        // the message queue of the main thread is not available in unit tests
+        @Override
+        void runWhenIdle(Runnable task) {
+            task.run();
+        }
+    }
+
+    private static class DirectExecutor implements Executor {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
     }
 
     /**
      * @param tag Any integer value.
      * @return A View that will have its tag set to the given value, to recognize it later on.
      */
+    /**
+     * @param maxRecycledViews Limit of ViewHolders of each view type, until it is changed.
+     * @return A mocked RecycledViewPool that counts the ViewHolders put in it, up to its limit.
+     */
+    private static RecyclerView.RecycledViewPool mockRecycledViewPool(final int maxRecycledViews) {
+        final Map<Integer, Integer> recycledViewCounts = new HashMap<>();
+        final Map<Integer, Integer> maxRecycledViewCounts = new HashMap<>();
+        RecyclerView.RecycledViewPool recycledViewPool = mock(RecyclerView.RecycledViewPool.class);
+        when(recycledViewPool.getRecycledViewCount(anyInt())).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) {
+                Integer count = recycledViewCounts.get(invocation.<Integer>getArgument(0));
+                return count != null ? count : 0;
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                maxRecycledViewCounts.put(invocation.<Integer>getArgument(0), invocation.<Integer>getArgument(1));
+                return null;
+            }
+        }).when(recycledViewPool).setMaxRecycledViews(anyInt(), anyInt());
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                int viewType = invocation.<RecyclerView.ViewHolder>getArgument(0).getItemViewType();
+                Integer count = recycledViewCounts.get(viewType);
+                Integer max = maxRecycledViewCounts.get(viewType);
+                if (count == null) {
+                    count = 0;
+                }
+                if (count < (max != null ? max : maxRecycledViews)) {
+                    recycledViewCounts.put(viewType, count + 1);
+                }
+                return null;
+            }
+        }).when(recycledViewPool).putRecycledView(any(RecyclerView.ViewHolder.class));
+        return recycledViewPool;
+    }
+
     private static View dummyViewWithTag(int tag) {
         View view = mock(View.class);
         when(view.getTag()).thenReturn(tag);
@@ -517,4 +1139,17 @@ public class SectionBindingTest {
             }
         };
     }
+
+    /**
+     * @param viewType View type of the adapter.
+     * @return A Mockito argument matcher to check whether the argument was a ViewHolder created for the given view type.
+     */
+    private static ArgumentMatcher<RecyclerView.ViewHolder> hasItemViewType(final int viewType) {
+        return new ArgumentMatcher<RecyclerView.ViewHolder>() {
+            @Override
+            public boolean matches(RecyclerView.ViewHolder argument) {
+                return argument != null && argument.getItemViewType() == viewType;
+            }
+        };
+    }
 }
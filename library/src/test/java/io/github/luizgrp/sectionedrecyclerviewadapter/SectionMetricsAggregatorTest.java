@@ -0,0 +1,159 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.HeadedFootedStatelessSectionStub;
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.StatelessSectionStub;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * Unit tests for SectionMetricsAggregator
+ */
+@SuppressWarnings({"PMD.MethodNamingConventions"})
+public class SectionMetricsAggregatorTest {
+
+    private static final int ITEMS_QTY = 10;
+
+    private SectionMetricsAggregator aggregator;
+
+    @Before
+    public void setup() {
+        aggregator = new SectionMetricsAggregator();
+    }
+
+    @Test
+    public void getBindTimings_withHundredTimings_returnsPercentiles() {
+        // Given
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        for (int i = 100; i >= 1; i--) {
+            aggregator.onViewHolderBound("a", section, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, i);
+        }
+
+        // When
+        SectionMetricsAggregator.Timings result = aggregator.getBindTimings("a");
+
+        // Then
+        //noinspection ConstantConditions
+        assertThat(result.getCount(), is(100));
+        assertThat(result.getP50Nanos(), is(50L));
+        assertThat(result.getP95Nanos(), is(95L));
+        assertThat(result.getP99Nanos(), is(99L));
+        assertThat(result.getSectionClass().getName(), is(StatelessSectionStub.class.getName()));
+    }
+
+    @Test
+    public void getBindTimings_withMoreTimingsThanSamples_returnsCountAndEstimatedPercentiles() {
+        // Given
+        Section section = new HeadedFootedStatelessSectionStub(ITEMS_QTY);
+        int timingsQty = SectionMetricsAggregator.MAX_SAMPLES * 10;
+        for (int i = 1; i <= timingsQty; i++) {
+            aggregator.onViewHolderBound("a", section, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, i);
+        }
+        aggregator.onViewHolderBound("a", section, SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER, timingsQty * 2);
+
+        // When
+        SectionMetricsAggregator.Timings result = aggregator.getBindTimings("a");
+
+        // Then
+        //noinspection ConstantConditions
+        assertThat(result.getCount(), is(timingsQty + 1));
+        assertTrue(Math.abs(result.getP50Nanos() - timingsQty / 2) < timingsQty / 10);
+        assertTrue(Math.abs(result.getP95Nanos() - timingsQty * 95 / 100) < timingsQty / 10);
+    }
+
+    @Test
+    public void getCreateTimings_withSectionViewType_onlyReturnsTimingsOfThatKindOfRow() {
+        // Given
+        Section section = new HeadedFootedStatelessSectionStub(ITEMS_QTY);
+        aggregator.onViewHolderCreated("a", section, SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER, 1000);
+        aggregator.onViewHolderCreated("a", section, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, 10);
+        aggregator.onViewHolderCreated("a", section, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, 20);
+        aggregator.onViewHolderCreated("b", new StatelessSectionStub(ITEMS_QTY), SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, 5);
+
+        // When
+        SectionMetricsAggregator.Timings result = aggregator.getCreateTimings("a", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        SectionMetricsAggregator.Timings result2 = aggregator.getCreateTimings("a");
+
+        // Then
+        //noinspection ConstantConditions
+        assertThat(result.getCount(), is(2));
+        assertThat(result.getP99Nanos(), is(20L));
+        //noinspection ConstantConditions
+        assertThat(result2.getCount(), is(3));
+        assertThat(result2.getP99Nanos(), is(1000L));
+        //noinspection ConstantConditions
+        assertThat(aggregator.getBindTimings("a").getCount(), is(0));
+    }
+
+    @Test
+    public void getBindTimings_withMoreSectionsThanKept_returnsNullForLeastRecentlyReported() {
+        // Given
+        int maxSections = 4;
+        aggregator = new SectionMetricsAggregator(maxSections);
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        for (int i = 0; i < maxSections; i++) {
+            aggregator.onViewHolderBound("tag" + i, section, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, 10);
+        }
+        aggregator.onViewHolderBound("tag0", section, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, 10);
+        aggregator.getBindTimings("tag1");
+
+        // When
+        aggregator.onViewHolderBound("new", section, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, 10);
+
+        // Then
+        assertNull(aggregator.getBindTimings("tag1"));
+        assertThat(aggregator.getTags().size(), is(maxSections));
+        //noinspection ConstantConditions
+        assertThat(aggregator.getBindTimings("tag0").getCount(), is(2));
+        //noinspection ConstantConditions
+        assertThat(aggregator.getBindTimings("new").getCount(), is(1));
+    }
+
+    @Test
+    public void getTags_whileReadingTheTimingsOfEachTag_returnsTagsInReportedOrder() {
+        // Given
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        aggregator.onViewHolderBound("a", section, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, 10);
+        aggregator.onViewHolderBound("b", section, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, 10);
+        aggregator.onViewHolderCreated("c", section, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, 10);
+        List<String> result = new ArrayList<>();
+
+        // When
+        for (String tag : aggregator.getTags()) {
+            aggregator.getBindTimings(tag);
+            aggregator.getCreateTimings(tag);
+            result.add(tag);
+        }
+
+        // Then
+        assertThat(result, is(Arrays.asList("a", "b", "c")));
+        assertThat(new ArrayList<>(aggregator.getTags()), is(Arrays.asList("a", "b", "c")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_withZeroMaxSections_throwsException() {
+        new SectionMetricsAggregator(0);
+    }
+
+    @Test
+    public void getCreateTimings_afterReset_returnsNull() {
+        // Given
+        aggregator.onViewHolderCreated("a", new StatelessSectionStub(ITEMS_QTY), SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED, 10);
+
+        // When
+        aggregator.reset();
+
+        // Then
+        assertNull(aggregator.getCreateTimings("a"));
+        assertThat(aggregator.getTags().isEmpty(), is(true));
+    }
+}
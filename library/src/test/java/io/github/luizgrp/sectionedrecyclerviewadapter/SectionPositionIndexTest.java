@@ -0,0 +1,369 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.HeadedFootedStatelessSectionStub;
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.SectionStub;
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.StatelessSectionStub;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+/*
+ * Unit tests for SectionPositionIndex
+ */
+@SuppressWarnings({"PMD.MethodNamingConventions"})
+public class SectionPositionIndexTest {
+
+    private static final int ITEMS_QTY = 10;
+
+    private SectionPositionIndex positionIndex;
+
+    @Before
+    public void setup() {
+        positionIndex = new SectionPositionIndex();
+    }
+
+    @Test
+    public void findSectionIndex_withEmptyIndex_returnsMinusOne() {
+        // When
+        int result = positionIndex.findSectionIndex(0);
+
+        // Then
+        assertThat(result, is(-1));
+    }
+
+    @Test
+    public void findSectionIndex_withInvisibleAndEmptySections_returnsCorrectIndex() {
+        // Given
+        positionIndex.add("a", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+        Section invisibleSection = new StatelessSectionStub(ITEMS_QTY);
+        invisibleSection.setVisible(false);
+        positionIndex.add("b", invisibleSection, 0, 0);
+        positionIndex.add("c", new StatelessSectionStub(0), 0, 0);
+        positionIndex.add("d", new HeadedFootedStatelessSectionStub(ITEMS_QTY), 0, 0);
+
+        // When
+        int result = positionIndex.findSectionIndex(9);
+        int result2 = positionIndex.findSectionIndex(10);
+        int result3 = positionIndex.findSectionIndex(21);
+        int result4 = positionIndex.findSectionIndex(22);
+
+        // Then
+        assertThat(result, is(0));
+        assertThat(result2, is(3));
+        assertThat(result3, is(3));
+        assertThat(result4, is(-1));
+    }
+
+    @Test
+    public void getSectionStart_afterInvalidate_returnsUpdatedPosition() {
+        // Given
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        positionIndex.add("a", section, 0, 0);
+        positionIndex.add("b", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+        positionIndex.getItemCount();
+
+        // When
+        section.setHasHeader(true);
+        positionIndex.invalidate(0);
+        int result = positionIndex.getSectionStart(1);
+
+        // Then
+        assertThat(result, is(ITEMS_QTY + 1));
+    }
+
+    @Test
+    public void getItemCount_afterRemove_returnsUpdatedCount() {
+        // Given
+        positionIndex.add("a", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+        positionIndex.add("b", new HeadedFootedStatelessSectionStub(ITEMS_QTY), 0, 0);
+        positionIndex.add("c", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+        positionIndex.getItemCount();
+
+        // When
+        positionIndex.remove(1);
+        int result = positionIndex.getItemCount();
+
+        // Then
+        assertThat(result, is(ITEMS_QTY * 2));
+        assertThat(positionIndex.getTag(1), is("c"));
+    }
+
+    @Test
+    public void invalidateFromPosition_withItemsInsertedInLastSection_returnsUpdatedCount() {
+        // Given
+        positionIndex.add("a", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+        MutableSectionStub section = new MutableSectionStub(ITEMS_QTY);
+        positionIndex.add("b", section, 0, 0);
+        positionIndex.getItemCount();
+
+        // When
+        section.contentItemsTotal = ITEMS_QTY + 5;
+        positionIndex.invalidateFromPosition(ITEMS_QTY * 2);
+        int result = positionIndex.getItemCount();
+
+        // Then
+        assertThat(result, is(ITEMS_QTY * 2 + 5));
+    }
+
+    @Test
+    public void getItemCount_afterInvalidate_onlyRecountsInvalidatedSection() {
+        // Given
+        MutableSectionStub section = new MutableSectionStub(ITEMS_QTY);
+        MutableSectionStub section2 = new MutableSectionStub(ITEMS_QTY);
+        positionIndex.add("a", section, 0, 0);
+        positionIndex.add("b", section2, 0, 0);
+        positionIndex.getItemCount();
+
+        // When
+        section.contentItemsTotal = ITEMS_QTY + 5;
+        positionIndex.invalidate(0);
+        int result = positionIndex.getItemCount();
+
+        // Then
+        assertThat(result, is(ITEMS_QTY * 2 + 5));
+        assertThat(section.countRequests, is(2));
+        assertThat(section2.countRequests, is(1));
+    }
+
+    @Test
+    public void getItemCount_withoutChanges_doesNotRecountSections() {
+        // Given
+        MutableSectionStub section = new MutableSectionStub(ITEMS_QTY);
+        positionIndex.add("a", section, 0, 0);
+        positionIndex.getItemCount();
+
+        // When
+        int result = positionIndex.getItemCount();
+
+        // Then
+        assertThat(result, is(ITEMS_QTY));
+        assertThat(section.countRequests, is(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void checkItemCounts_withSectionChangedWithoutInvalidate_throwsException() {
+        // Given
+        MutableSectionStub section = new MutableSectionStub(ITEMS_QTY);
+        positionIndex.add("a", section, 0, 0);
+        positionIndex.getItemCount();
+        section.contentItemsTotal = ITEMS_QTY + 5;
+
+        // When
+        positionIndex.checkItemCounts();
+    }
+
+    @Test
+    public void indexOf_afterRemove_returnsShiftedIndex() {
+        // Given
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        Section section2 = new StatelessSectionStub(ITEMS_QTY);
+        Section section3 = new StatelessSectionStub(ITEMS_QTY);
+        positionIndex.add("a", section, 0, 0);
+        positionIndex.add("b", section2, 0, 0);
+        positionIndex.add("c", section3, 0, 0);
+
+        // When
+        positionIndex.remove(0);
+
+        // Then
+        assertThat(positionIndex.indexOf(section), is(-1));
+        assertThat(positionIndex.indexOf(section2), is(0));
+        assertThat(positionIndex.indexOf(section3), is(1));
+    }
+
+    @Test
+    public void indexOf_withSectionAddedWithTwoTags_returnsIndexOfTag() {
+        // Given
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        positionIndex.add("a", section, 0, 0);
+        positionIndex.add("b", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+        positionIndex.add("c", section, 0, 0);
+
+        // When
+        positionIndex.remove(2);
+        int result = positionIndex.indexOf(section);
+        int result2 = positionIndex.indexOf("a", section);
+        int result3 = positionIndex.indexOf("c", section);
+
+        // Then
+        assertThat(result, is(0));
+        assertThat(result2, is(0));
+        assertThat(result3, is(-1));
+    }
+
+    @Test
+    public void insert_withSectionInTheMiddle_shiftsNextSections() {
+        // Given
+        positionIndex.add("a", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        positionIndex.add("c", section, 0, 0);
+        positionIndex.getItemCount();
+
+        // When
+        positionIndex.insert(1, "b", new HeadedFootedStatelessSectionStub(ITEMS_QTY), 0, 0);
+
+        // Then
+        assertThat(positionIndex.getItemCount(), is(ITEMS_QTY * 3 + 2));
+        assertThat(positionIndex.getTag(1), is("b"));
+        assertThat(positionIndex.indexOf(section), is(2));
+        assertThat(positionIndex.getSectionStart(2), is(ITEMS_QTY * 2 + 2));
+    }
+
+    @Test
+    public void move_withFirstSectionMovedToTheEnd_shiftsSectionsInBetween() {
+        // Given
+        Section section = new HeadedFootedStatelessSectionStub(ITEMS_QTY);
+        positionIndex.add("a", section, 0, 0);
+        positionIndex.add("b", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+        positionIndex.add("c", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+        positionIndex.getItemCount();
+
+        // When
+        positionIndex.move(0, 2);
+
+        // Then
+        assertThat(positionIndex.getItemCount(), is(ITEMS_QTY * 3 + 2));
+        assertThat(positionIndex.getTag(0), is("b"));
+        assertThat(positionIndex.indexOf(section), is(2));
+        assertThat(positionIndex.getSectionStart(2), is(ITEMS_QTY * 2));
+        assertThat(positionIndex.findSectionIndex(ITEMS_QTY * 2), is(2));
+    }
+
+    @Test
+    public void resolve_withHeadedFootedSection_returnsCorrectCursor() {
+        // Given
+        positionIndex.add("a", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+        positionIndex.add("b", new HeadedFootedStatelessSectionStub(ITEMS_QTY), 0, 0);
+
+        // When
+        PositionCursor header = positionIndex.resolve(10);
+        int headerViewType = header.sectionViewType;
+        PositionCursor item = positionIndex.resolve(12);
+        int itemViewType = item.sectionViewType;
+        int positionInSection = item.positionInSection;
+        PositionCursor footer = positionIndex.resolve(21);
+
+        // Then
+        assertThat(headerViewType, is(SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER));
+        assertThat(itemViewType, is(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+        assertThat(positionInSection, is(1));
+        assertThat(footer.sectionViewType, is(SectionedRecyclerViewAdapter.VIEW_TYPE_FOOTER));
+        assertThat(footer.tag, is("b"));
+        assertThat(footer.sectionStart, is(10));
+    }
+
+    @Test
+    public void resolve_withOutOfBoundsPosition_returnsNull() {
+        // Given
+        positionIndex.add("a", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+
+        // When
+        PositionCursor result = positionIndex.resolve(ITEMS_QTY);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void resolve_withSamePositionTwice_reusesCursor() {
+        // Given
+        positionIndex.add("a", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+
+        // When
+        PositionCursor result = positionIndex.resolve(5);
+        PositionCursor result2 = positionIndex.resolve(5);
+
+        // Then
+        assertSame(result, result2);
+    }
+
+    @Test
+    public void resolve_afterSectionInvalidated_returnsUpdatedCursor() {
+        // Given
+        Section section = new SectionStub(ITEMS_QTY);
+        positionIndex.add("a", section, 0, 0);
+        positionIndex.resolve(0);
+
+        // When
+        section.setState(Section.State.LOADING);
+        positionIndex.invalidate(0);
+        positionIndex.getItemCount();
+        PositionCursor result = positionIndex.resolve(0);
+
+        // Then
+        assertThat(result.sectionViewType, is(SectionedRecyclerViewAdapter.VIEW_TYPE_LOADING));
+    }
+
+    @Test
+    public void resolve_withSectionsMoved_returnsViewTypeAndSectionIdOfSection() {
+        // Given
+        positionIndex.add("a", new StatelessSectionStub(ITEMS_QTY), 0, 0);
+        positionIndex.add("b", new HeadedFootedStatelessSectionStub(ITEMS_QTY), 6, 1);
+        positionIndex.add("c", new StatelessSectionStub(ITEMS_QTY), 12, 2);
+
+        // When
+        positionIndex.move(1, 0);
+        positionIndex.remove(2);
+        PositionCursor header = positionIndex.resolve(0);
+        int headerViewType = header.viewType;
+        int headerSectionId = header.sectionId;
+        PositionCursor item = positionIndex.resolve(ITEMS_QTY + 2);
+
+        // Then
+        assertThat(headerViewType, is(6 + SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER));
+        assertThat(headerSectionId, is(1));
+        assertThat(item.viewType, is(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+        assertThat(item.sectionId, is(0));
+    }
+
+    @Test
+    public void set_withNewSection_keepsSectionId() {
+        // Given
+        positionIndex.add("a", new StatelessSectionStub(ITEMS_QTY), 0, 3);
+
+        // When
+        positionIndex.set(0, "a", new HeadedFootedStatelessSectionStub(ITEMS_QTY), 6);
+        positionIndex.getItemCount();
+        PositionCursor result = positionIndex.resolve(0);
+
+        // Then
+        assertThat(result.viewType, is(6 + SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER));
+        assertThat(result.sectionId, is(3));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void checkItemCounts_withHeaderAndFooterSwappedWithoutInvalidate_throwsException() {
+        // Given
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        section.setHasHeader(true);
+        positionIndex.add("a", section, 0, 0);
+        positionIndex.getItemCount();
+        section.setHasHeader(false);
+        section.setHasFooter(true);
+
+        // When
+        positionIndex.checkItemCounts();
+    }
+
+    private static class MutableSectionStub extends StatelessSectionStub {
+
+        private int contentItemsTotal;
+        private int countRequests;
+
+        MutableSectionStub(int contentItemsTotal) {
+            super(contentItemsTotal);
+            this.contentItemsTotal = contentItemsTotal;
+        }
+
+        @Override
+        public int getContentItemsTotal() {
+            countRequests++;
+            return contentItemsTotal;
+        }
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.lang.ref.WeakReference;
+
 import static io.github.luizgrp.sectionedrecyclerviewadapter.Section.State;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -187,6 +189,30 @@ public class SectionTest {
         section.setState(State.EMPTY);
     }
 
+    @Test
+    public void onAddedToAdapter_withAdapterNoLongerReferenced_doesNotKeepAdapter() throws InterruptedException {
+        // Given
+        @SuppressWarnings("ResourceType")
+        Section section = getSection(SectionParameters.builder().itemResourceId(1).build());
+        WeakReference<SectionedRecyclerViewAdapter> adapterReference = addToNewAdapter(section);
+
+        // When
+        for (int i = 0; i < 20 && adapterReference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertThat(adapterReference.get(), is(nullValue()));
+    }
+
+    private static WeakReference<SectionedRecyclerViewAdapter> addToNewAdapter(Section section) {
+        SectionedRecyclerViewAdapter adapter = new SectionedRecyclerViewAdapter();
+        adapter.addSection(section);
+
+        return new WeakReference<>(adapter);
+    }
+
     private Section getSection(SectionParameters sectionParameters) {
         return new Section(sectionParameters) {
             @Override
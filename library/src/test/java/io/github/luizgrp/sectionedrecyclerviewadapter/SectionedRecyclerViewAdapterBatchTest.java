@@ -0,0 +1,180 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.HeadedFootedStatelessSectionStub;
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.StatelessSectionStub;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/*
+ * Unit tests for SectionedRecyclerViewAdapter, testing specifically the batches of notifications.
+ */
+@SuppressWarnings({"PMD.MethodNamingConventions"})
+public class SectionedRecyclerViewAdapterBatchTest {
+
+    private static final int ITEMS_QTY = 10;
+    private static final Object PAYLOAD = new Object();
+
+    @Spy
+    private SectionedRecyclerViewAdapter spySectionedRecyclerViewAdapter;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemInserted(anyInt());
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemChanged(anyInt());
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeChanged(anyInt(), anyInt(), any());
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyDataSetChanged();
+    }
+
+    @Test
+    public void endBatch_withAdjacentItemsInserted_callsSuperNotifyItemRangeInsertedOnce() {
+        // Given
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        HeadedFootedStatelessSectionStub section = new HeadedFootedStatelessSectionStub(ITEMS_QTY);
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        spySectionedRecyclerViewAdapter.beginBatch();
+        spySectionedRecyclerViewAdapter.notifyItemInsertedInSection(section, 0);
+        spySectionedRecyclerViewAdapter.notifyItemInsertedInSection(section, 1);
+        spySectionedRecyclerViewAdapter.notifyItemRangeInsertedInSection(section, 2, 2);
+        spySectionedRecyclerViewAdapter.endBatch();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(11, 4);
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemInserted(anyInt());
+    }
+
+    @Test
+    public void endBatch_withOverlappingItemsChanged_callsSuperNotifyItemRangeChangedOnce() {
+        // Given
+        StatelessSectionStub section = new StatelessSectionStub(ITEMS_QTY);
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        spySectionedRecyclerViewAdapter.beginBatch();
+        spySectionedRecyclerViewAdapter.notifyItemRangeChangedInSection(section, 2, 3, PAYLOAD);
+        spySectionedRecyclerViewAdapter.notifyItemChangedInSection(section, 5, PAYLOAD);
+        spySectionedRecyclerViewAdapter.notifyItemRangeChangedInSection(section, 1, 2, PAYLOAD);
+        spySectionedRecyclerViewAdapter.endBatch();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeChanged(1, 5, PAYLOAD);
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemChanged(anyInt());
+    }
+
+    @Test
+    public void endBatch_withItemsInsertedInManySections_callsSuperNotifyFromLastSectionToFirst() {
+        // Given
+        StatelessSectionStub section = new StatelessSectionStub(ITEMS_QTY);
+        StatelessSectionStub section2 = new StatelessSectionStub(ITEMS_QTY);
+        spySectionedRecyclerViewAdapter.addSection(section);
+        spySectionedRecyclerViewAdapter.addSection(section2);
+
+        // When
+        spySectionedRecyclerViewAdapter.beginBatch();
+        spySectionedRecyclerViewAdapter.notifyItemInsertedInSection(section, 0);
+        spySectionedRecyclerViewAdapter.notifyItemInsertedInSection(section2, 0);
+        spySectionedRecyclerViewAdapter.endBatch();
+
+        // Then
+        InOrder inOrder = inOrder(spySectionedRecyclerViewAdapter);
+        inOrder.verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(ITEMS_QTY - 1, 1);
+        inOrder.verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(0, 1);
+    }
+
+    @Test
+    public void endBatch_withNestedBatch_callsSuperNotifyOnlyAfterOutermostBatch() {
+        // Given
+        StatelessSectionStub section = new StatelessSectionStub(ITEMS_QTY);
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        spySectionedRecyclerViewAdapter.beginBatch();
+        spySectionedRecyclerViewAdapter.beginBatch();
+        spySectionedRecyclerViewAdapter.notifyItemInsertedInSection(section, 0);
+        spySectionedRecyclerViewAdapter.endBatch();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+
+        // When
+        spySectionedRecyclerViewAdapter.endBatch();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(0, 1);
+    }
+
+    @Test
+    public void endBatch_withSectionRemovedDuringBatch_callsSuperNotifyDataSetChanged() {
+        // Given
+        StatelessSectionStub section = new StatelessSectionStub(ITEMS_QTY);
+        spySectionedRecyclerViewAdapter.addSection(section);
+        String tag = spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+
+        // When
+        spySectionedRecyclerViewAdapter.beginBatch();
+        spySectionedRecyclerViewAdapter.notifyItemInsertedInSection(section, 0);
+        spySectionedRecyclerViewAdapter.removeSection(tag);
+        spySectionedRecyclerViewAdapter.endBatch();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyDataSetChanged();
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+    }
+
+    @Test
+    public void endBatch_withOnlySectionAddedDuringBatch_callsSuperNotifyDataSetChanged() {
+        // Given
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+
+        // When
+        spySectionedRecyclerViewAdapter.beginBatch();
+        spySectionedRecyclerViewAdapter.addSection(0, "new", new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.endBatch();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyDataSetChanged();
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notifyItemInsertedInSection_withInvisibleSectionDuringBatch_throwsException() {
+        // Given
+        StatelessSectionStub section = new StatelessSectionStub(ITEMS_QTY);
+        section.setVisible(false);
+        spySectionedRecyclerViewAdapter.addSection(section);
+        spySectionedRecyclerViewAdapter.beginBatch();
+
+        // When
+        spySectionedRecyclerViewAdapter.notifyItemInsertedInSection(section, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notifyItemChangedInSection_withSectionNotInAdapterDuringBatch_throwsException() {
+        // Given
+        spySectionedRecyclerViewAdapter.beginBatch();
+
+        // When
+        spySectionedRecyclerViewAdapter.notifyItemChangedInSection(new StatelessSectionStub(ITEMS_QTY), 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void endBatch_withoutBatch_throwsException() {
+        // When
+        spySectionedRecyclerViewAdapter.endBatch();
+    }
+}
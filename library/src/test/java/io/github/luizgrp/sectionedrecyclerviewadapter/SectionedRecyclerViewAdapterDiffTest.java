@@ -0,0 +1,363 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.StatelessSectionStub;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/*
+ * Unit tests for SectionedRecyclerViewAdapter, testing specifically the diffs submitted for the
+ * sections.
+ */
+@SuppressWarnings({"PMD.MethodNamingConventions"})
+public class SectionedRecyclerViewAdapterDiffTest {
+
+    private static final int ITEMS_QTY = 10;
+
+    private final Queue<Runnable> backgroundTasks = new ArrayDeque<>();
+
+    @Spy
+    private SectionedRecyclerViewAdapter spySectionedRecyclerViewAdapter;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        spySectionedRecyclerViewAdapter.setBackgroundExecutors(new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                backgroundTasks.add(command);
+            }
+        }, new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                command.run();
+            }
+        });
+
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(anyInt(), anyInt());
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemMoved(anyInt(), anyInt());
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyDataSetChanged();
+    }
+
+    @Test
+    public void submitSectionDiff_withItemInserted_callsSuperNotifyItemRangeInserted() {
+        // Given
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        ListSection section = new ListSection(Arrays.asList("a", "b"));
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSectionDiff(section, new ListDiffCallback(section, Arrays.asList("a", "b", "c")));
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(12, 1);
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(13));
+    }
+
+    @Test
+    public void submitSectionDiff_withItemRemoved_callsSuperNotifyItemRangeRemoved() {
+        // Given
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        ListSection section = new ListSection(Arrays.asList("a", "b", "c"));
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSectionDiff(section, new ListDiffCallback(section, Arrays.asList("a", "c")));
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(11, 1);
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(12));
+    }
+
+    @Test
+    public void submitSectionDiff_withNewerDiffSubmitted_discardsOlderDiff() {
+        // Given
+        ListSection section = new ListSection(Collections.singletonList("a"));
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSectionDiff(section, new ListDiffCallback(section, Arrays.asList("a", "b")));
+        spySectionedRecyclerViewAdapter.submitSectionDiff(section, new ListDiffCallback(section, Arrays.asList("a", "c", "d")));
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeInserted(1, 1);
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(1, 2);
+        assertThat(section.list, is(Arrays.asList("a", "c", "d")));
+    }
+
+    @Test
+    public void submitSectionDiffs_withManySections_callsSuperNotifyWithUpdatedPositions() {
+        // Given
+        ListSection section = new ListSection(Arrays.asList("a", "b"));
+        ListSection section2 = new ListSection(Arrays.asList("a", "b"));
+        spySectionedRecyclerViewAdapter.addSection(section);
+        spySectionedRecyclerViewAdapter.addSection(section2);
+
+        Map<Section, SectionDiffCallback> callbacks = new LinkedHashMap<>();
+        callbacks.put(section2, new ListDiffCallback(section2, Collections.singletonList("a")));
+        callbacks.put(section, new ListDiffCallback(section, Arrays.asList("a", "b", "c")));
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSectionDiffs(callbacks);
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(2, 1);
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(4, 1);
+    }
+
+    @Test
+    public void submitSectionDiff_withInvisibleSection_appliesNewContentWithoutNotifying() {
+        // Given
+        ListSection section = new ListSection(Arrays.asList("a", "b"));
+        spySectionedRecyclerViewAdapter.addSection(section);
+        section.setVisible(false);
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSectionDiff(section, new ListDiffCallback(section, Arrays.asList("a", "b", "c")));
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+        assertThat(section.list, is(Arrays.asList("a", "b", "c")));
+    }
+
+    @Test
+    public void submitSectionDiff_withRemovedSection_discardsDiff() {
+        // Given
+        ListSection section = new ListSection(Arrays.asList("a", "b"));
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSectionDiff(section, new ListDiffCallback(section, Arrays.asList("a", "b", "c")));
+        spySectionedRecyclerViewAdapter.removeSection(section);
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+        assertThat(section.list, is(Arrays.asList("a", "b")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void submitSectionDiff_withInvalidSection_throwsException() {
+        // Given
+        ListSection section = new ListSection(Arrays.asList("a", "b"));
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSectionDiff(section, new ListDiffCallback(section, Arrays.asList("a", "b", "c")));
+    }
+
+    @Test
+    public void submitSections_withSectionInserted_callsSuperNotifyItemRangeInserted() {
+        // Given
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        Section section2 = new StatelessSectionStub(ITEMS_QTY);
+        spySectionedRecyclerViewAdapter.addSection("a", section);
+
+        Map<String, Section> sections = new LinkedHashMap<>();
+        sections.put("b", section2);
+        sections.put("a", section);
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSections(sections);
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(0, ITEMS_QTY);
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeRemoved(anyInt(), anyInt());
+        assertThat(spySectionedRecyclerViewAdapter.getSectionForPosition(0), is(section2));
+        assertThat(spySectionedRecyclerViewAdapter.getSectionForPosition(ITEMS_QTY), is(section));
+    }
+
+    @Test
+    public void submitSections_withSectionRemoved_callsSuperNotifyItemRangeRemoved() {
+        // Given
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        spySectionedRecyclerViewAdapter.addSection("a", section);
+        spySectionedRecyclerViewAdapter.addSection("b", new StatelessSectionStub(ITEMS_QTY));
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSections(Collections.singletonMap("a", section));
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(ITEMS_QTY, ITEMS_QTY);
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(ITEMS_QTY));
+        assertNull(spySectionedRecyclerViewAdapter.getSection("b"));
+    }
+
+    @Test
+    public void submitSections_withSectionsSwapped_callsSuperNotifyItemMoved() {
+        // Given
+        ListSection section = new ListSection(Collections.singletonList("a"));
+        ListSection section2 = new ListSection(Collections.singletonList("b"));
+        spySectionedRecyclerViewAdapter.addSection("a", section);
+        spySectionedRecyclerViewAdapter.addSection("b", section2);
+
+        Map<String, Section> sections = new LinkedHashMap<>();
+        sections.put("b", section2);
+        sections.put("a", section);
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSections(sections);
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemMoved(anyInt(), anyInt());
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeRemoved(anyInt(), anyInt());
+        assertThat(spySectionedRecyclerViewAdapter.getSectionForPosition(0), is((Section) section2));
+        assertThat(spySectionedRecyclerViewAdapter.getSectionForPosition(1), is((Section) section));
+    }
+
+    @Test
+    public void submitSections_withSectionReplacedByLargerSection_callsSuperNotifyItemRangeInserted() {
+        // Given
+        spySectionedRecyclerViewAdapter.addSection("a", new ListSection(Arrays.asList("a", "b")));
+        ListSection section = new ListSection(Arrays.asList("a", "b", "c"));
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSections(Collections.<String, Section>singletonMap("a", section));
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(2, 1);
+        assertThat(spySectionedRecyclerViewAdapter.getSection("a"), is((Section) section));
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(3));
+    }
+
+    @Test
+    public void submitSections_withAdapterModifiedBeforeDispatch_callsSuperNotifyDataSetChanged() {
+        // Given
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        spySectionedRecyclerViewAdapter.addSection("a", section);
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSections(Collections.singletonMap("b", section));
+        spySectionedRecyclerViewAdapter.addSection("c", new StatelessSectionStub(ITEMS_QTY));
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyDataSetChanged();
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+        assertThat(spySectionedRecyclerViewAdapter.getCopyOfSectionsMap().keySet(), is(Collections.singleton("b")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void submitSections_withSameSectionTwice_throwsException() {
+        // Given
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        Map<String, Section> sections = new LinkedHashMap<>();
+        sections.put("a", section);
+        sections.put("b", section);
+
+        // When
+        spySectionedRecyclerViewAdapter.submitSections(sections);
+    }
+
+    private void runBackgroundTasks() {
+        Runnable task;
+        while ((task = backgroundTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static class ListSection extends StatelessSection {
+
+        private List<String> list;
+
+        ListSection(List<String> list) {
+            super(SectionParameters.builder()
+                    .itemResourceId(-1)
+                    .build());
+
+            this.list = list;
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return list.get(position).hashCode();
+        }
+
+        @Override
+        public int getContentItemsTotal() {
+            return list.size();
+        }
+
+        @Override
+        public RecyclerView.ViewHolder getItemViewHolder(View view) {
+            return null;
+        }
+
+        @Override
+        public void onBindItemViewHolder(RecyclerView.ViewHolder holder, int position) {
+
+        }
+    }
+
+    private static class ListDiffCallback extends SectionDiffCallback {
+
+        private final ListSection section;
+        private final List<String> oldList;
+        private final List<String> newList;
+
+        ListDiffCallback(ListSection section, List<String> newList) {
+            this.section = section;
+            this.oldList = section.list;
+            this.newList = newList;
+        }
+
+        @Override
+        public void applyNewContent() {
+            section.list = newList;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldList.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newList.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return oldList.get(oldItemPosition).equals(newList.get(newItemPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return true;
+        }
+    }
+}
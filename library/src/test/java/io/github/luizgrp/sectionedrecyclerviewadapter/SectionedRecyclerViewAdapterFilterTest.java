@@ -0,0 +1,184 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.StatelessSectionStub;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/*
+ * Unit tests for SectionedRecyclerViewAdapter, testing specifically the filtering of the sections.
+ */
+@SuppressWarnings({"PMD.MethodNamingConventions"})
+public class SectionedRecyclerViewAdapterFilterTest {
+
+    private static final int ITEMS_QTY = 10;
+    private static final List<String> FRUITS = Arrays.asList("apple", "banana", "cherry", "avocado", "blueberry");
+
+    private final Queue<Runnable> backgroundTasks = new ArrayDeque<>();
+
+    @Spy
+    private SectionedRecyclerViewAdapter spySectionedRecyclerViewAdapter;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        spySectionedRecyclerViewAdapter.setBackgroundExecutors(new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                backgroundTasks.add(command);
+            }
+        }, new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                command.run();
+            }
+        });
+
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(anyInt(), anyInt());
+    }
+
+    @Test
+    public void filterSections_withQuery_callsSuperNotifyItemRangeRemovedForEachRange() {
+        // Given
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        ListFilterableSection section = new ListFilterableSection(FRUITS);
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        spySectionedRecyclerViewAdapter.filterSections("b");
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(11, 1);
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(12, 2);
+        assertThat(section.getItem(1), is("blueberry"));
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(13));
+    }
+
+    @Test
+    public void filterSections_withoutMatches_hidesSection() {
+        // Given
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        ListFilterableSection section = new ListFilterableSection(FRUITS);
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        spySectionedRecyclerViewAdapter.filterSections("z");
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(11, 5);
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(10, 1);
+        assertThat(section.isVisible(), is(false));
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(ITEMS_QTY));
+    }
+
+    @Test
+    public void filterSections_withEmptyQueryAfterQueryWithoutMatches_showsAllItems() {
+        // Given
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        ListFilterableSection section = new ListFilterableSection(FRUITS);
+        spySectionedRecyclerViewAdapter.addSection(section);
+        spySectionedRecyclerViewAdapter.filterSections("z");
+        runBackgroundTasks();
+
+        // When
+        spySectionedRecyclerViewAdapter.filterSections("");
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(10, 6);
+        assertThat(section.isVisible(), is(true));
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(16));
+    }
+
+    @Test
+    public void filterSections_withEmptyQueryAndSectionHiddenByApp_keepsSectionInvisible() {
+        // Given
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        ListFilterableSection section = new ListFilterableSection(FRUITS);
+        section.setVisible(false);
+        spySectionedRecyclerViewAdapter.addSection(section);
+        spySectionedRecyclerViewAdapter.filterSections("z");
+        runBackgroundTasks();
+
+        // When
+        spySectionedRecyclerViewAdapter.filterSections("");
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+        assertThat(section.isVisible(), is(false));
+        assertThat(spySectionedRecyclerViewAdapter.getItemCount(), is(ITEMS_QTY));
+    }
+
+    @Test
+    public void filterSections_withNewerQuerySubmitted_discardsOlderQuery() {
+        // Given
+        ListFilterableSection section = new ListFilterableSection(FRUITS);
+        spySectionedRecyclerViewAdapter.addSection(section);
+
+        // When
+        spySectionedRecyclerViewAdapter.filterSections("b");
+        spySectionedRecyclerViewAdapter.filterSections("ch");
+        runBackgroundTasks();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(1, 2);
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(2, 2);
+        assertThat(section.getContentItemsTotal(), is(1));
+        assertThat(section.getItem(0), is("cherry"));
+    }
+
+    private void runBackgroundTasks() {
+        while (!backgroundTasks.isEmpty()) {
+            backgroundTasks.poll().run();
+        }
+    }
+
+    private static class ListFilterableSection extends FilterableSection<String> {
+
+        ListFilterableSection(List<String> list) {
+            super(SectionParameters.builder()
+                    .itemResourceId(-1)
+                    .headerResourceId(-1)
+                    .build(), list);
+        }
+
+        @Override
+        public boolean matches(String item, @NonNull CharSequence query) {
+            return item.contains(query);
+        }
+
+        @Override
+        public RecyclerView.ViewHolder getItemViewHolder(View view) {
+            return null;
+        }
+
+        @Override
+        public void onBindItemViewHolder(RecyclerView.ViewHolder holder, int position) {
+
+        }
+    }
+}
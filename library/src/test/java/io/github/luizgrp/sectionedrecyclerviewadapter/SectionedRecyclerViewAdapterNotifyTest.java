@@ -2,9 +2,12 @@ package io.github.luizgrp.sectionedrecyclerviewadapter;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 
+import java.util.Arrays;
+
 import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.HeadedFootedSectionStub;
 import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.HeadedFootedStatelessSectionStub;
 import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.StatelessSectionStub;
@@ -12,7 +15,9 @@ import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.Stateless
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @SuppressWarnings({"PMD.MethodNamingConventions"})
@@ -20,6 +25,7 @@ public class SectionedRecyclerViewAdapterNotifyTest {
 
     private static final int ITEMS_QTY = 10;
     private static final String SECTION_TAG = "tag";
+    private static final Object PAYLOAD = new Object();
 
     @Spy
     private SectionedRecyclerViewAdapter spySectionedRecyclerViewAdapter;
@@ -230,6 +236,67 @@ public class SectionedRecyclerViewAdapterNotifyTest {
         verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemChanged(10);
     }
 
+    @Test
+    public void notifyItemChangedInSectionWithPayloadUsingTag_withAdapterWithManySections_callsSuperNotifyItemChanged() {
+        // Given
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemChanged(anyInt(), any());
+
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.addSection(SECTION_TAG, new HeadedFootedStatelessSectionStub(ITEMS_QTY));
+
+        // When
+        spySectionedRecyclerViewAdapter.notifyItemChangedInSection(SECTION_TAG, 0, PAYLOAD);
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemChanged(11, PAYLOAD);
+    }
+
+    @Test
+    public void notifyItemChangedInSectionWithPayloadUsingSection_withAdapterWithManySections_callsSuperNotifyItemChanged() {
+        // Given
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemChanged(anyInt(), any());
+
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        HeadedFootedStatelessSectionStub headedFootedStatelessSectionStub = new HeadedFootedStatelessSectionStub(ITEMS_QTY);
+        spySectionedRecyclerViewAdapter.addSection(headedFootedStatelessSectionStub);
+
+        // When
+        spySectionedRecyclerViewAdapter.notifyItemChangedInSection(headedFootedStatelessSectionStub, 0, PAYLOAD);
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemChanged(11, PAYLOAD);
+    }
+
+    @Test
+    public void notifyHeaderChangedInSectionWithPayloadUsingTag_withAdapterWithManySections_callsSuperNotifyItemChanged() {
+        // Given
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemChanged(anyInt(), any());
+
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.addSection(SECTION_TAG, new HeadedFootedStatelessSectionStub(ITEMS_QTY));
+
+        // When
+        spySectionedRecyclerViewAdapter.notifyHeaderChangedInSection(SECTION_TAG, PAYLOAD);
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemChanged(10, PAYLOAD);
+    }
+
+    @Test
+    public void notifyFooterChangedInSectionWithPayloadUsingTag_withAdapterWithManySections_callsSuperNotifyItemChanged() {
+        // Given
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemChanged(anyInt(), any());
+
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.addSection(SECTION_TAG, new HeadedFootedStatelessSectionStub(ITEMS_QTY));
+
+        // When
+        spySectionedRecyclerViewAdapter.notifyFooterChangedInSection(SECTION_TAG, PAYLOAD);
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemChanged(21, PAYLOAD);
+    }
+
     @Test(expected = IllegalStateException.class)
     public void notifyHeaderChangedInSectionUsingTag_withAdapterWithManySections_throwsIllegalStateException() {
         // Given
@@ -763,4 +830,133 @@ public class SectionedRecyclerViewAdapterNotifyTest {
         // Then
         verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(10, 12);
     }
+
+    @Test
+    public void addSectionAtIndex_withAdapterWithManySections_callsSuperNotifyItemRangeInserted() {
+        // Given
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+
+        // When
+        spySectionedRecyclerViewAdapter.addSection(1, SECTION_TAG, new HeadedFootedStatelessSectionStub(ITEMS_QTY));
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(10, 12);
+    }
+
+    @Test
+    public void moveSection_withSmallerSectionMovedDown_callsSuperNotifyItemMovedForEachItemOfTheSection() {
+        // Given
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemMoved(anyInt(), anyInt());
+
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(1));
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+
+        // When
+        spySectionedRecyclerViewAdapter.moveSection(0, 1);
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter, times(1)).callSuperNotifyItemMoved(anyInt(), anyInt());
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemMoved(0, 10);
+    }
+
+    @Test
+    public void moveSection_withLargeSectionsMovedUp_callsSuperNotifyItemRangeRemovedAndInserted() {
+        // Given
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(anyInt(), anyInt());
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY * 10));
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY * 5));
+
+        // When
+        spySectionedRecyclerViewAdapter.moveSection(1, 0);
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemMoved(anyInt(), anyInt());
+        InOrder inOrder = inOrder(spySectionedRecyclerViewAdapter);
+        inOrder.verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(100, 50);
+        inOrder.verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(0, 50);
+    }
+
+    @Test
+    public void swapSections_withSectionsInBetween_callsSuperNotifyItemMovedForTheSmallestBlocks() {
+        // Given
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemMoved(anyInt(), anyInt());
+
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(1));
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(2));
+
+        // When
+        spySectionedRecyclerViewAdapter.swapSections(0, 2);
+
+        // Then
+        InOrder inOrder = inOrder(spySectionedRecyclerViewAdapter);
+        inOrder.verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemMoved(0, 12);
+        inOrder.verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemMoved(10, 0);
+        inOrder.verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemMoved(11, 1);
+        verify(spySectionedRecyclerViewAdapter, times(3)).callSuperNotifyItemMoved(anyInt(), anyInt());
+    }
+
+    @Test
+    public void moveSection_duringBatch_callsSuperNotifyDataSetChangedAtTheEnd() {
+        // Given
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyDataSetChanged();
+
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+
+        // When
+        spySectionedRecyclerViewAdapter.beginBatch();
+        spySectionedRecyclerViewAdapter.moveSection(1, 0);
+        spySectionedRecyclerViewAdapter.endBatch();
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter, never()).callSuperNotifyItemMoved(anyInt(), anyInt());
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyDataSetChanged();
+    }
+
+    @Test
+    public void setSectionsVisible_withAdjacentSectionsToInvisible_callsSuperNotifyItemRangeRemovedOnce() {
+        // Given
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(anyInt(), anyInt());
+
+        spySectionedRecyclerViewAdapter.addSection("a", new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.addSection("b", new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.addSection("c", new HeadedFootedStatelessSectionStub(ITEMS_QTY));
+
+        // When
+        spySectionedRecyclerViewAdapter.setSectionsVisible(Arrays.asList("b", "c"), false);
+
+        // Then
+        verify(spySectionedRecyclerViewAdapter, times(1)).callSuperNotifyItemRangeRemoved(anyInt(), anyInt());
+        verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeRemoved(10, 22);
+    }
+
+    @Test
+    public void setSectionsVisible_withSectionsApartToVisible_callsSuperNotifyItemRangeInsertedInOrder() {
+        // Given
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+
+        spySectionedRecyclerViewAdapter.addSection("a", new StatelessSectionStub(ITEMS_QTY));
+        StatelessSectionStub statelessSectionStub = new StatelessSectionStub(ITEMS_QTY);
+        statelessSectionStub.setVisible(false);
+        spySectionedRecyclerViewAdapter.addSection("b", statelessSectionStub);
+        spySectionedRecyclerViewAdapter.addSection("c", new StatelessSectionStub(ITEMS_QTY));
+        HeadedFootedStatelessSectionStub headedFootedStatelessSectionStub = new HeadedFootedStatelessSectionStub(ITEMS_QTY);
+        headedFootedStatelessSectionStub.setVisible(false);
+        spySectionedRecyclerViewAdapter.addSection("d", headedFootedStatelessSectionStub);
+
+        // When
+        spySectionedRecyclerViewAdapter.setSectionsVisible(Arrays.asList("d", "b", "a"), true);
+
+        // Then
+        InOrder inOrder = inOrder(spySectionedRecyclerViewAdapter);
+        inOrder.verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(10, 10);
+        inOrder.verify(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(30, 12);
+        verify(spySectionedRecyclerViewAdapter, times(2)).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+    }
 }
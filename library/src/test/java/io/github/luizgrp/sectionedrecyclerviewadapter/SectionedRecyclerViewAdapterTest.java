@@ -1,14 +1,24 @@
 package io.github.luizgrp.sectionedrecyclerviewadapter;
 
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.FootedSectionStub;
 import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.FootedStatelessSectionStub;
 import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.HeadedFootedSectionStub;
 import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.HeadedFootedStatelessSectionStub;
 import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.HeadedSectionStub;
 import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.HeadedStatelessSectionStub;
+import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.KeyedStatelessSectionStub;
 import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.SectionStub;
 import io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub.StatelessSectionStub;
 
@@ -19,6 +29,7 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
@@ -144,6 +155,34 @@ public class SectionedRecyclerViewAdapterTest {
         assertThat(sectionAdapter.getCopyOfSectionsMap().get(result), is(section));
     }
 
+    @Test
+    public void addSectionUsingSection_afterSectionRemoved_generatesNewTag() {
+        // Given
+        String tag = sectionAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        sectionAdapter.removeSection(tag);
+
+        // When
+        String result = sectionAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+
+        // Then
+        assertThat(result.equals(tag), is(false));
+    }
+
+    @Test
+    public void addSectionUsingSection_withGeneratedTagAlreadyUsed_generatesAnotherTag() {
+        // Given
+        String tag = new SectionedRecyclerViewAdapter().addSection(new StatelessSectionStub(ITEMS_QTY));
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        sectionAdapter.addSection(tag, section);
+
+        // When
+        String result = sectionAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+
+        // Then
+        assertThat(result.equals(tag), is(false));
+        assertThat(sectionAdapter.getSection(tag), is(section));
+    }
+
     @Test
     public void addSectionUsingTag_withEmptyAdapter_succeeds() {
         // Given
@@ -251,6 +290,59 @@ public class SectionedRecyclerViewAdapterTest {
         assertNull(sectionAdapter.getSection(SECTION_TAG));
     }
 
+    @Test
+    public void removeSection_withFirstSection_shiftsPositionOfNextSections() {
+        // Given
+        final StatelessSectionStub section = new StatelessSectionStub(ITEMS_QTY);
+        final StatelessSectionStub section2 = new StatelessSectionStub(ITEMS_QTY);
+        sectionAdapter.addSection(section);
+        sectionAdapter.addSection(section2);
+        sectionAdapter.getItemCount();
+
+        // When
+        sectionAdapter.removeSection(section);
+        int result = sectionAdapter.getSectionPosition(section2);
+
+        // Then
+        assertThat(result, is(0));
+        assertThat(sectionAdapter.getCopyOfSectionsMap().size(), is(1));
+    }
+
+    @Test
+    public void addSectionAtIndex_withAdapterWithManySections_insertsSectionInOrder() {
+        // Given
+        SectionedRecyclerViewAdapter spySectionedRecyclerViewAdapter = spy(SectionedRecyclerViewAdapter.class);
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+        spySectionedRecyclerViewAdapter.addSection("a", new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.addSection("b", new StatelessSectionStub(ITEMS_QTY));
+        final StatelessSectionStub section = new StatelessSectionStub(ITEMS_QTY);
+
+        // When
+        spySectionedRecyclerViewAdapter.addSection(1, SECTION_TAG, section);
+
+        // Then
+        assertThat(new ArrayList<>(spySectionedRecyclerViewAdapter.getCopyOfSectionsMap().keySet()), is(Arrays.asList("a", SECTION_TAG, "b")));
+        assertThat(spySectionedRecyclerViewAdapter.getSectionPosition(section), is(ITEMS_QTY));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addSectionAtIndex_withExistingTag_throwsException() {
+        // Given
+        sectionAdapter.addSection(SECTION_TAG, new StatelessSectionStub(ITEMS_QTY));
+
+        // When
+        sectionAdapter.addSection(0, SECTION_TAG, new StatelessSectionStub(ITEMS_QTY));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void moveSection_withInvalidIndex_throwsException() {
+        // Given
+        sectionAdapter.addSection(SECTION_TAG, new StatelessSectionStub(ITEMS_QTY));
+
+        // When
+        sectionAdapter.moveSection(0, 1);
+    }
+
     @Test
     public void getItemCount_withEmptyAdapter_isZero() {
         // When
@@ -273,6 +365,115 @@ public class SectionedRecyclerViewAdapterTest {
         assertThat(result, is(ITEMS_QTY));
     }
 
+    @Test
+    public void getItemCount_withSectionChangedToInvisibleAfterLookup_returnsCorrectQuantity() {
+        // Given
+        addStatelessSectionStubToAdapter();
+        Section section = addStatelessSectionStubToAdapter();
+        sectionAdapter.getItemCount();
+
+        // When
+        section.setVisible(false);
+        int result = sectionAdapter.getItemCount();
+
+        // Then
+        assertThat(result, is(ITEMS_QTY));
+    }
+
+    @Test
+    public void getItemCount_withSectionStateChangedAfterLookup_returnsCorrectQuantity() {
+        // Given
+        Section section = addSectionStubToAdapter();
+        addStatelessSectionStubToAdapter();
+        sectionAdapter.getItemCount();
+
+        // When
+        section.setState(State.LOADING);
+        int result = sectionAdapter.getItemCount();
+
+        // Then
+        assertThat(result, is(ITEMS_QTY + 1));
+    }
+
+    @Test
+    public void getItemCount_withRemovedSectionAfterLookup_returnsCorrectQuantity() {
+        // Given
+        addStatelessSectionStubToAdapter();
+        sectionAdapter.addSection(SECTION_TAG, new StatelessSectionStub(ITEMS_QTY));
+        addStatelessSectionStubToAdapter();
+        sectionAdapter.getItemCount();
+
+        // When
+        sectionAdapter.removeSection(SECTION_TAG);
+        int result = sectionAdapter.getItemCount();
+
+        // Then
+        assertThat(result, is(ITEMS_QTY * 2));
+    }
+
+    @Test
+    public void getItemCount_withDataSetChangedWhileDetached_returnsCorrectQuantity() {
+        // Given
+        final List<RecyclerView.AdapterDataObserver> observers = new ArrayList<>();
+        SectionedRecyclerViewAdapter adapter = new SectionedRecyclerViewAdapter() {
+            // the observers are not notified by the android.jar of the unit tests
+            @Override
+            public void registerAdapterDataObserver(@NonNull RecyclerView.AdapterDataObserver observer) {
+                observers.add(observer);
+            }
+        };
+        Section section = spy(new StatelessSectionStub(ITEMS_QTY));
+        Section section2 = new StatelessSectionStub(ITEMS_QTY);
+        adapter.addSection(section);
+        adapter.addSection(section2);
+        adapter.getItemCount();
+
+        // When
+        doReturn(ITEMS_QTY + 1).when(section).getContentItemsTotal();
+        for (RecyclerView.AdapterDataObserver observer : observers) {
+            observer.onChanged(); // notifyDataSetChanged
+        }
+        int result = adapter.getItemCount();
+
+        // Then
+        assertThat(result, is(ITEMS_QTY * 2 + 1));
+        assertThat(adapter.getSectionForPosition(ITEMS_QTY), is(section));
+        assertThat(adapter.getPositionInAdapter(section2, 0), is(ITEMS_QTY + 1));
+    }
+
+    @Test
+    public void getItemCount_withItemsInsertedInSectionAfterLookup_returnsCorrectQuantity() {
+        // Given
+        SectionedRecyclerViewAdapter spySectionedRecyclerViewAdapter = spy(SectionedRecyclerViewAdapter.class);
+        doNothing().when(spySectionedRecyclerViewAdapter).callSuperNotifyItemRangeInserted(anyInt(), anyInt());
+        Section section = spy(new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.addSection(section);
+        spySectionedRecyclerViewAdapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        spySectionedRecyclerViewAdapter.setDebugChecksEnabled(true);
+        spySectionedRecyclerViewAdapter.getItemCount();
+
+        // When
+        doReturn(ITEMS_QTY + 2).when(section).getContentItemsTotal();
+        spySectionedRecyclerViewAdapter.notifyItemRangeInsertedInSection(section, 0, 2);
+        int result = spySectionedRecyclerViewAdapter.getItemCount();
+
+        // Then
+        assertThat(result, is(ITEMS_QTY * 2 + 2));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void getItemCount_withDebugChecksEnabledAndSectionChangedWithoutNotification_throwsException() {
+        // Given
+        Section section = spy(new StatelessSectionStub(ITEMS_QTY));
+        sectionAdapter.addSection(section);
+        sectionAdapter.setDebugChecksEnabled(true);
+        sectionAdapter.getItemCount();
+
+        // When
+        doReturn(ITEMS_QTY + 2).when(section).getContentItemsTotal();
+        sectionAdapter.getItemCount();
+    }
+
     @Test
     public void getCopyOfSectionsMap_withEmptyAdapter_isEmpty() {
         // When
@@ -356,6 +557,39 @@ public class SectionedRecyclerViewAdapterTest {
         assertThat(result8, is(sectionStub3));
     }
 
+    @Test
+    public void getSectionForPosition_withHeaderAddedAfterLookup_returnsCorrectSection() {
+        // Given
+        Section sectionStub1 = addStatelessSectionStubToAdapter();
+        Section sectionStub2 = addStatelessSectionStubToAdapter();
+        sectionAdapter.getSectionForPosition(10);
+
+        // When
+        sectionStub1.setHasHeader(true);
+        Section result = sectionAdapter.getSectionForPosition(10);
+        Section result2 = sectionAdapter.getSectionForPosition(11);
+
+        // Then
+        assertThat(result, is(sectionStub1));
+        assertThat(result2, is(sectionStub2));
+    }
+
+    @Test
+    public void getSectionForPosition_withReplacedSection_returnsNewSection() {
+        // Given
+        addStatelessSectionStubToAdapter();
+        sectionAdapter.addSection(SECTION_TAG, new StatelessSectionStub(ITEMS_QTY));
+        Section sectionStub = new HeadedFootedStatelessSectionStub(ITEMS_QTY);
+
+        // When
+        sectionAdapter.addSection(SECTION_TAG, sectionStub);
+        Section result = sectionAdapter.getSectionForPosition(21);
+
+        // Then
+        assertThat(result, is(sectionStub));
+        assertThat(sectionAdapter.getItemCount(), is(22));
+    }
+
     @Test
     public void getSectionItemViewTypeForAdapterViewType_withViewTypesFrom0to5() {
         // Given
@@ -551,6 +785,160 @@ public class SectionedRecyclerViewAdapterTest {
         assertThat(viewTypeEmpty, is(29));
     }
 
+    @Test
+    public void getItemViewType_withSectionsWithSameViewTypeKey_returnsSameViewType() {
+        // Given
+        sectionAdapter.addSection(new KeyedStatelessSectionStub("key", ITEMS_QTY));
+        addStatelessSectionStubToAdapter();
+        sectionAdapter.addSection(new KeyedStatelessSectionStub("key", ITEMS_QTY));
+
+        // When
+        int result = sectionAdapter.getItemViewType(0);
+        int result2 = sectionAdapter.getItemViewType(10);
+        int result3 = sectionAdapter.getItemViewType(20);
+
+        // Then
+        assertThat(result, is(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+        assertThat(result2, is(6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+        assertThat(result3, is(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+    }
+
+    @Test
+    public void getItemViewType_withSectionsWithDifferentViewTypeKeys_returnsDifferentViewTypes() {
+        // Given
+        sectionAdapter.addSection(new KeyedStatelessSectionStub("key", ITEMS_QTY));
+        sectionAdapter.addSection(new KeyedStatelessSectionStub("otherKey", ITEMS_QTY));
+
+        // When
+        int result = sectionAdapter.getItemViewType(0);
+        int result2 = sectionAdapter.getItemViewType(10);
+
+        // Then
+        assertThat(result, is(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+        assertThat(result2, is(6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+    }
+
+    @Test
+    public void getItemViewType_withSectionAddedAfterRemovedSection_reusesViewTypes() {
+        // Given
+        Section section = new StatelessSectionStub(ITEMS_QTY);
+        sectionAdapter.addSection(section);
+        addStatelessSectionStubToAdapter();
+        sectionAdapter.removeSection(section);
+        addStatelessSectionStubToAdapter();
+
+        // When
+        int result = sectionAdapter.getItemViewType(0);
+        int result2 = sectionAdapter.getItemViewType(10);
+
+        // Then
+        assertThat(result, is(6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+        assertThat(result2, is(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+    }
+
+    @Test
+    public void getItemViewType_withSectionAddedAfterRemoveAllSections_reusesViewTypes() {
+        // Given
+        addStatelessSectionStubToAdapter();
+        addStatelessSectionStubToAdapter();
+        sectionAdapter.removeAllSections();
+        addStatelessSectionStubToAdapter();
+        addStatelessSectionStubToAdapter();
+        addStatelessSectionStubToAdapter();
+
+        // When
+        int result = sectionAdapter.getItemViewType(0);
+        int result2 = sectionAdapter.getItemViewType(10);
+        int result3 = sectionAdapter.getItemViewType(20);
+
+        // Then
+        assertThat(result, is(SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+        assertThat(result2, is(6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+        assertThat(result3, is(12 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getItemId_withEmptyAdapter_throwsException() {
+        // When
+        sectionAdapter.getItemId(0);
+    }
+
+    @Test
+    public void getItemId_withAdapterWithManySections_returnsUniqueIds() {
+        // Given
+        addHeadedFootedStatelessSectionStubToAdapter();
+        addHeadedFootedStatelessSectionStubToAdapter();
+        Set<Long> ids = new HashSet<>();
+
+        // When
+        for (int i = 0; i < sectionAdapter.getItemCount(); i++) {
+            ids.add(sectionAdapter.getItemId(i));
+        }
+
+        // Then
+        assertThat(ids.size(), is(sectionAdapter.getItemCount()));
+    }
+
+    @Test
+    public void getItemId_withReplacedSection_returnsSameId() {
+        // Given
+        sectionAdapter.addSection(SECTION_TAG, new HeadedFootedStatelessSectionStub(ITEMS_QTY));
+        long headerId = sectionAdapter.getItemId(0);
+        long itemId = sectionAdapter.getItemId(1);
+
+        // When
+        sectionAdapter.addSection(SECTION_TAG, new HeadedFootedStatelessSectionStub(ITEMS_QTY));
+        long result = sectionAdapter.getItemId(0);
+        long result2 = sectionAdapter.getItemId(1);
+
+        // Then
+        assertThat(result, is(headerId));
+        assertThat(result2, is(itemId));
+    }
+
+    @Test
+    public void getItemId_withSectionAddedAfterRemovedSectionIsNotified_reusesIdOfRemovedSection() {
+        // Given
+        final List<RecyclerView.AdapterDataObserver> observers = new ArrayList<>();
+        SectionedRecyclerViewAdapter adapter = new SectionedRecyclerViewAdapter() {
+            // the observers are not notified by the android.jar of the unit tests
+            @Override
+            public void registerAdapterDataObserver(@NonNull RecyclerView.AdapterDataObserver observer) {
+                observers.add(observer);
+            }
+        };
+        adapter.addSection(SECTION_TAG, new StatelessSectionStub(ITEMS_QTY));
+        long removedId = adapter.getItemId(0);
+        adapter.removeSection(SECTION_TAG);
+
+        // When
+        adapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        long result = adapter.getItemId(0);
+        for (RecyclerView.AdapterDataObserver observer : observers) {
+            observer.onItemRangeRemoved(0, ITEMS_QTY); // notifyItemRangeRemoved
+        }
+        adapter.addSection(new StatelessSectionStub(ITEMS_QTY));
+        long result2 = adapter.getItemId(ITEMS_QTY);
+
+        // Then
+        assertTrue(result != removedId);
+        assertThat(result2, is(removedId));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void getItemId_withSectionReturningInvalidId_throwsException() {
+        // Given
+        sectionAdapter.addSection(new StatelessSectionStub(ITEMS_QTY) {
+            @Override
+            public long getItemId(int position) {
+                return -1;
+            }
+        });
+
+        // When
+        sectionAdapter.getItemId(0);
+    }
+
     @Test
     public void onCreateViewHolder_withEmptyAdapter_returnsNull() {
         // When
@@ -561,6 +949,53 @@ public class SectionedRecyclerViewAdapterTest {
         assertNull(result);
     }
 
+    @Test
+    public void onCreateViewHolder_withRemovedSection_returnsNull() {
+        // Given
+        addStatelessSectionStubToAdapter();
+        sectionAdapter.addSection(SECTION_TAG, new StatelessSectionStub(ITEMS_QTY));
+        sectionAdapter.removeSection(SECTION_TAG);
+
+        // When
+        @SuppressWarnings("ConstantConditions")
+        Object result = sectionAdapter.onCreateViewHolder(null, 6 + SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void onCreateViewHolder_withRemovedSections_returnsNull() {
+        // Given
+        addStatelessSectionStubToAdapter();
+        sectionAdapter.removeAllSections();
+
+        // When
+        @SuppressWarnings("ConstantConditions")
+        Object result = sectionAdapter.onCreateViewHolder(null, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void onCreateViewHolder_withRemovedSectionsWithSameViewTypeKey_returnsNull() {
+        // Given
+        Section section = new KeyedStatelessSectionStub("key", ITEMS_QTY);
+        Section section2 = new KeyedStatelessSectionStub("key", ITEMS_QTY);
+        sectionAdapter.addSection(section);
+        sectionAdapter.addSection(section2);
+        sectionAdapter.removeSection(section);
+        sectionAdapter.removeSection(section2);
+
+        // When
+        @SuppressWarnings("ConstantConditions")
+        Object result = sectionAdapter.onCreateViewHolder(null, SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // Then
+        assertNull(result);
+    }
+
     @Test(expected = NullPointerException.class)
     public void onCreateViewHolder_withStatelessSection_throwsExceptionForHeader() {
         // Given
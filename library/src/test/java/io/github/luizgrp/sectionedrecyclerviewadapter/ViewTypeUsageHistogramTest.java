@@ -0,0 +1,105 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/*
+ * Unit tests for ViewTypeUsageHistogram
+ */
+@SuppressWarnings({"PMD.MethodNamingConventions"})
+public class ViewTypeUsageHistogramTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void readFrom_withFileWritten_returnsRecordedCounts() throws IOException {
+        // Given
+        File file = new File(temporaryFolder.getRoot(), "histogram");
+        ViewTypeUsageHistogram histogram = new ViewTypeUsageHistogram();
+        for (int i = 0; i < 200; i++) {
+            histogram.record("card", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        }
+        histogram.record("card", SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER);
+        histogram.record("row", SectionedRecyclerViewAdapter.VIEW_TYPE_EMPTY);
+        histogram.writeTo(file);
+
+        // When
+        ViewTypeUsageHistogram result = ViewTypeUsageHistogram.readFrom(file);
+
+        // Then
+        assertThat(result.getCount("card", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED), is(200));
+        assertThat(result.getCount("card", SectionedRecyclerViewAdapter.VIEW_TYPE_HEADER), is(1));
+        assertThat(result.getCount("card", SectionedRecyclerViewAdapter.VIEW_TYPE_FOOTER), is(0));
+        assertThat(result.getCount("row", SectionedRecyclerViewAdapter.VIEW_TYPE_EMPTY), is(1));
+        assertThat(result.getCount("other", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED), is(0));
+    }
+
+    @Test
+    public void writeTo_withExistingFile_replacesFile() throws IOException {
+        // Given
+        File file = new File(temporaryFolder.getRoot(), "histogram");
+        ViewTypeUsageHistogram histogram = new ViewTypeUsageHistogram();
+        histogram.record("card", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        histogram.writeTo(file);
+        ViewTypeUsageHistogram histogram2 = new ViewTypeUsageHistogram();
+        histogram2.record("row", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // When
+        histogram2.writeTo(file);
+        ViewTypeUsageHistogram result = ViewTypeUsageHistogram.readFrom(file);
+
+        // Then
+        assertThat(result.getCount("card", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED), is(0));
+        assertThat(result.getCount("row", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED), is(1));
+    }
+
+    @Test
+    public void writeTo_withFailedWrite_keepsPreviousFile() throws IOException {
+        // Given
+        File file = new File(temporaryFolder.getRoot(), "histogram");
+        ViewTypeUsageHistogram histogram = new ViewTypeUsageHistogram();
+        histogram.record("card", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+        histogram.writeTo(file);
+        ViewTypeUsageHistogram histogram2 = new ViewTypeUsageHistogram();
+        // a key longer than 65535 bytes cannot be written
+        histogram2.record(new String(new char[70000]).replace('\0', 'a'), SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED);
+
+        // When
+        try {
+            histogram2.writeTo(file);
+            fail("The file was written");
+        } catch (IOException e) {
+            // expected
+        }
+        ViewTypeUsageHistogram result = ViewTypeUsageHistogram.readFrom(file);
+
+        // Then
+        assertThat(result.getCount("card", SectionedRecyclerViewAdapter.VIEW_TYPE_ITEM_LOADED), is(1));
+    }
+
+    @Test
+    public void readFrom_withMissingFile_returnsEmptyHistogram() throws IOException {
+        // When
+        ViewTypeUsageHistogram result = ViewTypeUsageHistogram.readFrom(new File(temporaryFolder.getRoot(), "missing"));
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_withUnsupportedVersion_throwsException() throws IOException {
+        // When
+        ViewTypeUsageHistogram.readFrom(new ByteArrayInputStream(new byte[]{2, 0}));
+    }
+}
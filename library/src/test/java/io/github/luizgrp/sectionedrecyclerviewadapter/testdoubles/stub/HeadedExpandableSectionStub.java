@@ -0,0 +1,40 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub;
+
+import androidx.recyclerview.widget.RecyclerView;
+import android.view.View;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.ExpandableSection;
+import io.github.luizgrp.sectionedrecyclerviewadapter.SectionParameters;
+
+/**
+ * A stub of ExpandableSection with header.
+ */
+public class HeadedExpandableSectionStub extends ExpandableSection {
+
+    private final int contentItemsTotal;
+
+    public HeadedExpandableSectionStub(int contentItemsTotal) {
+        super(SectionParameters.builder()
+                .itemResourceId(-1)
+                .headerResourceId(-1)
+                .loadingResourceId(-1)
+                .build());
+
+        this.contentItemsTotal = contentItemsTotal;
+    }
+
+    @Override
+    public int getExpandedContentItemsTotal() {
+        return contentItemsTotal;
+    }
+
+    @Override
+    public RecyclerView.ViewHolder getItemViewHolder(View view) {
+        return null;
+    }
+
+    @Override
+    public void onBindItemViewHolder(RecyclerView.ViewHolder holder, int position) {
+
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.luizgrp.sectionedrecyclerviewadapter.testdoubles.stub;
+
+import androidx.recyclerview.widget.RecyclerView;
+import android.view.View;
+
+import io.github.luizgrp.sectionedrecyclerviewadapter.SectionParameters;
+import io.github.luizgrp.sectionedrecyclerviewadapter.StatelessSection;
+
+/**
+ * A stub of StatelessSection with no header or footer and with a view type key.
+ */
+public class KeyedStatelessSectionStub extends StatelessSection {
+
+    private final int contentItemsTotal;
+
+    public KeyedStatelessSectionStub(String viewTypeKey, int contentItemsTotal) {
+        super(SectionParameters.builder()
+                .itemResourceId(-1)
+                .viewTypeKey(viewTypeKey)
+                .build());
+
+        this.contentItemsTotal = contentItemsTotal;
+    }
+
+    @Override
+    public int getContentItemsTotal() {
+        return contentItemsTotal;
+    }
+
+    @Override
+    public RecyclerView.ViewHolder getItemViewHolder(View view) {
+        return null;
+    }
+
+    @Override
+    public void onBindItemViewHolder(RecyclerView.ViewHolder holder, int position) {
+
+    }
+}